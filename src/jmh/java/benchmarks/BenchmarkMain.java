@@ -0,0 +1,22 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: the JMH runner, writing results as JSON unless -rf says otherwise
+ * Results go to jmh-result.json (or -rff &lt;file&gt;); keep one per release to compare against.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        boolean formatGiven = options.stream().anyMatch(o -> o.startsWith("-rf") && !o.startsWith("-rff"));
+        if (!formatGiven) {
+            options.add(0, "-rf");
+            options.add(1, "json");
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
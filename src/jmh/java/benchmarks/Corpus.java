@@ -0,0 +1,73 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The synthetic text corpus in src/jmh/resources/corpus, scaled to a requested size
+ * A seed file is repeated until the text reaches the size; each copy stands for one
+ * lecture file. In lecture.txt "{n}" becomes a letter code per copy, so terms and commands
+ * stay distinct (definition terms cannot contain digits).
+ *
+ * lecture      slides as they come out of the PDF parser: definitions, prose, C code,
+ *              shell commands, exercises, stray control characters
+ * blank-lines  long stretches of whitespace-only lines, where every line start restarts the
+ *              definition pattern's leading \s* over the whole stretch
+ * capitalized  title-case lines without a separator, which the term group and the \s* around
+ *              it can split many ways before the missing colon fails the match
+ * long-line    a single line of commands and keywords, as many MB as asked for
+ */
+public final class Corpus {
+
+    public static final String[] NAMES = {"lecture", "blank-lines", "capitalized", "long-line"};
+
+    private Corpus() {
+    }
+
+    /**
+     * Copies of a seed, together at least the given size
+     */
+    public static List<String> files(String name, int kilobytes) {
+        String seed = seed(name);
+        List<String> files = new ArrayList<>();
+        long length = 0;
+        for (int n = 0; length < kilobytes * 1024L; n++) {
+            String copy = seed.replace("{n}", letters(n));
+            files.add(copy);
+            length += copy.length();
+        }
+        return files;
+    }
+
+    public static String text(String name, int kilobytes) {
+        return String.join("", files(name, kilobytes));
+    }
+
+    private static String seed(String name) {
+        try (InputStream in = Corpus.class.getResourceAsStream("/corpus/" + name + ".txt")) {
+            if (in == null) throw new IllegalArgumentException("No corpus named " + name);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 0 -> "Aa", 1 -> "Ab", ... in base 26
+     */
+    private static String letters(int n) {
+        StringBuilder code = new StringBuilder();
+        do {
+            code.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        if (code.length() < 2) code.append('a');
+        code.reverse();
+        code.setCharAt(0, Character.toUpperCase(code.charAt(0)));
+        return code.toString();
+    }
+}
@@ -0,0 +1,104 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saving a batch of custom cards and questions to the record logs, and loading them at startup
+ * Saving is appendCustomContent, the batch path behind imports; loading includes duplicate
+ * checks against the fingerprints. There is one question per four cards.
+ * Run: mvn -P benchmarks package && java -jar target/benchmarks.jar CustomContentBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomContentBenchmark {
+
+    private static final MethodHandle LOAD_CUSTOM = StudyAppAccess.method("loadCustomContent", void.class);
+    private static final MethodHandle APPEND_CUSTOM = StudyAppAccess.method("appendCustomContent", void.class, List.class, List.class);
+    private static final MethodHandle CLEAR_CUSTOM = StudyAppAccess.method("clearCustomContent", void.class);
+    private static final MethodHandle CLOSE_CUSTOM = StudyAppAccess.method("closeCustomContent", void.class);
+    private static final MethodHandle CARD_FINGERPRINT = StudyAppAccess.method("fingerprint", long.class, StudyAppAccess.FLASHCARD);
+    private static final MethodHandle QUESTION_FINGERPRINT = StudyAppAccess.method("fingerprint", long.class, StudyAppAccess.QUESTION);
+
+    @Param({"1000", "10000", "100000"})
+    public int cards;
+
+    private Path dataDir;
+    private final List<Object> newCards = new ArrayList<>();
+    private final List<Object> newQuestions = new ArrayList<>();
+
+    /**
+     * Store the deck in fresh logs and close them again, as a previous session would
+     */
+    @Setup(Level.Trial)
+    public void storeDeck() throws Throwable {
+        dataDir = StudyAppAccess.useTempDataDir("custom-bench");
+        for (int i = 0; i < cards; i++) newCards.add(StudyAppAccess.newFlashcard(i));
+        for (int i = 0; i < cards / 4; i++) newQuestions.add(StudyAppAccess.newQuestion(i));
+        LOAD_CUSTOM.invokeExact();
+        APPEND_CUSTOM.invokeExact(newCards, newQuestions);
+        CLOSE_CUSTOM.invokeExact();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws Throwable {
+        CLOSE_CUSTOM.invokeExact();
+        StudyAppAccess.deleteDir(dataDir);
+    }
+
+    /** Logs open and empty before every save */
+    @State(Scope.Thread)
+    public static class EmptyLogs {
+
+        @Setup(Level.Trial)
+        public void open(CustomContentBenchmark deck) throws Throwable {
+            LOAD_CUSTOM.invokeExact();
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() throws Throwable {
+            CLEAR_CUSTOM.invokeExact();
+        }
+    }
+
+    /** Logs closed and nothing in memory before every load */
+    @State(Scope.Thread)
+    public static class Unloaded {
+
+        @Setup(Level.Invocation)
+        public void unload(CustomContentBenchmark deck) throws Throwable {
+            CLOSE_CUSTOM.invokeExact();
+            List<Object> customCards = StudyAppAccess.field("customFlashcards", List.class);
+            List<Object> customQuestions = StudyAppAccess.field("customQuestions", List.class);
+            for (Object card : customCards) {
+                StudyAppAccess.cardFingerprints().remove((long) CARD_FINGERPRINT.invoke(card));
+            }
+            for (Object q : customQuestions) {
+                StudyAppAccess.questionFingerprints().remove((long) QUESTION_FINGERPRINT.invoke(q));
+            }
+            customCards.clear();
+            customQuestions.clear();
+            StudyAppAccess.flashcards().clear();
+            StudyAppAccess.questions().clear();
+        }
+    }
+
+    @Benchmark
+    public void saveCustomContent(EmptyLogs logs) throws Throwable {
+        APPEND_CUSTOM.invokeExact(newCards, newQuestions);
+    }
+
+    @Benchmark
+    public void loadCustomContent(Unloaded state) throws Throwable {
+        LOAD_CUSTOM.invokeExact();
+    }
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Subject filters over the whole deck, as run on every flashcard and quiz menu pick
+ * The deck is synthetic: subjects rotate, so each filter keeps a third of it.
+ * Run: mvn -P benchmarks package && java -jar target/benchmarks.jar FilterBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+
+    private static final MethodHandle FILTER_CARDS = StudyAppAccess.method("filterCards", List.class, String.class);
+    private static final MethodHandle FILTER_QUESTIONS = StudyAppAccess.method("filterQuestions", List.class, String.class);
+
+    @Param({"1000", "10000", "100000"})
+    public int deck;
+
+    @Setup(Level.Trial)
+    public void createDeck() {
+        List<Object> cards = StudyAppAccess.flashcards();
+        List<Object> questions = StudyAppAccess.questions();
+        cards.clear();
+        questions.clear();
+        for (int i = 0; i < deck; i++) {
+            cards.add(StudyAppAccess.newFlashcard(i));
+            questions.add(StudyAppAccess.newQuestion(i));
+        }
+    }
+
+    @Benchmark
+    public List<?> filterCards() throws Throwable {
+        return (List<?>) FILTER_CARDS.invokeExact("BSYS");
+    }
+
+    @Benchmark
+    public List<?> filterQuestions() throws Throwable {
+        return (List<?>) FILTER_QUESTIONS.invokeExact("BSYS");
+    }
+}
@@ -0,0 +1,111 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recording an answer, and writing/reading the progress file, at 10k to 1M progress keys
+ * Every key (subject-topic) starts with two answers, so each has a score history, a last
+ * study time and a day of counts. Files go to a temporary studyapp.dataDir.
+ * Every answer appends to its topic's score history, so updateProgress runs a fixed batch of
+ * answers per iteration and trims the histories back in between; otherwise the lists would
+ * grow all trial long and the score would drift with their growth and the GC.
+ * Run: mvn -P benchmarks package && java -jar target/benchmarks.jar ProgressBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProgressBenchmark {
+
+    private static final MethodHandle TOPIC_ID = StudyAppAccess.method("topicId", int.class, int.class, String.class);
+    private static final MethodHandle UPDATE_PROGRESS = StudyAppAccess.method("updateProgress", void.class, int.class, boolean.class);
+    private static final MethodHandle SAVE_PROGRESS = StudyAppAccess.method("saveProgress", void.class);
+    private static final MethodHandle LOAD_PROGRESS = StudyAppAccess.method("loadProgress", void.class);
+    private static final MethodHandle REBUILD_AGGREGATES = StudyAppAccess.method("rebuildProgressAggregates", void.class);
+
+    private static final int ANSWERS = 1 << 16;
+
+    @Param({"10000", "100000", "1000000"})
+    public int keys;
+
+    private Path dataDir;
+    private int[] answerTopics; // Random order, so updates miss the cache like real use
+
+    @Setup(Level.Trial)
+    public void createProgress() throws Throwable {
+        dataDir = StudyAppAccess.useTempDataDir("progress-bench");
+        int[] subjectIds = new int[StudyAppAccess.SUBJECTS.length];
+        for (int s = 0; s < subjectIds.length; s++) {
+            subjectIds[s] = StudyAppAccess.subjects().intern(StudyAppAccess.SUBJECTS[s]);
+        }
+
+        answerTopics = new int[ANSWERS];
+        int[] topicIds = new int[keys];
+        for (int i = 0; i < keys; i++) {
+            topicIds[i] = (int) TOPIC_ID.invokeExact(subjectIds[i % 3], "Topic " + i);
+            UPDATE_PROGRESS.invokeExact(topicIds[i], true);
+            UPDATE_PROGRESS.invokeExact(topicIds[i], i % 4 != 0);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < answerTopics.length; i++) {
+            answerTopics[i] = topicIds[random.nextInt(keys)];
+        }
+
+        SAVE_PROGRESS.invokeExact(); // The file loadProgress reads
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws Exception {
+        StudyAppAccess.deleteDir(dataDir);
+    }
+
+    /**
+     * Score histories as they were after setup: the two answers every key started with
+     */
+    @State(Scope.Benchmark)
+    public static class History {
+
+        @Setup(Level.Iteration)
+        public void trim() throws Throwable {
+            Map<String, List<Integer>> histories = StudyAppAccess.field("performanceHistory", Map.class);
+            for (List<Integer> scores : histories.values()) {
+                if (scores.size() > 2) scores.subList(2, scores.size()).clear();
+            }
+            REBUILD_AGGREGATES.invokeExact(); // Subject trends are folded from the histories
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(ANSWERS)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 40)
+    public void updateProgress(History history) throws Throwable {
+        for (int i = 0; i < ANSWERS; i++) {
+            UPDATE_PROGRESS.invokeExact(answerTopics[i], (i & 3) != 0);
+        }
+    }
+
+    @Benchmark
+    public void saveProgress() throws Throwable {
+        SAVE_PROGRESS.invokeExact();
+    }
+
+    /**
+     * Loads over the same keys; counts add up across invocations but the work per load does not change
+     */
+    @Benchmark
+    public void loadProgress() throws Throwable {
+        LOAD_PROGRESS.invokeExact();
+    }
+}
@@ -0,0 +1,138 @@
+package benchmarks;
+
+import store.ContentFingerprints;
+import store.SymbolTable;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Handles on StudyApp's private statics for the benchmarks
+ * StudyApp lives in the default package, which no named package can import, so its methods
+ * are reached through method handles. Kept in static finals, they are constants to the JIT
+ * and cost no more than a direct call once inlined.
+ */
+final class StudyAppAccess {
+
+    static final Class<?> APP = load("StudyApp");
+    static final Class<?> FLASHCARD = load("StudyApp$Flashcard");
+    static final Class<?> QUESTION = load("StudyApp$Question");
+    static final String[] SUBJECTS = {"BSYS", "DigiCom", "TEAM"};
+
+    private static final MethodHandles.Lookup LOOKUP;
+
+    static {
+        try {
+            LOOKUP = MethodHandles.privateLookupIn(APP, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final MethodHandle NEW_FLASHCARD =
+        constructor(FLASHCARD, String.class, String.class, String.class, String.class, int.class);
+    private static final MethodHandle NEW_QUESTION =
+        constructor(QUESTION, String.class, String.class, String[].class, int.class, String.class);
+
+    private StudyAppAccess() {
+    }
+
+    static MethodHandle method(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return LOOKUP.findStatic(APP, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("StudyApp." + name + " not found", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T field(String name, Class<? super T> type) {
+        try {
+            return (T) LOOKUP.findStaticGetter(APP, name, type).invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("StudyApp." + name + " not readable", e);
+        }
+    }
+
+    static List<Object> flashcards() {
+        return field("flashcards", List.class);
+    }
+
+    static List<Object> questions() {
+        return field("questions", List.class);
+    }
+
+    static SymbolTable subjects() {
+        return field("subjects", SymbolTable.class);
+    }
+
+    static ContentFingerprints cardFingerprints() {
+        return field("cardFingerprints", ContentFingerprints.class);
+    }
+
+    static ContentFingerprints questionFingerprints() {
+        return field("questionFingerprints", ContentFingerprints.class);
+    }
+
+    /**
+     * A synthetic card; subjects rotate, 50 topics per subject
+     */
+    static Object newFlashcard(int i) {
+        try {
+            return NEW_FLASHCARD.invoke(SUBJECTS[i % 3], "Topic " + (i / 3 % 50),
+                "What is term " + i + "?", "Definition of term " + i + ", with an example", 1 + i % 3);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Object newQuestion(int i) {
+        try {
+            return NEW_QUESTION.invoke(SUBJECTS[i % 3], "Which statement about term " + i + " holds?",
+                new String[]{"Option A " + i, "Option B " + i, "Option C " + i, "Option D " + i}, i % 4,
+                "Because of rule " + i);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Point StudyApp's data files (progress, reviews, custom content) at a fresh directory
+     */
+    static Path useTempDataDir(String prefix) throws IOException {
+        Path dir = Files.createTempDirectory(prefix);
+        System.setProperty("studyapp.dataDir", dir.toString());
+        return dir;
+    }
+
+    static void deleteDir(Path dir) throws IOException {
+        if (dir == null) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static Class<?> load(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static MethodHandle constructor(Class<?> type, Class<?>... parameterTypes) {
+        try {
+            return LOOKUP.findConstructor(type, MethodType.methodType(void.class, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(type.getName() + " constructor not found", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package content;
+
+import benchmarks.Corpus;
+import content.ContentProcessor.ContentType;
+import content.ContentProcessor.ProcessedContent;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import pdf.PDFParser;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Content classification and card/question generation, on the synthetic corpus at several sizes
+ * Each corpus copy is processed like one parsed lecture file; the generators then run over
+ * everything extracted. Their progress output goes to a null stream for the whole trial.
+ * Run: mvn -P benchmarks package && java -jar target/benchmarks.jar ContentProcessingBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentProcessingBenchmark {
+
+    @Param({"lecture", "blank-lines", "capitalized", "long-line"})
+    public String corpus;
+
+    @Param({"16", "128", "1024"})
+    public int kilobytes;
+
+    private final ContentProcessor processor = new ContentProcessor();
+    private final List<String> files = new ArrayList<>();
+    private final List<String> paragraphs = new ArrayList<>();
+    private ProcessedContent content;
+    private PrintStream stdout;
+
+    @Setup(Level.Trial)
+    public void processCorpus() {
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        content = new ProcessedContent();
+        for (String file : Corpus.files(corpus, kilobytes)) {
+            String text = PDFParser.sanitizeText(file);
+            files.add(text);
+            processor.processText(text, "General", content);
+            for (String paragraph : text.split("\n\n+")) paragraphs.add(paragraph);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreOutput() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public int assignDifficulty() {
+        int sum = 0;
+        for (String paragraph : paragraphs) sum += processor.assignDifficulty(paragraph, ContentType.CONCEPT);
+        return sum;
+    }
+
+    @Benchmark
+    public void extractConcepts(Blackhole bh) {
+        for (String text : files) bh.consume(processor.extractConcepts(text));
+    }
+
+    @Benchmark
+    public void extractProblems(Blackhole bh) {
+        for (String text : files) bh.consume(processor.extractProblems(text));
+    }
+
+    @Benchmark
+    public List<FlashcardGenerator.Flashcard> generateFlashcards() {
+        return new FlashcardGenerator().generateAll(content);
+    }
+
+    @Benchmark
+    public List<QuestionGenerator.Question> generateQuestions() {
+        return new QuestionGenerator().generateQuestions(content);
+    }
+}
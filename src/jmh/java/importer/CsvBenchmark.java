@@ -0,0 +1,93 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CsvReader against the previous line.split(",", 5) import path
+ * The input mimics a spreadsheet export: BOM, CRLF line ends, every text field quoted,
+ * and some answers with commas, doubled quotes or embedded line breaks. The split
+ * baseline mis-parses those rows; it is only here for the cost comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvBenchmark {
+
+    @Param({"200000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("csv-bench", ".csv");
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write('﻿');
+            out.write("Subject,Topic,Question,Answer,Difficulty\r\n");
+            for (int i = 0; i < rows; i++) {
+                String answer;
+                switch (i % 4) {
+                    case 0: answer = "A block of memory, mapped by the MMU (" + i + ")"; break;
+                    case 1: answer = "The \"\"kernel\"\" decides " + i; break;
+                    case 2: answer = "First line " + i + "\r\nsecond line"; break;
+                    default: answer = "Plain answer " + i;
+                }
+                out.write("\"BSYS\",\"Topic " + (i % 50) + "\",\"What is term " + i + "?\",\"" + answer + "\"," + (1 + i % 3) + "\r\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void csvReader(Blackhole bh) throws IOException {
+        ImportBatch batch = new ImportBatch();
+        try (CsvReader reader = CsvReader.open(file)) {
+            new CsvFormatParser().parse(reader, batch);
+        }
+        bh.consume(batch);
+    }
+
+    @Benchmark
+    public void splitBaseline(Blackhole bh) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.contains(",") && line.split(",").length >= 4) {
+                    String[] parts = line.split(",", 5);
+                    if (parts.length >= 4 && !parts[0].trim().equals("Subject")) {
+                        String front = parts[2].trim();
+                        String back = parts[3].trim();
+                        int difficulty = parts.length > 4 ? parseDifficulty(parts[4].trim()) : 2;
+                        if (!front.isEmpty() && !back.isEmpty()) {
+                            bh.consume(new Flashcard(parts[0].trim(), parts[1].trim(), front, back, difficulty));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int parseDifficulty(String value) {
+        try {
+            int difficulty = Integer.parseInt(value.trim());
+            return (difficulty >= 1 && difficulty <= 3) ? difficulty : 2;
+        } catch (NumberFormatException e) {
+            return 2;
+        }
+    }
+}
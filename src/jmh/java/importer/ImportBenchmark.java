@@ -0,0 +1,74 @@
+package importer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import throughput on synthetic files, per format and worker count
+ * Run: mvn -P benchmarks package && java -jar target/benchmarks.jar ImportBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+    @Param({"CSV", "ANKI", "STUDYAPP"})
+    public String format;
+
+    @Param({"10000", "100000", "1000000"})
+    public int lines;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        file = Files.createTempFile("import-bench", ".txt");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+            switch (ImportFormat.valueOf(format)) {
+                case CSV:
+                    out.println("Subject,Topic,Question,Answer,Difficulty");
+                    for (int i = 0; i < lines; i++) {
+                        out.println("BSYS,Topic " + (i % 50) + ",What is term " + i + "?,Definition of term " + i + "," + (1 + i % 3));
+                    }
+                    break;
+                case ANKI:
+                    for (int i = 0; i < lines; i++) {
+                        out.println("BSYS: What is term " + i + "?\tDefinition <b>" + i + "</b>\tBSYS::Topic_" + (i % 50));
+                    }
+                    break;
+                default:
+                    out.println("# StudyApp Export");
+                    for (int i = 0; i < lines / 9; i++) {
+                        out.println("---CARD---");
+                        out.println("SUBJECT: BSYS");
+                        out.println("TOPIC: Topic " + (i % 50));
+                        out.println("DIFFICULTY: 2");
+                        out.println("FRONT:");
+                        out.println("What is term " + i + "?");
+                        out.println("BACK:");
+                        out.println("Definition of term " + i);
+                        out.println();
+                    }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ImportResult importFile() throws IOException {
+        return new ImportEngine(threads, ImportEngine.DEFAULT_CHUNK_LINES).importFile(file);
+    }
+}
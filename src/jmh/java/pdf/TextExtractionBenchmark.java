@@ -0,0 +1,58 @@
+package pdf;
+
+import benchmarks.Corpus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF text cleanup and the regex extractors, on the synthetic corpus at several sizes
+ * The adversarial corpora (see benchmarks.Corpus) target the patterns' backtracking; a time
+ * that grows faster than the input between sizes points at a regex gone quadratic.
+ * Run: mvn -P benchmarks package && java -jar target/benchmarks.jar TextExtractionBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextExtractionBenchmark {
+
+    @Param({"lecture", "blank-lines", "capitalized", "long-line"})
+    public String corpus;
+
+    @Param({"16", "128", "1024"})
+    public int kilobytes;
+
+    private String raw;
+    private String text; // Sanitized, as the extractors get it
+
+    @Setup(Level.Trial)
+    public void loadCorpus() {
+        raw = Corpus.text(corpus, kilobytes);
+        text = PDFParser.sanitizeText(raw);
+    }
+
+    @Benchmark
+    public String sanitizeText() {
+        return PDFParser.sanitizeText(raw);
+    }
+
+    @Benchmark
+    public List<PDFParser.CodeBlock> identifyCodeBlocks() {
+        return PDFParser.identifyCodeBlocks(text);
+    }
+
+    @Benchmark
+    public Map<String, String> extractDefinitions() {
+        return TextExtractor.extractDefinitions(text);
+    }
+
+    @Benchmark
+    public List<String> extractCodeExamples() {
+        return TextExtractor.extractCodeExamples(text);
+    }
+}
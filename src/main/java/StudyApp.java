@@ -1,5 +1,28 @@
 import java.util.*;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+import content.ContentPack;
+import importer.ImportEngine;
+import importer.ImportResult;
+import store.CardTextStore;
+import store.CompressedTextStore;
+import store.ContentFingerprints;
+import store.DailyCounts;
+import store.IndexedIntHeap;
+import store.LatencyHistogram;
+import store.RecordLog;
+import store.ReviewEvents;
+import store.SymbolTable;
+import store.TextStore;
+import ui.FrameRenderer;
+import ui.InputReactor;
 
 /**
  * StudyApp - Interactive Exam Preparation Tool
@@ -18,12 +41,62 @@ import java.io.*;
  */
 public class StudyApp {
     
-    private static final Scanner scanner = new Scanner(System.in);
+    private static InputReactor console; // Standard input, or a script in headless mode
+
+    // --headless runs scripted sessions with no pauses, screen or progress files (see runHeadless)
+    private static boolean headless;
+
+    // Screen output is buffered per frame and written when the app waits (see installRenderer);
+    // -Dstudyapp.diffRedraw=true also skips lines unchanged since the previous screen
+    private static final String DIFF_REDRAW_PROPERTY = "studyapp.diffRedraw";
+    private static FrameRenderer screen;
+    private static final String[][] progressBars = new String[41][]; // [width][filled], built on first use
     private static final Random random = new Random();
     
     // Progress tracking
-    private static Map<String, Integer> correctAnswers = new HashMap<>();
-    private static Map<String, Integer> totalAttempts = new HashMap<>();
+    // Subjects and topics are interned; a topic id stands for one subject/topic pair and indexes
+    // the per-topic arrays. Its symbol is the progress key ("BSYS-Processes", "BSYS-quiz").
+    private static final SymbolTable subjects = new SymbolTable();
+    private static final SymbolTable topics = new SymbolTable();
+    private static int[] topicSubject = new int[64];
+    private static String[] topicNames = new String[64];
+    private static int[] correctAnswers = new int[64];
+    private static int[] totalAttempts = new int[64];
+    private static int[] quizTopics = new int[0]; // subject id -> topic id of its quiz + 1, 0 until first used
+
+    // Aggregates kept current by updateProgress, so the progress screen never scans all topics
+    private static int[] subjectCorrect = new int[8];
+    private static int[] subjectAttempts = new int[8];
+    private static int allCorrect;
+    private static int allAttempts;
+    private static int[] subjectTrendSum = new int[8];   // Last 5 scores of each topic with 2+ scores
+    private static int[] subjectTrendCount = new int[8];
+    private static long[] subjectScoreSum = new long[8]; // Every score of the subject
+    private static int[] subjectScoreCount = new int[8];
+    private static int[] subjectRecent = new int[8 * 3]; // Last 3 scores per subject, score i at slot i % 3
+    private static final IndexedIntHeap weakTopics = new IndexedIntHeap(); // Under 60% after 3+ attempts, keyed by accuracy
+
+    // Answers per day for windowed accuracy; each answer rolls up topic -> subject -> overall (node 0)
+    private static final DailyCounts topicDaily = new DailyCounts();
+    private static final DailyCounts subjectDaily = new DailyCounts();
+    private static final DailyCounts allDaily = new DailyCounts();
+    private static final int RECENT_DAYS = 7;
+
+    // Every answer as a review event, for analytics over time, speed and mode
+    private static final ReviewEvents reviewEvents = new ReviewEvents();
+    private static final String REVIEW_EVENTS_FILE = "review_events.dat";
+    private static final int MODE_FLASHCARDS = 0;
+    private static final int MODE_QUIZ = 1;
+    private static final int MODE_QUICK_REVIEW = 2;
+    private static final int MODE_EXAM = 3;
+    private static final String[] MODE_NAMES = {"Flashcards", "Quiz", "Quick Review", "Exam"};
+
+    private static final int EXAM_SECONDS_PER_QUESTION = 30;
+    private static final int EXAM_LATE_GRACE_MS = 2000; // Lines entered this soon after a timeout are dropped
+
+    // Response latency (microseconds) per topic and subject, filled from the review events
+    private static LatencyHistogram[] topicLatency = new LatencyHistogram[64];
+    private static LatencyHistogram[] subjectLatency = new LatencyHistogram[8];
     private static Set<String> masteredCards = new HashSet<>();
     private static int totalStudyTime = 0;
 
@@ -35,12 +108,33 @@ public class StudyApp {
     private static int totalQuestionsAnswered = 0;
     private static long firstStudyDate = 0;
     private static long lastStudyDate = 0;
+
+    // Progress, review history and custom content live in the working directory, or in -Dstudyapp.dataDir
+    private static final String DATA_DIR_PROPERTY = "studyapp.dataDir";
+    private static final String PROGRESS_FILE = "study_progress.dat";
     
     // Custom content tracking
     private static List<Flashcard> customFlashcards = new ArrayList<>();
     private static List<Question> customQuestions = new ArrayList<>();
     private static final String CUSTOM_CARDS_FILE = "custom_flashcards.dat";
     private static final String CUSTOM_QUESTIONS_FILE = "custom_questions.dat";
+    private static RecordLog cardLog;     // Append-only; every add/edit/delete is one record
+    private static RecordLog questionLog;
+
+    // Fingerprints of everything in the deck, for rejecting duplicates on load/import
+    private static final ContentFingerprints cardFingerprints = new ContentFingerprints();
+    private static final ContentFingerprints questionFingerprints = new ContentFingerprints();
+
+    // -Dstudyapp.mappedBacks=true keeps answers of loaded/imported cards in a mapped file, off heap;
+    // -Dstudyapp.compressedBacks=true keeps them on heap, compressed against a dictionary of the deck
+    private static final String MAPPED_BACKS_PROPERTY = "studyapp.mappedBacks";
+    private static final String COMPRESSED_BACKS_PROPERTY = "studyapp.compressedBacks";
+    private static TextStore cardTexts;
+    private static boolean detachDisabled; // Set when the store failed; answers already in it stay readable
+
+    // Generated content packs (.sadc), see tools.StudyAppCodeGenerator
+    private static final String CONTENT_PACK_DIR = "content";
+    private static final String CONTENT_PACK_PROPERTY = "studyapp.content";
     
     // Color codes for terminal
     private static final String RESET = "\u001B[0m";
@@ -55,35 +149,54 @@ public class StudyApp {
     // ==================== FLASHCARDS DATA ====================
     
     static class Flashcard {
-        String subject;
-        String topic;
+        int subjectId;
+        int topicId;
         String front;
-        String back;
+        String back;       // null while the answer lives in cardTexts
+        long backHandle;   // Handle into cardTexts when back is null
         int difficulty; // 1-3
+        long recordId; // Id in the custom content log, 0 if not stored there
         
         Flashcard(String subject, String topic, String front, String back, int difficulty) {
-            this.subject = subject;
-            this.topic = topic;
+            this.subjectId = subjects.intern(subject);
+            this.topicId = topicId(subjectId, topic);
             this.front = front;
             this.back = back;
             this.difficulty = difficulty;
         }
+
+        String back() {
+            return back != null ? back : cardTexts.get(backHandle);
+        }
+
+        String subject() {
+            return subjects.name(subjectId);
+        }
+
+        String topic() {
+            return topicNames[topicId];
+        }
     }
     
     static class Question {
-        String subject;
+        int subjectId;
         String question;
         String[] options;
         int correctIndex;
         String explanation;
+        long recordId; // Id in the custom content log, 0 if not stored there
         
         Question(String subject, String question, String[] options, int correctIndex, String explanation) {
-            this.subject = subject;
+            this.subjectId = subjects.intern(subject);
             this.question = question;
             this.options = options;
             this.correctIndex = correctIndex;
             this.explanation = explanation;
         }
+
+        String subject() {
+            return subjects.name(subjectId);
+        }
     }
     
     // All flashcards
@@ -91,16 +204,27 @@ public class StudyApp {
     private static List<Question> questions = new ArrayList<>();
     
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--headless")) {
+            runHeadless(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        installRenderer();
+        console = new InputReactor(System.in, () -> System.out.flush());
         initializeContent();
+        fingerprintContent();
+        openCardTexts();
+        loadContentPacks();
         loadProgress();
         loadCustomContent();
+        rebuildProgressAggregates();
+        reportCardTexts();
         
         printWelcome();
         
         boolean running = true;
         while (running) {
             printMainMenu();
-            String choice = scanner.nextLine().trim();
+            String choice = console.nextLine().trim();
             
             switch (choice) {
                 case "1": flashcardMode(); break;
@@ -113,7 +237,7 @@ public class StudyApp {
                 case "0": 
                     running = false;
                     saveProgress();
-                    saveCustomContent();
+                    closeCustomContent();
                     printGoodbye();
                     break;
                 default:
@@ -6644,7 +6768,7 @@ public class StudyApp {
         System.out.println("║                                                               ║");
         System.out.println("╚═══════════════════════════════════════════════════════════════╝" + RESET);
         System.out.println("\nPress Enter to continue...");
-        scanner.nextLine();
+        console.nextLine();
     }
     
     private static void printMainMenu() {
@@ -6681,7 +6805,7 @@ public class StudyApp {
             System.out.println("\n  " + RED + "[0]" + RESET + " Back to Main Menu");
             System.out.print("\nChoice: ");
             
-            String choice = scanner.nextLine().trim();
+            String choice = console.nextLine().trim();
             
             List<Flashcard> selectedCards;
             switch (choice) {
@@ -6698,11 +6822,11 @@ public class StudyApp {
                 continue;
             }
             
-            studyFlashcards(selectedCards);
+            studyFlashcards(selectedCards, MODE_FLASHCARDS);
         }
     }
     
-    private static void studyFlashcards(List<Flashcard> cards) {
+    private static void studyFlashcards(List<Flashcard> cards, int mode) {
         Collections.shuffle(cards);
         int index = 0;
         int correct = 0;
@@ -6712,10 +6836,10 @@ public class StudyApp {
             Flashcard card = cards.get(index);
             clearScreen();
             
-            String subjectColor = getSubjectColor(card.subject);
+            String subjectColor = getSubjectColor(card.subject());
             
             System.out.println("\n" + subjectColor + "═══════════════════════════════════════════════════════════════" + RESET);
-            System.out.println("  Card " + (index + 1) + " of " + cards.size() + " | " + subjectColor + card.subject + RESET + " | " + card.topic);
+            System.out.println("  Card " + (index + 1) + " of " + cards.size() + " | " + subjectColor + card.subject() + RESET + " | " + card.topic());
             System.out.println(subjectColor + "═══════════════════════════════════════════════════════════════" + RESET);
             
             System.out.println("\n" + BOLD + "  QUESTION:" + RESET);
@@ -6723,7 +6847,9 @@ public class StudyApp {
             System.out.println("\n" + YELLOW + "  [Press Enter to reveal answer]" + RESET);
             System.out.println("  [n] Next  [p] Previous  [q] Quit");
             
-            String input = scanner.nextLine().trim().toLowerCase();
+            long shownAt = System.nanoTime();
+            String input = console.nextLine().trim().toLowerCase();
+            long recallNanos = System.nanoTime() - shownAt;
             
             if (input.equals("q")) break;
             if (input.equals("p") && index > 0) { index--; continue; }
@@ -6731,20 +6857,22 @@ public class StudyApp {
             
             // Show answer
             System.out.println("\n" + GREEN + "  ANSWER:" + RESET);
-            for (String line : card.back.split("\n")) {
+            for (String line : card.back().split("\n")) {
                 System.out.println("  " + line);
             }
             
             System.out.println("\n  Did you know this? " + GREEN + "[y]" + RESET + " Yes  " + RED + "[n]" + RESET + " No");
-            input = scanner.nextLine().trim().toLowerCase();
+            input = console.nextLine().trim().toLowerCase();
             
             total++;
             if (input.equals("y")) {
                 correct++;
-                updateProgress(card.subject + "-" + card.topic, true);
+                updateProgress(card.topicId, true);
+                recordReview(fingerprint(card), card.topicId, true, recallNanos, mode);
                 System.out.println(GREEN + "  ✓ Great job!" + RESET);
             } else {
-                updateProgress(card.subject + "-" + card.topic, false);
+                updateProgress(card.topicId, false);
+                recordReview(fingerprint(card), card.topicId, false, recallNanos, mode);
                 System.out.println(YELLOW + "  Keep practicing!" + RESET);
             }
             
@@ -6763,7 +6891,7 @@ public class StudyApp {
             System.out.println("  Need review: " + YELLOW + (total - correct) + RESET);
             System.out.println("  Score: " + (correct * 100 / total) + "%");
             System.out.println("\n  Press Enter to continue...");
-            scanner.nextLine();
+            console.nextLine();
         }
     }
     
@@ -6781,7 +6909,7 @@ public class StudyApp {
             System.out.println("\n  " + RED + "[0]" + RESET + " Back to Main Menu");
             System.out.print("\nChoice: ");
             
-            String choice = scanner.nextLine().trim();
+            String choice = console.nextLine().trim();
             
             List<Question> selectedQuestions;
             switch (choice) {
@@ -6796,7 +6924,7 @@ public class StudyApp {
             System.out.print("\n  How many questions? (max " + selectedQuestions.size() + "): ");
             int numQuestions;
             try {
-                numQuestions = Integer.parseInt(scanner.nextLine().trim());
+                numQuestions = Integer.parseInt(console.nextLine().trim());
                 numQuestions = Math.min(numQuestions, selectedQuestions.size());
                 numQuestions = Math.max(numQuestions, 1);
             } catch (Exception e) {
@@ -6817,10 +6945,10 @@ public class StudyApp {
         
         for (Question q : quizQuestions) {
             clearScreen();
-            String subjectColor = getSubjectColor(q.subject);
+            String subjectColor = getSubjectColor(q.subject());
             
             System.out.println("\n" + subjectColor + "═══════════════════════════════════════════════════════════════" + RESET);
-            System.out.println("  Question " + questionNum + " of " + numQuestions + " | " + subjectColor + q.subject + RESET);
+            System.out.println("  Question " + questionNum + " of " + numQuestions + " | " + subjectColor + q.subject() + RESET);
             System.out.println(subjectColor + "═══════════════════════════════════════════════════════════════" + RESET);
             
             System.out.println("\n  " + BOLD + q.question + RESET + "\n");
@@ -6830,7 +6958,9 @@ public class StudyApp {
             }
             
             System.out.print("\n  Your answer (A-D): ");
-            String answer = scanner.nextLine().trim().toUpperCase();
+            long shownAt = System.nanoTime();
+            String answer = console.nextLine().trim().toUpperCase();
+            long answerNanos = System.nanoTime() - shownAt;
             
             int answerIndex = -1;
             if (answer.length() == 1 && answer.charAt(0) >= 'A' && answer.charAt(0) <= 'D') {
@@ -6840,17 +6970,19 @@ public class StudyApp {
             if (answerIndex == q.correctIndex) {
                 correct++;
                 System.out.println("\n  " + GREEN + "✓ CORRECT!" + RESET);
-                updateProgress(q.subject + "-quiz", true);
+                updateProgress(quizTopic(q.subjectId), true);
+                recordReview(fingerprint(q), quizTopic(q.subjectId), true, answerNanos, MODE_QUIZ);
             } else {
                 wrongAnswers.add(q);
                 System.out.println("\n  " + RED + "✗ INCORRECT!" + RESET);
                 System.out.println("  Correct answer: " + GREEN + (char)('A' + q.correctIndex) + ") " + q.options[q.correctIndex] + RESET);
-                updateProgress(q.subject + "-quiz", false);
+                updateProgress(quizTopic(q.subjectId), false);
+                recordReview(fingerprint(q), quizTopic(q.subjectId), false, answerNanos, MODE_QUIZ);
             }
             
             System.out.println("\n  " + CYAN + "Explanation: " + RESET + q.explanation);
             System.out.println("\n  Press Enter to continue...");
-            scanner.nextLine();
+            console.nextLine();
             questionNum++;
         }
         
@@ -6877,12 +7009,12 @@ public class StudyApp {
         if (!wrongAnswers.isEmpty()) {
             System.out.println("\n  Topics to review:");
             for (Question q : wrongAnswers) {
-                System.out.println("  • " + q.subject + ": " + q.question.substring(0, Math.min(50, q.question.length())) + "...");
+                System.out.println("  • " + q.subject() + ": " + q.question.substring(0, Math.min(50, q.question.length())) + "...");
             }
         }
         
         System.out.println("\n  Press Enter to continue...");
-        scanner.nextLine();
+        console.nextLine();
     }
     
     private static void topicBrowser() {
@@ -6898,7 +7030,7 @@ public class StudyApp {
             System.out.println("\n  " + RED + "[0]" + RESET + " Back to Main Menu");
             System.out.print("\nChoice: ");
             
-            String choice = scanner.nextLine().trim();
+            String choice = console.nextLine().trim();
             String subject;
             switch (choice) {
                 case "1": subject = "BSYS"; break;
@@ -6914,10 +7046,20 @@ public class StudyApp {
     
     private static void browseTopic(String subject) {
         List<Flashcard> cards = filterCards(subject);
-        Map<String, List<Flashcard>> byTopic = new LinkedHashMap<>();
-        
+
+        // Group by topic id, topics in order of first appearance
+        int[] groupOf = new int[topics.size()];
+        Arrays.fill(groupOf, -1);
+        List<List<Flashcard>> groups = new ArrayList<>();
+        List<String> groupTopics = new ArrayList<>();
         for (Flashcard card : cards) {
-            byTopic.computeIfAbsent(card.topic, k -> new ArrayList<>()).add(card);
+            int group = groupOf[card.topicId];
+            if (group < 0) {
+                group = groupOf[card.topicId] = groups.size();
+                groups.add(new ArrayList<>());
+                groupTopics.add(card.topic());
+            }
+            groups.get(group).add(card);
         }
         
         while (true) {
@@ -6927,23 +7069,22 @@ public class StudyApp {
             System.out.println("                   📋 " + subject + " TOPICS");
             System.out.println(color + "═══════════════════════════════════════════════════════════════" + RESET);
             
-            List<String> topics = new ArrayList<>(byTopic.keySet());
-            for (int i = 0; i < topics.size(); i++) {
-                String topic = topics.get(i);
-                int cardCount = byTopic.get(topic).size();
+            for (int i = 0; i < groupTopics.size(); i++) {
+                String topic = groupTopics.get(i);
+                int cardCount = groups.get(i).size();
                 System.out.println("  " + YELLOW + "[" + (i + 1) + "]" + RESET + " " + topic + " (" + cardCount + " cards)");
             }
             System.out.println("\n  " + RED + "[0]" + RESET + " Back");
             System.out.print("\nChoice: ");
             
-            String choice = scanner.nextLine().trim();
+            String choice = console.nextLine().trim();
             if (choice.equals("0")) return;
             
             try {
                 int topicIndex = Integer.parseInt(choice) - 1;
-                if (topicIndex >= 0 && topicIndex < topics.size()) {
-                    String selectedTopic = topics.get(topicIndex);
-                    showTopicCards(byTopic.get(selectedTopic), subject, selectedTopic);
+                if (topicIndex >= 0 && topicIndex < groupTopics.size()) {
+                    String selectedTopic = groupTopics.get(topicIndex);
+                    showTopicCards(groups.get(topicIndex), subject, selectedTopic);
                 }
             } catch (Exception e) {
                 // Invalid input, continue
@@ -6964,12 +7105,12 @@ public class StudyApp {
             
             System.out.println("\n" + BOLD + "  Q: " + RESET + card.front);
             System.out.println("\n" + GREEN + "  A: " + RESET);
-            for (String line : card.back.split("\n")) {
+            for (String line : card.back().split("\n")) {
                 System.out.println("     " + line);
             }
             
             System.out.println("\n  [n] Next  [p] Previous  [q] Back to topics");
-            String input = scanner.nextLine().trim().toLowerCase();
+            String input = console.nextLine().trim().toLowerCase();
             
             if (input.equals("q")) break;
             if (input.equals("p") && index > 0) index--;
@@ -6985,40 +7126,35 @@ public class StudyApp {
         System.out.println(BOLD + "                   📊 YOUR PROGRESS" + RESET);
         System.out.println(CYAN + "═══════════════════════════════════════════════════════════════" + RESET);
 
-        // Calculate stats per subject
-        Map<String, int[]> subjectStats = new HashMap<>();
-        subjectStats.put("BSYS", new int[]{0, 0});
-        subjectStats.put("DigiCom", new int[]{0, 0});
-        subjectStats.put("TEAM", new int[]{0, 0});
-
-        for (String key : correctAnswers.keySet()) {
-            for (String subject : subjectStats.keySet()) {
-                if (key.startsWith(subject)) {
-                    subjectStats.get(subject)[0] += correctAnswers.get(key);
-                    subjectStats.get(subject)[1] += totalAttempts.get(key);
-                }
-            }
-        }
+        int totalCorrect = allCorrect;
+        int totalAttempt = allAttempts;
 
         System.out.println("\n  " + BOLD + "Subject Statistics:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
 
         for (String subject : new String[]{"BSYS", "DigiCom", "TEAM"}) {
-            int[] stats = subjectStats.get(subject);
+            int subjectId = subjects.intern(subject);
+            int correct = subjectId < subjectCorrect.length ? subjectCorrect[subjectId] : 0;
+            int total = subjectId < subjectAttempts.length ? subjectAttempts[subjectId] : 0;
             String color = getSubjectColor(subject);
-            int pct = stats[1] > 0 ? (stats[0] * 100 / stats[1]) : 0;
+            int pct = total > 0 ? (correct * 100 / total) : 0;
             String bar = generateProgressBar(pct, 20);
-            String trend = getTrendIndicator(subject);
-            System.out.println("  " + color + subject + RESET + "\t" + bar + " " + pct + "% (" + stats[0] + "/" + stats[1] + ") " + trend);
+            String trend = getTrendIndicator(subjectId);
+            System.out.println("  " + color + subject + RESET + "\t" + bar + " " + pct + "% (" + correct + "/" + total + ") " + trend);
         }
 
-        int totalCorrect = correctAnswers.values().stream().mapToInt(Integer::intValue).sum();
-        int totalAttempt = totalAttempts.values().stream().mapToInt(Integer::intValue).sum();
         int overallPct = totalAttempt > 0 ? (totalCorrect * 100 / totalAttempt) : 0;
 
         System.out.println("  ─────────────────────────────────────────");
         System.out.println("  " + BOLD + "OVERALL" + RESET + "\t" + generateProgressBar(overallPct, 20) + " " + overallPct + "%");
 
+        System.out.println("\n  " + BOLD + "Last " + RECENT_DAYS + " Days:" + RESET);
+        System.out.println("  ─────────────────────────────────────────");
+        for (String subject : new String[]{"BSYS", "DigiCom", "TEAM"}) {
+            System.out.println("  " + getSubjectColor(subject) + subject + RESET + "\t" + recentAccuracy(subjectDaily, subjects.intern(subject)));
+        }
+        System.out.println("  " + BOLD + "OVERALL" + RESET + "\t" + recentAccuracy(allDaily, 0));
+
         // Enhanced statistics
         System.out.println("\n  " + BOLD + "Mastery & Activity:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
@@ -7043,16 +7179,16 @@ public class StudyApp {
         // Show improvement areas
         System.out.println("\n  " + BOLD + "Areas Needing Focus:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
-        List<String> weakAreas = getWeakAreas();
-        if (weakAreas.isEmpty()) {
+        int[] weakAreas = getWeakAreas(5);
+        if (weakAreas.length == 0) {
             System.out.println("  " + GREEN + "Great! All areas performing well!" + RESET);
         } else {
-            for (int i = 0; i < Math.min(5, weakAreas.size()); i++) {
-                String area = weakAreas.get(i);
-                int correct = correctAnswers.getOrDefault(area, 0);
-                int total = totalAttempts.getOrDefault(area, 0);
+            for (int i = 0; i < weakAreas.length; i++) {
+                int area = weakAreas[i];
+                int correct = correctAnswers[area];
+                int total = totalAttempts[area];
                 int pct = total > 0 ? (correct * 100 / total) : 0;
-                System.out.println("  • " + area + ": " + pct + "% (" + correct + "/" + total + ")");
+                System.out.println("  • " + topics.name(area) + ": " + pct + "% (" + correct + "/" + total + ")");
             }
         }
 
@@ -7060,7 +7196,7 @@ public class StudyApp {
         System.out.println("\n  " + BOLD + "Performance Trends:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
         for (String subject : new String[]{"BSYS", "DigiCom", "TEAM"}) {
-            String trend = getDetailedTrend(subject);
+            String trend = getDetailedTrend(subjects.intern(subject));
             if (!trend.isEmpty()) {
                 String color = getSubjectColor(subject);
                 System.out.println("  " + color + subject + RESET + ": " + trend);
@@ -7071,46 +7207,31 @@ public class StudyApp {
                           YELLOW + "[0]" + RESET + " Back");
         System.out.print("\n  Choice: ");
 
-        String choice = scanner.nextLine().trim();
+        String choice = console.nextLine().trim();
         if (choice.equals("1")) {
             viewDetailedStatistics();
         }
     }
 
-    private static String getTrendIndicator(String subject) {
-        List<Integer> recentScores = new ArrayList<>();
-        for (String key : performanceHistory.keySet()) {
-            if (key.startsWith(subject)) {
-                List<Integer> scores = performanceHistory.get(key);
-                if (scores.size() >= 2) {
-                    recentScores.addAll(scores.subList(Math.max(0, scores.size() - 5), scores.size()));
-                }
-            }
-        }
-
-        if (recentScores.size() < 2) return "";
+    private static String getTrendIndicator(int subjectId) {
+        if (subjectId >= subjectTrendCount.length || subjectTrendCount[subjectId] < 2) return "";
 
-        double avg = recentScores.stream().mapToInt(Integer::intValue).average().orElse(0);
+        double avg = (double) subjectTrendSum[subjectId] / subjectTrendCount[subjectId];
         if (avg >= 85) return GREEN + "↑↑" + RESET;
         else if (avg >= 70) return GREEN + "↑" + RESET;
         else if (avg >= 50) return YELLOW + "→" + RESET;
         else return RED + "↓" + RESET;
     }
 
-    private static String getDetailedTrend(String subject) {
-        List<Integer> allScores = new ArrayList<>();
-        for (String key : performanceHistory.keySet()) {
-            if (key.startsWith(subject)) {
-                allScores.addAll(performanceHistory.get(key));
-            }
-        }
-
-        if (allScores.size() < 3) return "Not enough data";
+    private static String getDetailedTrend(int subjectId) {
+        int count = subjectId < subjectScoreCount.length ? subjectScoreCount[subjectId] : 0;
+        if (count < 3) return "Not enough data";
 
-        int recent = allScores.subList(Math.max(0, allScores.size() - 3), allScores.size())
-            .stream().mapToInt(Integer::intValue).sum() / 3;
-        int older = allScores.subList(0, Math.max(1, allScores.size() - 3))
-            .stream().mapToInt(Integer::intValue).sum() / Math.max(1, allScores.size() - 3);
+        int recentSum = subjectRecent[subjectId * 3] + subjectRecent[subjectId * 3 + 1] + subjectRecent[subjectId * 3 + 2];
+        int recent = recentSum / 3;
+        int older = count == 3
+            ? subjectRecent[subjectId * 3] // Only the first score counts as older
+            : (int) ((subjectScoreSum[subjectId] - recentSum) / (count - 3));
 
         int change = recent - older;
         if (change > 10) return GREEN + "Improving significantly (+" + change + "%)" + RESET;
@@ -7120,21 +7241,11 @@ public class StudyApp {
         else return RED + "Needs attention (" + change + "%)" + RESET;
     }
 
-    private static List<String> getWeakAreas() {
-        List<String> weak = new ArrayList<>();
-        for (String key : totalAttempts.keySet()) {
-            int total = totalAttempts.get(key);
-            int correct = correctAnswers.getOrDefault(key, 0);
-            if (total >= 3 && (correct * 100 / total) < 60) {
-                weak.add(key);
-            }
-        }
-        weak.sort((a, b) -> {
-            int pctA = (correctAnswers.getOrDefault(a, 0) * 100) / totalAttempts.get(a);
-            int pctB = (correctAnswers.getOrDefault(b, 0) * 100) / totalAttempts.get(b);
-            return pctA - pctB;
-        });
-        return weak;
+    /**
+     * Up to limit topic ids under 60% over at least 3 attempts, weakest first
+     */
+    private static int[] getWeakAreas(int limit) {
+        return weakTopics.smallest(limit);
     }
 
     private static void viewDetailedStatistics() {
@@ -7147,63 +7258,70 @@ public class StudyApp {
         System.out.println("\n  " + BOLD + "Performance by Topic:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
 
-        Map<String, int[]> topicStats = new HashMap<>();
-        for (String key : correctAnswers.keySet()) {
-            topicStats.put(key, new int[]{correctAnswers.get(key), totalAttempts.get(key)});
-        }
-
-        // Sort by subject then accuracy
-        List<String> sortedTopics = new ArrayList<>(topicStats.keySet());
-        sortedTopics.sort((a, b) -> {
-            String subA = a.split("-")[0];
-            String subB = b.split("-")[0];
-            if (!subA.equals(subB)) return subA.compareTo(subB);
-            int pctA = (topicStats.get(a)[0] * 100) / topicStats.get(a)[1];
-            int pctB = (topicStats.get(b)[0] * 100) / topicStats.get(b)[1];
-            return pctB - pctA;
-        });
-
-        String lastSubject = "";
-        for (String topic : sortedTopics) {
-            String subject = topic.split("-")[0];
-            if (!subject.equals(lastSubject)) {
+        // Rank subjects by name so the topic sort below is all int compares
+        Integer[] bySubjectName = new Integer[subjects.size()];
+        for (int i = 0; i < bySubjectName.length; i++) bySubjectName[i] = i;
+        Arrays.sort(bySubjectName, Comparator.comparing(subjects::name));
+        int[] subjectRank = new int[subjects.size()];
+        for (int i = 0; i < bySubjectName.length; i++) subjectRank[bySubjectName[i]] = i;
+
+        // Sort by subject then accuracy, packed as (subject rank, 100 - accuracy, topic id)
+        long[] packed = new long[topics.size()];
+        int count = 0;
+        for (int topic = 0; topic < topics.size(); topic++) {
+            if (totalAttempts[topic] == 0) continue;
+            int pct = (correctAnswers[topic] * 100) / totalAttempts[topic];
+            packed[count++] = (long) subjectRank[topicSubject[topic]] << 40 | (long) (100 - pct) << 32 | topic;
+        }
+        Arrays.sort(packed, 0, count);
+        int[] sortedTopics = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedTopics[i] = (int) packed[i];
+        }
+
+        int lastSubject = -1;
+        for (int id : sortedTopics) {
+            if (topicSubject[id] != lastSubject) {
+                String subject = subjects.name(topicSubject[id]);
                 System.out.println("\n  " + BOLD + getSubjectColor(subject) + subject + RESET);
-                lastSubject = subject;
+                lastSubject = topicSubject[id];
             }
 
-            int[] stats = topicStats.get(topic);
+            String topic = topics.name(id);
+            int[] stats = {correctAnswers[id], totalAttempts[id]};
             int pct = (stats[0] * 100) / stats[1];
             String emoji = pct >= 80 ? "✓" : pct >= 60 ? "○" : "!";
             String color = pct >= 80 ? GREEN : pct >= 60 ? YELLOW : RED;
             String shortBar = generateProgressBar(pct, 10);
 
             String displayTopic = topic.length() > 25 ? topic.substring(0, 22) + "..." : topic;
-            System.out.printf("    %s%s%s %-25s %s %3d%% (%d/%d)\n",
-                color, emoji, RESET, displayTopic, shortBar, pct, stats[0], stats[1]);
+            System.out.printf("    %s%s%s %-25s %s %3d%% (%d/%d)  %dd: %s\n",
+                color, emoji, RESET, displayTopic, shortBar, pct, stats[0], stats[1], RECENT_DAYS, recentAccuracy(topicDaily, id));
         }
 
         // Best and worst performing topics
         System.out.println("\n  " + BOLD + "Performance Highlights:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
 
-        if (!sortedTopics.isEmpty()) {
-            String best = sortedTopics.get(0);
-            int[] bestStats = topicStats.get(best);
-            int bestPct = (bestStats[0] * 100) / bestStats[1];
-            System.out.println("  " + GREEN + "🏆 Best: " + RESET + best + " - " + bestPct + "%");
+        if (sortedTopics.length > 0) {
+            int best = sortedTopics[0];
+            int bestPct = (correctAnswers[best] * 100) / totalAttempts[best];
+            System.out.println("  " + GREEN + "🏆 Best: " + RESET + topics.name(best) + " - " + bestPct + "%");
 
-            String worst = sortedTopics.get(sortedTopics.size() - 1);
-            int[] worstStats = topicStats.get(worst);
-            int worstPct = (worstStats[0] * 100) / worstStats[1];
-            System.out.println("  " + RED + "⚠️  Needs Work: " + RESET + worst + " - " + worstPct + "%");
+            int worst = sortedTopics[sortedTopics.length - 1];
+            int worstPct = (correctAnswers[worst] * 100) / totalAttempts[worst];
+            System.out.println("  " + RED + "⚠️  Needs Work: " + RESET + topics.name(worst) + " - " + worstPct + "%");
         }
 
+        printReviewAnalytics();
+        printResponseTimes();
+
         // Study recommendations
         System.out.println("\n  " + BOLD + "Recommendations:" + RESET);
         System.out.println("  ─────────────────────────────────────────");
 
-        int totalCorrect = correctAnswers.values().stream().mapToInt(Integer::intValue).sum();
-        int totalAttempt = totalAttempts.values().stream().mapToInt(Integer::intValue).sum();
+        int totalCorrect = allCorrect;
+        int totalAttempt = allAttempts;
         int overallPct = totalAttempt > 0 ? (totalCorrect * 100 / totalAttempt) : 0;
 
         if (overallPct >= 85) {
@@ -7220,13 +7338,17 @@ public class StudyApp {
             System.out.println("  💡 Review topic browser and flashcard mode");
         }
 
-        List<String> weakAreas = getWeakAreas();
-        if (!weakAreas.isEmpty()) {
-            System.out.println("  💡 Priority topics: " + String.join(", ", weakAreas.subList(0, Math.min(3, weakAreas.size()))));
+        int[] weakAreas = getWeakAreas(3);
+        if (weakAreas.length > 0) {
+            List<String> priority = new ArrayList<>();
+            for (int i = 0; i < weakAreas.length; i++) {
+                priority.add(topics.name(weakAreas[i]));
+            }
+            System.out.println("  💡 Priority topics: " + String.join(", ", priority));
         }
 
         System.out.println("\n  Press Enter to continue...");
-        scanner.nextLine();
+        console.nextLine();
     }
     
     private static void quickReview() {
@@ -7234,9 +7356,8 @@ public class StudyApp {
         
         // Find cards with low performance
         for (Flashcard card : flashcards) {
-            String key = card.subject + "-" + card.topic;
-            int correct = correctAnswers.getOrDefault(key, 0);
-            int total = totalAttempts.getOrDefault(key, 0);
+            int correct = correctAnswers[card.topicId];
+            int total = totalAttempts[card.topicId];
             if (total == 0 || (total > 0 && correct * 100 / total < 70)) {
                 weakCards.add(card);
             }
@@ -7255,9 +7376,9 @@ public class StudyApp {
         System.out.println(YELLOW + "═══════════════════════════════════════════════════════════════" + RESET);
         System.out.println("\n  Reviewing " + reviewCards.size() + " cards that need attention...");
         System.out.println("\n  Press Enter to start...");
-        scanner.nextLine();
+        console.nextLine();
         
-        studyFlashcards(reviewCards);
+        studyFlashcards(reviewCards, MODE_QUICK_REVIEW);
     }
     
     private static void examSimulation() {
@@ -7268,14 +7389,14 @@ public class StudyApp {
         System.out.println("\n  This simulates a real exam environment!");
         System.out.println("  • Mixed questions from all subjects");
         System.out.println("  • No explanations until the end");
-        System.out.println("  • Timed (30 seconds per question)");
+        System.out.println("  • Timed (" + EXAM_SECONDS_PER_QUESTION + " seconds per question)");
         System.out.println("\n  " + YELLOW + "[1]" + RESET + " Short exam (10 questions)");
         System.out.println("  " + YELLOW + "[2]" + RESET + " Medium exam (20 questions)");
         System.out.println("  " + YELLOW + "[3]" + RESET + " Full exam (30 questions)");
         System.out.println("\n  " + RED + "[0]" + RESET + " Back");
         System.out.print("\nChoice: ");
         
-        String choice = scanner.nextLine().trim();
+        String choice = console.nextLine().trim();
         int numQuestions;
         switch (choice) {
             case "1": numQuestions = 10; break;
@@ -7301,13 +7422,14 @@ public class StudyApp {
         
         int correct = 0;
         int[] answers = new int[numQuestions];
+        LatencyHistogram examLatency = new LatencyHistogram();
         long startTime = System.currentTimeMillis();
         
         for (int i = 0; i < examQuestions.size(); i++) {
             Question q = examQuestions.get(i);
             clearScreen();
             
-            System.out.println("\n  Question " + (i + 1) + "/" + numQuestions + " | " + q.subject);
+            System.out.println("\n  Question " + (i + 1) + "/" + numQuestions + " | " + q.subject());
             System.out.println("  ─────────────────────────────────────────");
             System.out.println("\n  " + q.question + "\n");
             
@@ -7315,8 +7437,18 @@ public class StudyApp {
                 System.out.println("  [" + (char)('A' + j) + "] " + q.options[j]);
             }
             
-            System.out.print("\n  Answer (A-D): ");
-            String answer = scanner.nextLine().trim().toUpperCase();
+            long shownAt = System.nanoTime();
+            String line = readTimedAnswer(shownAt + TimeUnit.SECONDS.toNanos(EXAM_SECONDS_PER_QUESTION));
+            long answerNanos = System.nanoTime() - shownAt;
+            if (line == null) {
+                System.out.println("\n\n  " + RED + "⏰ Time's up! Moving on." + RESET);
+                // Whatever is entered for this question now arrives late; it must not answer the next one
+                if (console.discardFor(EXAM_LATE_GRACE_MS, TimeUnit.MILLISECONDS) > 0) {
+                    System.out.println("  " + YELLOW + "Late answer ignored." + RESET);
+                    pause(1000);
+                }
+            }
+            String answer = line == null ? "" : line.trim().toUpperCase();
             
             int answerIndex = -1;
             if (answer.length() == 1 && answer.charAt(0) >= 'A' && answer.charAt(0) <= 'D') {
@@ -7325,6 +7457,8 @@ public class StudyApp {
             
             answers[i] = answerIndex;
             if (answerIndex == q.correctIndex) correct++;
+            recordReview(fingerprint(q), quizTopic(q.subjectId), answerIndex == q.correctIndex, answerNanos, MODE_EXAM);
+            examLatency.record(answerNanos / 1000);
         }
         
         long endTime = System.currentTimeMillis();
@@ -7343,9 +7477,10 @@ public class StudyApp {
         System.out.println("  Grade: " + gradeColor + BOLD + grade + RESET);
         System.out.println("  Time: " + (totalSeconds / 60) + "m " + (totalSeconds % 60) + "s");
         System.out.println("  Average: " + (totalSeconds / numQuestions) + "s per question");
+        System.out.println("  Response: " + latencySummary(examLatency));
         
         System.out.println("\n  " + YELLOW + "Review incorrect answers? [y/n]" + RESET);
-        if (scanner.nextLine().trim().toLowerCase().equals("y")) {
+        if (console.nextLine().trim().toLowerCase().equals("y")) {
             for (int i = 0; i < examQuestions.size(); i++) {
                 Question q = examQuestions.get(i);
                 if (answers[i] != q.correctIndex) {
@@ -7360,9 +7495,37 @@ public class StudyApp {
         }
         
         System.out.println("\n  Press Enter to continue...");
-        scanner.nextLine();
+        console.nextLine();
     }
     
+    /**
+     * Read an exam answer before the deadline, with a countdown on the line above the prompt
+     * Sleeps on the input queue until the next whole second; returns null when time runs out.
+     */
+    private static String readTimedAnswer(long deadlineNanos) {
+        System.out.println();
+        System.out.println(countdownText(deadlineNanos - System.nanoTime()));
+        System.out.print("  Answer (A-D): ");
+        System.out.flush();
+        while (true) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) return null;
+            long untilTick = (remaining - 1) % 1_000_000_000L + 1;
+            String line = console.pollLine(untilTick, TimeUnit.NANOSECONDS);
+            if (line != null) return line;
+
+            // Save the cursor, redraw the countdown one line up, restore; typed text stays put
+            System.out.print("\0337\033[1A\r\033[2K" + countdownText(deadlineNanos - System.nanoTime()) + "\0338");
+            System.out.flush();
+        }
+    }
+
+    private static String countdownText(long remainingNanos) {
+        long seconds = Math.max(0, (remainingNanos + 999_999_999L) / 1_000_000_000L);
+        String color = seconds > 10 ? GREEN : seconds > 5 ? YELLOW : RED;
+        return "  " + color + "⏱  " + seconds + "s left" + RESET;
+    }
+
     // ==================== INPUT MODE ====================
     
     private static void inputMode() {
@@ -7383,7 +7546,7 @@ public class StudyApp {
             System.out.println("\n  " + RED + "[0]" + RESET + " Back to Main Menu");
             System.out.print("\nChoice: ");
             
-            String choice = scanner.nextLine().trim();
+            String choice = console.nextLine().trim();
             
             switch (choice) {
                 case "1": addFlashcard(); break;
@@ -7395,7 +7558,6 @@ public class StudyApp {
                 case "7": importFromFile(); break;
                 case "8": bulkAddMode(); break;
                 case "0": 
-                    saveCustomContent();
                     return;
                 default:
                     System.out.println(RED + "Invalid choice." + RESET);
@@ -7418,7 +7580,7 @@ public class StudyApp {
         System.out.println("  " + CYAN + "[4]" + RESET + " CUSTOM - New custom subject");
         System.out.print("\n  Subject [1-4]: ");
         
-        String subjectChoice = scanner.nextLine().trim();
+        String subjectChoice = console.nextLine().trim();
         String subject;
         switch (subjectChoice) {
             case "1": subject = "BSYS"; break;
@@ -7426,7 +7588,7 @@ public class StudyApp {
             case "3": subject = "TEAM"; break;
             case "4":
                 System.out.print("  Enter custom subject name: ");
-                subject = scanner.nextLine().trim();
+                subject = console.nextLine().trim();
                 if (subject.isEmpty()) subject = "CUSTOM";
                 break;
             default: subject = "CUSTOM";
@@ -7434,7 +7596,7 @@ public class StudyApp {
         
         // Get topic
         System.out.print("\n  Topic (e.g., 'Processes', 'VLANs'): ");
-        String topic = scanner.nextLine().trim();
+        String topic = console.nextLine().trim();
         if (topic.isEmpty()) topic = "General";
         
         // Get question (front of card)
@@ -7463,7 +7625,7 @@ public class StudyApp {
         System.out.print("\n  Difficulty [1=Easy, 2=Medium, 3=Hard]: ");
         int difficulty;
         try {
-            difficulty = Integer.parseInt(scanner.nextLine().trim());
+            difficulty = Integer.parseInt(console.nextLine().trim());
             difficulty = Math.max(1, Math.min(3, difficulty));
         } catch (Exception e) {
             difficulty = 2;
@@ -7471,11 +7633,14 @@ public class StudyApp {
         
         // Create and add the flashcard
         Flashcard newCard = new Flashcard(subject, topic, front, back, difficulty);
+        if (!cardFingerprints.add(fingerprint(newCard))) {
+            System.out.println(YELLOW + "  This card is already in the deck - not added." + RESET);
+            pause(1500);
+            return;
+        }
         customFlashcards.add(newCard);
         flashcards.add(newCard);
-
-        // Save immediately to make it persistent
-        saveCustomContent();
+        saveCard(newCard);
 
         // Preview
         clearScreen();
@@ -7489,7 +7654,7 @@ public class StudyApp {
         System.out.println("\n  " + GREEN + "A: " + RESET + back.replace("\n", "\n     "));
 
         System.out.println("\n  " + YELLOW + "Add another? [y/N]" + RESET);
-        if (scanner.nextLine().trim().toLowerCase().equals("y")) {
+        if (console.nextLine().trim().toLowerCase().equals("y")) {
             addFlashcard();
         }
     }
@@ -7508,7 +7673,7 @@ public class StudyApp {
         System.out.println("  " + CYAN + "[4]" + RESET + " CUSTOM");
         System.out.print("\n  Subject [1-4]: ");
         
-        String subjectChoice = scanner.nextLine().trim();
+        String subjectChoice = console.nextLine().trim();
         String subject;
         switch (subjectChoice) {
             case "1": subject = "BSYS"; break;
@@ -7516,7 +7681,7 @@ public class StudyApp {
             case "3": subject = "TEAM"; break;
             case "4":
                 System.out.print("  Enter custom subject name: ");
-                subject = scanner.nextLine().trim();
+                subject = console.nextLine().trim();
                 if (subject.isEmpty()) subject = "CUSTOM";
                 break;
             default: subject = "CUSTOM";
@@ -7524,7 +7689,7 @@ public class StudyApp {
         
         // Get question
         System.out.print("\n  " + BOLD + "Question:" + RESET + " ");
-        String questionText = scanner.nextLine().trim();
+        String questionText = console.nextLine().trim();
         
         if (questionText.isEmpty()) {
             System.out.println(RED + "  Cancelled - no question entered." + RESET);
@@ -7537,7 +7702,7 @@ public class StudyApp {
         System.out.println("\n  Enter 4 answer options:");
         for (int i = 0; i < 4; i++) {
             System.out.print("  " + YELLOW + "[" + (char)('A' + i) + "]" + RESET + " ");
-            options[i] = scanner.nextLine().trim();
+            options[i] = console.nextLine().trim();
             if (options[i].isEmpty()) {
                 options[i] = "Option " + (char)('A' + i);
             }
@@ -7545,7 +7710,7 @@ public class StudyApp {
         
         // Get correct answer
         System.out.print("\n  Correct answer [A/B/C/D]: ");
-        String correctStr = scanner.nextLine().trim().toUpperCase();
+        String correctStr = console.nextLine().trim().toUpperCase();
         int correctIndex = 0;
         if (correctStr.length() == 1 && correctStr.charAt(0) >= 'A' && correctStr.charAt(0) <= 'D') {
             correctIndex = correctStr.charAt(0) - 'A';
@@ -7553,18 +7718,21 @@ public class StudyApp {
         
         // Get explanation
         System.out.print("\n  Explanation (optional): ");
-        String explanation = scanner.nextLine().trim();
+        String explanation = console.nextLine().trim();
         if (explanation.isEmpty()) {
             explanation = "The correct answer is " + (char)('A' + correctIndex) + ": " + options[correctIndex];
         }
         
         // Create and add the question
         Question newQ = new Question(subject, questionText, options, correctIndex, explanation);
+        if (!questionFingerprints.add(fingerprint(newQ))) {
+            System.out.println(YELLOW + "  This question is already in the deck - not added." + RESET);
+            pause(1500);
+            return;
+        }
         customQuestions.add(newQ);
         questions.add(newQ);
-
-        // Save immediately to make it persistent
-        saveCustomContent();
+        saveQuestion(newQ);
 
         // Preview
         clearScreen();
@@ -7580,7 +7748,7 @@ public class StudyApp {
         System.out.println("\n  " + YELLOW + "Explanation: " + RESET + explanation);
 
         System.out.println("\n  " + YELLOW + "Add another? [y/N]" + RESET);
-        if (scanner.nextLine().trim().toLowerCase().equals("y")) {
+        if (console.nextLine().trim().toLowerCase().equals("y")) {
             addQuestion();
         }
     }
@@ -7595,7 +7763,7 @@ public class StudyApp {
             System.out.println("\n  " + YELLOW + "No custom content yet!" + RESET);
             System.out.println("  Use options 1 or 2 to add flashcards and questions.");
             System.out.println("\n  Press Enter to continue...");
-            scanner.nextLine();
+            console.nextLine();
             return;
         }
         
@@ -7605,10 +7773,10 @@ public class StudyApp {
             System.out.println("  ─────────────────────────────────────────");
             int idx = 1;
             for (Flashcard card : customFlashcards) {
-                String color = getSubjectColor(card.subject);
+                String color = getSubjectColor(card.subject());
                 String preview = card.front.length() > 40 ? card.front.substring(0, 40) + "..." : card.front;
                 preview = preview.replace("\n", " ");
-                System.out.println("  " + YELLOW + idx + "." + RESET + " " + color + "[" + card.subject + "]" + RESET + " " + card.topic + ": " + preview);
+                System.out.println("  " + YELLOW + idx + "." + RESET + " " + color + "[" + card.subject() + "]" + RESET + " " + card.topic() + ": " + preview);
                 idx++;
             }
         }
@@ -7619,15 +7787,15 @@ public class StudyApp {
             System.out.println("  ─────────────────────────────────────────");
             int idx = 1;
             for (Question q : customQuestions) {
-                String color = getSubjectColor(q.subject);
+                String color = getSubjectColor(q.subject());
                 String preview = q.question.length() > 40 ? q.question.substring(0, 40) + "..." : q.question;
-                System.out.println("  " + YELLOW + idx + "." + RESET + " " + color + "[" + q.subject + "]" + RESET + " " + preview);
+                System.out.println("  " + YELLOW + idx + "." + RESET + " " + color + "[" + q.subject() + "]" + RESET + " " + preview);
                 idx++;
             }
         }
         
         System.out.println("\n  Press Enter to continue...");
-        scanner.nextLine();
+        console.nextLine();
     }
     
     private static void editCustomContent() {
@@ -7647,7 +7815,7 @@ public class StudyApp {
         System.out.println("  " + RED + "[0]" + RESET + " Cancel");
         System.out.print("\n  Choice: ");
         
-        String choice = scanner.nextLine().trim();
+        String choice = console.nextLine().trim();
         
         if (choice.equals("1") && !customFlashcards.isEmpty()) {
             // List flashcards
@@ -7656,12 +7824,12 @@ public class StudyApp {
                 Flashcard card = customFlashcards.get(i);
                 String preview = card.front.length() > 35 ? card.front.substring(0, 35) + "..." : card.front;
                 preview = preview.replace("\n", " ");
-                System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + card.subject + "] " + preview);
+                System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + card.subject() + "] " + preview);
             }
             System.out.print("\n  Number (0 to cancel): ");
             
             try {
-                int idx = Integer.parseInt(scanner.nextLine().trim()) - 1;
+                int idx = Integer.parseInt(console.nextLine().trim()) - 1;
                 if (idx >= 0 && idx < customFlashcards.size()) {
                     editFlashcard(idx);
                 }
@@ -7673,12 +7841,12 @@ public class StudyApp {
             for (int i = 0; i < customQuestions.size(); i++) {
                 Question q = customQuestions.get(i);
                 String preview = q.question.length() > 35 ? q.question.substring(0, 35) + "..." : q.question;
-                System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + q.subject + "] " + preview);
+                System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + q.subject() + "] " + preview);
             }
             System.out.print("\n  Number (0 to cancel): ");
             
             try {
-                int idx = Integer.parseInt(scanner.nextLine().trim()) - 1;
+                int idx = Integer.parseInt(console.nextLine().trim()) - 1;
                 if (idx >= 0 && idx < customQuestions.size()) {
                     editQuestion(idx);
                 }
@@ -7688,6 +7856,7 @@ public class StudyApp {
     
     private static void editFlashcard(int index) {
         Flashcard card = customFlashcards.get(index);
+        long oldFingerprint = fingerprint(card);
         
         clearScreen();
         System.out.println("\n" + CYAN + "═══════════════════════════════════════════════════════════════" + RESET);
@@ -7695,10 +7864,10 @@ public class StudyApp {
         System.out.println(CYAN + "═══════════════════════════════════════════════════════════════" + RESET);
         
         System.out.println("\n  Current content:");
-        System.out.println("  " + BOLD + "Subject:" + RESET + " " + card.subject);
-        System.out.println("  " + BOLD + "Topic:" + RESET + " " + card.topic);
+        System.out.println("  " + BOLD + "Subject:" + RESET + " " + card.subject());
+        System.out.println("  " + BOLD + "Topic:" + RESET + " " + card.topic());
         System.out.println("  " + BOLD + "Q:" + RESET + " " + card.front.replace("\n", "\n     "));
-        System.out.println("  " + BOLD + "A:" + RESET + " " + card.back.replace("\n", "\n     "));
+        System.out.println("  " + BOLD + "A:" + RESET + " " + card.back().replace("\n", "\n     "));
         
         System.out.println("\n  What to edit?");
         System.out.println("  " + YELLOW + "[1]" + RESET + " Topic");
@@ -7707,15 +7876,15 @@ public class StudyApp {
         System.out.println("  " + RED + "[0]" + RESET + " Cancel");
         System.out.print("\n  Choice: ");
         
-        String choice = scanner.nextLine().trim();
+        String choice = console.nextLine().trim();
         
         boolean updated = false;
         switch (choice) {
             case "1":
                 System.out.print("  New topic: ");
-                String newTopic = scanner.nextLine().trim();
+                String newTopic = console.nextLine().trim();
                 if (!newTopic.isEmpty()) {
-                    card.topic = newTopic;
+                    card.topicId = topicId(card.subjectId, newTopic);
                     System.out.println(GREEN + "  ✓ Topic updated!" + RESET);
                     updated = true;
                 }
@@ -7742,7 +7911,9 @@ public class StudyApp {
 
         // Save changes immediately
         if (updated) {
-            saveCustomContent();
+            cardFingerprints.remove(oldFingerprint);
+            cardFingerprints.add(fingerprint(card));
+            saveCard(card);
         }
 
         pause(1500);
@@ -7750,6 +7921,7 @@ public class StudyApp {
     
     private static void editQuestion(int index) {
         Question q = customQuestions.get(index);
+        long oldFingerprint = fingerprint(q);
         
         clearScreen();
         System.out.println("\n" + CYAN + "═══════════════════════════════════════════════════════════════" + RESET);
@@ -7771,13 +7943,13 @@ public class StudyApp {
         System.out.println("  " + RED + "[0]" + RESET + " Cancel");
         System.out.print("\n  Choice: ");
         
-        String choice = scanner.nextLine().trim();
+        String choice = console.nextLine().trim();
         
         boolean updated = false;
         switch (choice) {
             case "1":
                 System.out.print("  New question: ");
-                String newQ = scanner.nextLine().trim();
+                String newQ = console.nextLine().trim();
                 if (!newQ.isEmpty()) {
                     q.question = newQ;
                     System.out.println(GREEN + "  ✓ Question updated!" + RESET);
@@ -7788,7 +7960,7 @@ public class StudyApp {
                 System.out.println("  Enter new options (press Enter to keep current):");
                 for (int i = 0; i < 4; i++) {
                     System.out.print("  [" + (char)('A'+i) + "] (" + q.options[i] + "): ");
-                    String newOpt = scanner.nextLine().trim();
+                    String newOpt = console.nextLine().trim();
                     if (!newOpt.isEmpty()) {
                         q.options[i] = newOpt;
                         updated = true;
@@ -7800,7 +7972,7 @@ public class StudyApp {
                 break;
             case "3":
                 System.out.print("  Correct answer [A/B/C/D]: ");
-                String correct = scanner.nextLine().trim().toUpperCase();
+                String correct = console.nextLine().trim().toUpperCase();
                 if (correct.length() == 1 && correct.charAt(0) >= 'A' && correct.charAt(0) <= 'D') {
                     q.correctIndex = correct.charAt(0) - 'A';
                     System.out.println(GREEN + "  ✓ Correct answer updated!" + RESET);
@@ -7809,7 +7981,7 @@ public class StudyApp {
                 break;
             case "4":
                 System.out.print("  New explanation: ");
-                String newExp = scanner.nextLine().trim();
+                String newExp = console.nextLine().trim();
                 if (!newExp.isEmpty()) {
                     q.explanation = newExp;
                     System.out.println(GREEN + "  ✓ Explanation updated!" + RESET);
@@ -7820,7 +7992,9 @@ public class StudyApp {
 
         // Save changes immediately
         if (updated) {
-            saveCustomContent();
+            questionFingerprints.remove(oldFingerprint);
+            questionFingerprints.add(fingerprint(q));
+            saveQuestion(q);
         }
 
         pause(1500);
@@ -7844,7 +8018,7 @@ public class StudyApp {
         System.out.println("  " + CYAN + "[0]" + RESET + " Cancel");
         System.out.print("\n  Choice: ");
         
-        String choice = scanner.nextLine().trim();
+        String choice = console.nextLine().trim();
         
         switch (choice) {
             case "1":
@@ -7858,15 +8032,16 @@ public class StudyApp {
                     Flashcard card = customFlashcards.get(i);
                     String preview = card.front.length() > 35 ? card.front.substring(0, 35) + "..." : card.front;
                     preview = preview.replace("\n", " ");
-                    System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + card.subject + "] " + preview);
+                    System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + card.subject() + "] " + preview);
                 }
                 System.out.print("\n  Number (0 to cancel): ");
                 try {
-                    int idx = Integer.parseInt(scanner.nextLine().trim()) - 1;
+                    int idx = Integer.parseInt(console.nextLine().trim()) - 1;
                     if (idx >= 0 && idx < customFlashcards.size()) {
                         Flashcard toRemove = customFlashcards.remove(idx);
                         flashcards.remove(toRemove);
-                        saveCustomContent();
+                        cardFingerprints.remove(fingerprint(toRemove));
+                        deleteCard(toRemove);
                         System.out.println(GREEN + "  ✓ Flashcard deleted!" + RESET);
                     }
                 } catch (Exception e) {}
@@ -7882,15 +8057,16 @@ public class StudyApp {
                 for (int i = 0; i < customQuestions.size(); i++) {
                     Question q = customQuestions.get(i);
                     String preview = q.question.length() > 35 ? q.question.substring(0, 35) + "..." : q.question;
-                    System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + q.subject + "] " + preview);
+                    System.out.println("  " + YELLOW + (i+1) + "." + RESET + " [" + q.subject() + "] " + preview);
                 }
                 System.out.print("\n  Number (0 to cancel): ");
                 try {
-                    int idx = Integer.parseInt(scanner.nextLine().trim()) - 1;
+                    int idx = Integer.parseInt(console.nextLine().trim()) - 1;
                     if (idx >= 0 && idx < customQuestions.size()) {
                         Question toRemove = customQuestions.remove(idx);
                         questions.remove(toRemove);
-                        saveCustomContent();
+                        questionFingerprints.remove(fingerprint(toRemove));
+                        deleteQuestion(toRemove);
                         System.out.println(GREEN + "  ✓ Question deleted!" + RESET);
                     }
                 } catch (Exception e) {}
@@ -7898,12 +8074,14 @@ public class StudyApp {
 
             case "3":
                 System.out.print("\n  " + RED + "Delete ALL custom content? Type 'DELETE' to confirm: " + RESET);
-                if (scanner.nextLine().trim().equals("DELETE")) {
-                    flashcards.removeAll(customFlashcards);
-                    questions.removeAll(customQuestions);
+                if (console.nextLine().trim().equals("DELETE")) {
+                    removeByIdentity(flashcards, customFlashcards);
+                    removeByIdentity(questions, customQuestions);
+                    for (Flashcard card : customFlashcards) cardFingerprints.remove(fingerprint(card));
+                    for (Question q : customQuestions) questionFingerprints.remove(fingerprint(q));
                     customFlashcards.clear();
                     customQuestions.clear();
-                    saveCustomContent();
+                    clearCustomContent();
                     System.out.println(GREEN + "  ✓ All custom content deleted!" + RESET);
                 } else {
                     System.out.println(YELLOW + "  Cancelled." + RESET);
@@ -7927,7 +8105,7 @@ public class StudyApp {
         System.out.println(CYAN + "═══════════════════════════════════════════════════════════════" + RESET);
         
         System.out.print("\n  Filename (default: study_export.txt): ");
-        String filename = scanner.nextLine().trim();
+        String filename = console.nextLine().trim();
         if (filename.isEmpty()) filename = "study_export.txt";
         
         try (PrintWriter writer = new PrintWriter(new FileWriter(filename))) {
@@ -7941,13 +8119,13 @@ public class StudyApp {
                 writer.println();
                 for (Flashcard card : customFlashcards) {
                     writer.println("---CARD---");
-                    writer.println("SUBJECT: " + card.subject);
-                    writer.println("TOPIC: " + card.topic);
+                    writer.println("SUBJECT: " + card.subject());
+                    writer.println("TOPIC: " + card.topic());
                     writer.println("DIFFICULTY: " + card.difficulty);
                     writer.println("FRONT:");
                     writer.println(card.front);
                     writer.println("BACK:");
-                    writer.println(card.back);
+                    writer.println(card.back());
                     writer.println();
                 }
             }
@@ -7958,7 +8136,7 @@ public class StudyApp {
                 writer.println();
                 for (Question q : customQuestions) {
                     writer.println("---QUESTION---");
-                    writer.println("SUBJECT: " + q.subject);
+                    writer.println("SUBJECT: " + q.subject());
                     writer.println("Q: " + q.question);
                     writer.println("A: " + q.options[0]);
                     writer.println("B: " + q.options[1]);
@@ -7978,7 +8156,7 @@ public class StudyApp {
         }
         
         System.out.println("\n  Press Enter to continue...");
-        scanner.nextLine();
+        console.nextLine();
     }
     
     private static void importFromFile() {
@@ -7994,7 +8172,7 @@ public class StudyApp {
         System.out.println("  • CSV: Subject,Topic,Question,Answer,Difficulty");
         
         System.out.print("\n  Filename: ");
-        String filename = scanner.nextLine().trim();
+        String filename = console.nextLine().trim();
         
         if (filename.isEmpty()) {
             System.out.println(RED + "  Cancelled." + RESET);
@@ -8009,143 +8187,51 @@ public class StudyApp {
             return;
         }
         
-        int cardsImported = 0;
-        int questionsImported = 0;
-        
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            String currentSection = "";
-            
-            // Variables for parsing
-            String subject = "CUSTOM", topic = "Imported", front = "", back = "";
-            int difficulty = 2;
-            String question = "";
-            String[] options = new String[4];
-            int correctIndex = 0;
-            String explanation = "";
-            
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                
-                // Check for StudyApp format markers
-                if (line.equals("---CARD---")) {
-                    currentSection = "CARD";
-                    front = ""; back = "";
-                    continue;
-                }
-                if (line.equals("---QUESTION---")) {
-                    currentSection = "QUESTION";
-                    question = "";
-                    options = new String[]{"", "", "", ""};
-                    continue;
+        try {
+            ImportResult result = new ImportEngine().importFile(file.toPath());
+
+            // Size the fingerprint tables once instead of rehashing them as a large import grows them
+            cardFingerprints.ensureCapacity(flashcards.size() + result.getFlashcards().size());
+            questionFingerprints.ensureCapacity(questions.size() + result.getQuestions().size());
+
+            int duplicates = 0;
+            List<Flashcard> importedCards = new ArrayList<>(result.getFlashcards().size());
+            for (content.FlashcardGenerator.Flashcard c : result.getFlashcards()) {
+                if (cardFingerprints.add(ContentFingerprints.card(c.subject, c.topic, c.front, c.back))) {
+                    Flashcard card = new Flashcard(c.subject, c.topic, c.front, c.back, c.difficulty);
+                    detachBack(card);
+                    importedCards.add(card);
+                } else {
+                    duplicates++;
                 }
-                
-                if (currentSection.equals("CARD")) {
-                    if (line.startsWith("SUBJECT: ")) subject = line.substring(9);
-                    else if (line.startsWith("TOPIC: ")) topic = line.substring(7);
-                    else if (line.startsWith("DIFFICULTY: ")) difficulty = Integer.parseInt(line.substring(12));
-                    else if (line.startsWith("FRONT:")) { /* next lines are front */ }
-                    else if (line.startsWith("BACK:")) {
-                        // Save front, now collecting back
-                    }
-                    else if (line.isEmpty() && !front.isEmpty() && !back.isEmpty()) {
-                        // End of card
-                        Flashcard card = new Flashcard(subject, topic, front.trim(), back.trim(), difficulty);
-                        customFlashcards.add(card);
-                        flashcards.add(card);
-                        cardsImported++;
-                        front = ""; back = "";
-                        currentSection = "";
-                    }
-                    // Simple format: question;answer
-                } else if (line.contains(";") && currentSection.isEmpty() && !line.contains("\t")) {
-                    String[] parts = line.split(";", 2);
-                    if (parts.length == 2) {
-                        Flashcard card = new Flashcard("CUSTOM", "Imported", parts[0].trim(), parts[1].trim(), 2);
-                        customFlashcards.add(card);
-                        flashcards.add(card);
-                        cardsImported++;
-                    }
+            }
+            List<Question> importedQuestions = new ArrayList<>(result.getQuestions().size());
+            for (content.QuestionGenerator.Question q : result.getQuestions()) {
+                if (questionFingerprints.add(ContentFingerprints.question(q.subject, q.question, q.options))) {
+                    importedQuestions.add(new Question(q.subject, q.question, q.options, q.correctIndex, q.explanation));
+                } else {
+                    duplicates++;
                 }
-                // Anki format: front[TAB]back[TAB]tags (tab-separated)
-                else if (line.contains("\t") && currentSection.isEmpty()) {
-                    String[] parts = line.split("\t");
-                    if (parts.length >= 2) {
-                        String ankiFront = parts[0].trim();
-                        String ankiBack = parts[1].trim();
-                        String ankiSubject = "CUSTOM";
-                        String ankiTopic = "Imported";
-
-                        // Check if tags contain subject info
-                        if (parts.length >= 3) {
-                            String tags = parts[2].trim();
-                            // Check for subject prefix in front or tags
-                            if (tags.toUpperCase().contains("BSYS")) ankiSubject = "BSYS";
-                            else if (tags.toUpperCase().contains("DIGICOM")) ankiSubject = "DigiCom";
-                            else if (tags.toUpperCase().contains("TEAM")) ankiSubject = "TEAM";
-                        }
+            }
 
-                        // Check for subject prefix in front text (e.g., "BSYS: What is...")
-                        if (ankiFront.matches("^[A-Z]+:\\s.*")) {
-                            String[] prefixParts = ankiFront.split(":", 2);
-                            String possibleSubject = prefixParts[0].trim();
-                            if (possibleSubject.equals("BSYS") || possibleSubject.equals("DigiCom") || possibleSubject.equals("TEAM")) {
-                                ankiSubject = possibleSubject;
-                                ankiFront = prefixParts[1].trim();
-                            }
-                        }
+            customFlashcards.addAll(importedCards);
+            flashcards.addAll(importedCards);
+            customQuestions.addAll(importedQuestions);
+            questions.addAll(importedQuestions);
 
-                        Flashcard card = new Flashcard(ankiSubject, ankiTopic, ankiFront, ankiBack, 2);
-                        customFlashcards.add(card);
-                        flashcards.add(card);
-                        cardsImported++;
-                    }
-                }
-                // CSV format: Subject,Topic,Question,Answer,Difficulty
-                else if (line.contains(",") && currentSection.isEmpty() && line.split(",").length >= 4) {
-                    String[] parts = line.split(",", 5);
-                    if (parts.length >= 4 && !parts[0].trim().equals("Subject")) { // Skip header row
-                        String csvSubject = parts[0].trim();
-                        String csvTopic = parts.length > 1 ? parts[1].trim() : "General";
-                        String csvFront = parts.length > 2 ? parts[2].trim() : "";
-                        String csvBack = parts.length > 3 ? parts[3].trim() : "";
-                        int csvDifficulty = parts.length > 4 ? parseDifficulty(parts[4].trim()) : 2;
-
-                        if (!csvFront.isEmpty() && !csvBack.isEmpty()) {
-                            Flashcard card = new Flashcard(csvSubject, csvTopic, csvFront, csvBack, csvDifficulty);
-                            customFlashcards.add(card);
-                            flashcards.add(card);
-                            cardsImported++;
-                        }
-                    }
-                }
-                
-                if (currentSection.equals("QUESTION")) {
-                    if (line.startsWith("SUBJECT: ")) subject = line.substring(9);
-                    else if (line.startsWith("Q: ")) question = line.substring(3);
-                    else if (line.startsWith("A: ")) options[0] = line.substring(3);
-                    else if (line.startsWith("B: ")) options[1] = line.substring(3);
-                    else if (line.startsWith("C: ")) options[2] = line.substring(3);
-                    else if (line.startsWith("D: ")) options[3] = line.substring(3);
-                    else if (line.startsWith("CORRECT: ")) correctIndex = line.charAt(9) - 'A';
-                    else if (line.startsWith("EXPLANATION: ")) explanation = line.substring(13);
-                    else if (line.isEmpty() && !question.isEmpty()) {
-                        Question q = new Question(subject, question, options, correctIndex, explanation);
-                        customQuestions.add(q);
-                        questions.add(q);
-                        questionsImported++;
-                        currentSection = "";
-                    }
-                }
-            }
-            
             System.out.println(GREEN + "\n  ✓ Import complete!" + RESET);
-            System.out.println("  Flashcards imported: " + cardsImported);
-            System.out.println("  Questions imported: " + questionsImported);
+            System.out.println("  Format: " + result.getFormat().getDescription());
+            System.out.println("  Flashcards imported: " + importedCards.size());
+            System.out.println("  Questions imported: " + importedQuestions.size());
+            if (duplicates > 0) {
+                System.out.println("  " + YELLOW + "Duplicates skipped: " + duplicates + RESET);
+            }
+            System.out.println("  " + result.getLines() + " lines in " + result.getElapsedMillis() + " ms (" +
+                result.getLinesPerSecond() + " lines/sec)");
 
-            // Save immediately to make imports persistent
-            if (cardsImported > 0 || questionsImported > 0) {
-                saveCustomContent();
+            // Append only the new records to make imports persistent
+            if (!importedCards.isEmpty() || !importedQuestions.isEmpty()) {
+                appendCustomContent(importedCards, importedQuestions);
                 System.out.println("  " + CYAN + "💾 Saved to custom content files" + RESET);
             }
 
@@ -8154,16 +8240,7 @@ public class StudyApp {
         }
 
         System.out.println("\n  Press Enter to continue...");
-        scanner.nextLine();
-    }
-
-    private static int parseDifficulty(String diffStr) {
-        try {
-            int diff = Integer.parseInt(diffStr.trim());
-            return (diff >= 1 && diff <= 3) ? diff : 2;
-        } catch (NumberFormatException e) {
-            return 2; // Default to medium difficulty
-        }
+        console.nextLine();
     }
 
     private static void bulkAddMode() {
@@ -8179,7 +8256,7 @@ public class StudyApp {
         System.out.println("  Subject:");
         System.out.println("  [1] BSYS  [2] DigiCom  [3] TEAM  [4] CUSTOM");
         System.out.print("  Choice: ");
-        String subjectChoice = scanner.nextLine().trim();
+        String subjectChoice = console.nextLine().trim();
         String subject;
         switch (subjectChoice) {
             case "1": subject = "BSYS"; break;
@@ -8187,12 +8264,12 @@ public class StudyApp {
             case "3": subject = "TEAM"; break;
             default: 
                 System.out.print("  Custom subject name: ");
-                subject = scanner.nextLine().trim();
+                subject = console.nextLine().trim();
                 if (subject.isEmpty()) subject = "CUSTOM";
         }
         
         System.out.print("  Topic: ");
-        String topic = scanner.nextLine().trim();
+        String topic = console.nextLine().trim();
         if (topic.isEmpty()) topic = "General";
         
         System.out.println("\n  " + GREEN + "Start entering cards (question;answer):" + RESET);
@@ -8201,15 +8278,20 @@ public class StudyApp {
         int count = 0;
         while (true) {
             System.out.print("  " + YELLOW + (count + 1) + ">" + RESET + " ");
-            String line = scanner.nextLine().trim();
+            String line = console.nextLine().trim();
             
             if (line.isEmpty()) break;
             
             String[] parts = line.split(";", 2);
             if (parts.length == 2) {
                 Flashcard card = new Flashcard(subject, topic, parts[0].trim(), parts[1].trim(), 2);
+                if (!cardFingerprints.add(fingerprint(card))) {
+                    System.out.println("     " + YELLOW + "Already in the deck - skipped" + RESET);
+                    continue;
+                }
                 customFlashcards.add(card);
                 flashcards.add(card);
+                saveCard(card);
                 count++;
                 System.out.println("     " + GREEN + "✓ Added" + RESET);
             } else {
@@ -8217,11 +8299,6 @@ public class StudyApp {
             }
         }
 
-        // Save all cards added in bulk
-        if (count > 0) {
-            saveCustomContent();
-        }
-
         System.out.println("\n  " + GREEN + "✓ Added " + count + " flashcards!" + RESET);
         pause(1500);
     }
@@ -8231,7 +8308,7 @@ public class StudyApp {
         String lastLine = null;
         
         while (true) {
-            String line = scanner.nextLine();
+            String line = console.nextLine();
             if (line.isEmpty() && (lastLine == null || lastLine.isEmpty())) {
                 break;
             }
@@ -8243,74 +8320,590 @@ public class StudyApp {
         return sb.toString().trim();
     }
     
-    private static void saveCustomContent() {
-        // Save flashcards
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CUSTOM_CARDS_FILE))) {
-            for (Flashcard card : customFlashcards) {
-                // Use ||| as delimiter since content might have commas/newlines
-                String front = card.front.replace("\n", "\\n").replace("|||", "\\|\\|\\|");
-                String back = card.back.replace("\n", "\\n").replace("|||", "\\|\\|\\|");
-                writer.println(card.subject + "|||" + card.topic + "|||" + front + "|||" + back + "|||" + card.difficulty);
+    /**
+     * Append a card to the custom content log, as a new version if it is already stored
+     */
+    private static void saveCard(Flashcard card) {
+        if (cardLog == null) return;
+        try {
+            if (card.recordId == 0) {
+                card.recordId = cardLog.add(cardFields(card));
+            } else {
+                cardLog.put(card.recordId, cardFields(card));
             }
-        } catch (Exception e) {
-            // Silent fail
+        } catch (IOException e) {
+            System.out.println(RED + "  ✗ Could not save card: " + e.getMessage() + RESET);
         }
-        
-        // Save questions
-        try (PrintWriter writer = new PrintWriter(new FileWriter(CUSTOM_QUESTIONS_FILE))) {
-            for (Question q : customQuestions) {
-                String exp = q.explanation.replace("\n", "\\n").replace("|||", "\\|\\|\\|");
-                writer.println(q.subject + "|||" + q.question + "|||" + 
-                    q.options[0] + "|||" + q.options[1] + "|||" + q.options[2] + "|||" + q.options[3] + "|||" +
-                    q.correctIndex + "|||" + exp);
+    }
+
+    private static void saveQuestion(Question q) {
+        if (questionLog == null) return;
+        try {
+            if (q.recordId == 0) {
+                q.recordId = questionLog.add(questionFields(q));
+            } else {
+                questionLog.put(q.recordId, questionFields(q));
             }
-        } catch (Exception e) {
-            // Silent fail
+        } catch (IOException e) {
+            System.out.println(RED + "  ✗ Could not save question: " + e.getMessage() + RESET);
         }
     }
-    
+
+    private static void deleteCard(Flashcard card) {
+        if (cardLog == null || card.recordId == 0) return;
+        try {
+            cardLog.delete(card.recordId);
+        } catch (IOException e) {
+            System.out.println(RED + "  ✗ Could not delete card: " + e.getMessage() + RESET);
+        }
+    }
+
+    private static void deleteQuestion(Question q) {
+        if (questionLog == null || q.recordId == 0) return;
+        try {
+            questionLog.delete(q.recordId);
+        } catch (IOException e) {
+            System.out.println(RED + "  ✗ Could not delete question: " + e.getMessage() + RESET);
+        }
+    }
+
+    private static void clearCustomContent() {
+        try {
+            if (cardLog != null) cardLog.clear();
+            if (questionLog != null) questionLog.clear();
+        } catch (IOException e) {
+            System.out.println(RED + "  ✗ Could not clear custom content: " + e.getMessage() + RESET);
+        }
+    }
+
+    /**
+     * Append imported records in one batch per log
+     */
+    private static void appendCustomContent(List<Flashcard> newCards, List<Question> newQuestions) throws IOException {
+        if (cardLog == null || questionLog == null) throw new IOException("Custom content files are not open");
+        List<String[]> records = new ArrayList<>(newCards.size());
+        for (Flashcard card : newCards) records.add(cardFields(card));
+        long[] ids = cardLog.addAll(records);
+        for (int i = 0; i < ids.length; i++) newCards.get(i).recordId = ids[i];
+
+        records = new ArrayList<>(newQuestions.size());
+        for (Question q : newQuestions) records.add(questionFields(q));
+        ids = questionLog.addAll(records);
+        for (int i = 0; i < ids.length; i++) newQuestions.get(i).recordId = ids[i];
+    }
+
+    private static void closeCustomContent() {
+        try {
+            if (cardLog != null) cardLog.close();
+            if (questionLog != null) questionLog.close();
+        } catch (IOException e) {
+            System.out.println(RED + "Could not close custom content files: " + e.getMessage() + RESET);
+        }
+    }
+
+    // Record layout in the custom content logs: one UTF-8 field per attribute, numbers as text
+    private static String[] cardFields(Flashcard card) {
+        return new String[]{card.subject(), card.topic(), card.front, card.back(), Integer.toString(card.difficulty)};
+    }
+
+    private static Flashcard cardFromFields(String[] f) {
+        if (f.length < 5) return null;
+        return new Flashcard(f[0], f[1], f[2], f[3], parseSmallInt(f[4], 2));
+    }
+
+    private static String[] questionFields(Question q) {
+        String[] fields = new String[4 + q.options.length];
+        fields[0] = q.subject();
+        fields[1] = q.question;
+        fields[2] = Integer.toString(q.correctIndex);
+        fields[3] = q.explanation;
+        System.arraycopy(q.options, 0, fields, 4, q.options.length);
+        return fields;
+    }
+
+    private static Question questionFromFields(String[] f) {
+        if (f.length < 5) return null;
+        return new Question(f[0], f[1], Arrays.copyOfRange(f, 4, f.length), parseSmallInt(f[2], 0), f[3]);
+    }
+
+    private static int parseSmallInt(String text, int defaultValue) {
+        if (text.isEmpty() || text.length() > 9) return defaultValue;
+        int value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) return defaultValue;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
     private static void loadCustomContent() {
-        // Load flashcards
-        try (BufferedReader reader = new BufferedReader(new FileReader(CUSTOM_CARDS_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|\\|\\|");
-                if (parts.length >= 5) {
-                    String front = parts[2].replace("\\n", "\n").replace("\\|\\|\\|", "|||");
-                    String back = parts[3].replace("\\n", "\n").replace("\\|\\|\\|", "|||");
-                    Flashcard card = new Flashcard(parts[0], parts[1], front, back, Integer.parseInt(parts[4]));
-                    customFlashcards.add(card);
-                    flashcards.add(card);
+        try {
+            // Files from older versions are in the ||| text format and are converted once
+            cardLog = RecordLog.open(dataFile(CUSTOM_CARDS_FILE), line -> {
+                Flashcard card = parseLegacyCardLine(line);
+                return card != null ? cardFields(card) : null;
+            });
+            questionLog = RecordLog.open(dataFile(CUSTOM_QUESTIONS_FILE), line -> {
+                Question q = parseLegacyQuestionLine(line);
+                return q != null ? questionFields(q) : null;
+            });
+        } catch (IOException e) {
+            System.out.println(RED + "Could not open custom content: " + e.getMessage() +
+                " - changes will not be saved" + RESET);
+            cardLog = questionLog = null;
+            return;
+        }
+
+        // Duplicates of built-in or pack content are only skipped; the log keeps them, so the
+        // user's entries come back if that pack is later removed or changed
+        int[] duplicates = {0};
+        try {
+            List<Flashcard> loadedCards = new ArrayList<>(cardLog.size());
+            cardLog.forEach((id, fields) -> {
+                Flashcard card = cardFromFields(fields);
+                if (card == null) return;
+                card.recordId = id;
+                if (cardFingerprints.add(fingerprint(card))) {
+                    detachBack(card);
+                    loadedCards.add(card);
+                } else {
+                    duplicates[0]++;
+                }
+            });
+            customFlashcards.addAll(loadedCards);
+            flashcards.addAll(loadedCards);
+
+            List<Question> loadedQuestions = new ArrayList<>(questionLog.size());
+            questionLog.forEach((id, fields) -> {
+                Question q = questionFromFields(fields);
+                if (q == null) return;
+                q.recordId = id;
+                if (questionFingerprints.add(fingerprint(q))) {
+                    loadedQuestions.add(q);
+                } else {
+                    duplicates[0]++;
+                }
+            });
+            customQuestions.addAll(loadedQuestions);
+            questions.addAll(loadedQuestions);
+        } catch (IOException e) {
+            System.out.println(RED + "Could not read custom content: " + e.getMessage() + RESET);
+        }
+
+        if (duplicates[0] > 0) {
+            System.out.println(YELLOW + "Skipped " + duplicates[0] + " duplicate custom card(s)/question(s)" + RESET);
+        }
+    }
+
+    private static Flashcard parseLegacyCardLine(String line) {
+        String[] parts = line.split("\\|\\|\\|");
+        if (parts.length < 5) return null;
+        try {
+            String front = parts[2].replace("\\n", "\n").replace("\\|\\|\\|", "|||");
+            String back = parts[3].replace("\\n", "\n").replace("\\|\\|\\|", "|||");
+            return new Flashcard(parts[0], parts[1], front, back, Integer.parseInt(parts[4]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Question parseLegacyQuestionLine(String line) {
+        String[] parts = line.split("\\|\\|\\|");
+        if (parts.length < 8) return null;
+        try {
+            String[] options = {parts[2], parts[3], parts[4], parts[5]};
+            String exp = parts[7].replace("\\n", "\n").replace("\\|\\|\\|", "|||");
+            return new Question(parts[0], parts[1], options, Integer.parseInt(parts[6]), exp);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fingerprint the built-in content so loads and imports can reject duplicates of it
+     */
+    private static void fingerprintContent() {
+        for (Flashcard card : flashcards) cardFingerprints.add(fingerprint(card));
+        for (Question q : questions) questionFingerprints.add(fingerprint(q));
+    }
+
+    private static long fingerprint(Flashcard card) {
+        return ContentFingerprints.card(card.subject(), card.topic(), card.front, card.back());
+    }
+
+    private static long fingerprint(Question q) {
+        return ContentFingerprints.question(q.subject(), q.question, q.options);
+    }
+
+    private static void openCardTexts() {
+        if (Boolean.getBoolean(COMPRESSED_BACKS_PROPERTY)) {
+            // The built-in cards share most of the phrasing of packs and imports on the same subjects
+            List<String> samples = new ArrayList<>(flashcards.size() * 2);
+            for (Flashcard card : flashcards) {
+                samples.add(card.front);
+                samples.add(card.back());
+            }
+            cardTexts = new CompressedTextStore(
+                CompressedTextStore.trainDictionary(samples, CompressedTextStore.DEFAULT_DICTIONARY_SIZE));
+        } else if (Boolean.getBoolean(MAPPED_BACKS_PROPERTY)) {
+            try {
+                cardTexts = new CardTextStore();
+            } catch (IOException e) {
+                System.out.println(RED + "Could not create card text store, keeping answers on heap: " + e.getMessage() + RESET);
+            }
+        }
+    }
+
+    /**
+     * Print memory saved versus decode cost for compressed answers
+     */
+    private static void reportCardTexts() {
+        if (!(cardTexts instanceof CompressedTextStore)) return;
+        CompressedTextStore store = (CompressedTextStore) cardTexts;
+        if (store.getCount() == 0) return;
+        long stored = store.getCompressedBytes() + store.getDictionarySize();
+        System.out.printf(GREEN + "✓ Compressed %d answers: %.1f KB as strings -> %.1f KB incl. %.1f KB dictionary, %.1f µs/card to decode%n" + RESET,
+            store.getCount(), store.getRawBytes() / 1024.0, stored / 1024.0, store.getDictionarySize() / 1024.0,
+            store.measureDecodeMicros());
+    }
+
+    /**
+     * Move a card's answer into the mapped text store (if enabled); front and metadata stay on heap
+     * The answer is decoded again only when it is shown, see Flashcard.back().
+     */
+    private static void detachBack(Flashcard card) {
+        if (cardTexts == null || detachDisabled || card.back == null) return;
+        try {
+            long handle = cardTexts.add(card.back);
+            if (handle >= 0) {
+                card.backHandle = handle;
+                card.back = null;
+            }
+        } catch (IOException e) {
+            System.out.println(RED + "Card text store failed, keeping new answers on heap: " + e.getMessage() + RESET);
+            detachDisabled = true;
+        }
+    }
+
+    /**
+     * Remove elements by identity in O(n + m) instead of List.removeAll's O(n * m)
+     */
+    private static <T> void removeByIdentity(List<T> list, Collection<T> toRemove) {
+        Set<T> index = Collections.newSetFromMap(new IdentityHashMap<>(toRemove.size() * 2));
+        index.addAll(toRemove);
+        list.removeIf(index::contains);
+    }
+    
+    /**
+     * Load generated content packs from content/ or -Dstudyapp.content
+     * The property may list several pack files or directories separated by the path separator.
+     */
+    private static void loadContentPacks() {
+        String locations = System.getProperty(CONTENT_PACK_PROPERTY, CONTENT_PACK_DIR);
+        List<Flashcard> packCards = new ArrayList<>();
+        List<Question> packQuestions = new ArrayList<>();
+        ContentPack.Sink sink = new ContentPack.Sink() {
+            @Override
+            public void flashcard(String subject, String topic, String front, String back, int difficulty) {
+                packCards.add(new Flashcard(subject, topic, front, back, difficulty));
+            }
+
+            @Override
+            public void question(String subject, String question, String[] options, int correctIndex, String explanation) {
+                packQuestions.add(new Question(subject, question, options, correctIndex, explanation));
+            }
+        };
+
+        int packs = 0;
+        int loadedCards = 0;
+        int loadedQuestions = 0;
+        int duplicates = 0;
+        for (String location : locations.split(File.pathSeparator)) {
+            if (location.trim().isEmpty()) continue;
+            try {
+                for (Path pack : ContentPack.find(Paths.get(location.trim()))) {
+                    packCards.clear();
+                    packQuestions.clear();
+                    try {
+                        ContentPack.read(pack, sink);
+                    } catch (IOException e) {
+                        // Skip the whole pack rather than loading part of it
+                        System.out.println(RED + "Skipping content pack " + pack + ": " + e.getMessage() + RESET);
+                        continue;
+                    }
+                    for (Flashcard card : packCards) {
+                        if (cardFingerprints.add(fingerprint(card))) {
+                            detachBack(card);
+                            flashcards.add(card);
+                            loadedCards++;
+                        } else {
+                            duplicates++;
+                        }
+                    }
+                    for (Question q : packQuestions) {
+                        if (questionFingerprints.add(fingerprint(q))) {
+                            questions.add(q);
+                            loadedQuestions++;
+                        } else {
+                            duplicates++;
+                        }
+                    }
+                    packs++;
                 }
+            } catch (IOException e) {
+                System.out.println(RED + "Could not read content packs from " + location + ": " + e.getMessage() + RESET);
             }
-        } catch (Exception e) {
-            // File doesn't exist yet
         }
-        
-        // Load questions
-        try (BufferedReader reader = new BufferedReader(new FileReader(CUSTOM_QUESTIONS_FILE))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split("\\|\\|\\|");
-                if (parts.length >= 8) {
-                    String[] options = {parts[2], parts[3], parts[4], parts[5]};
-                    String exp = parts[7].replace("\\n", "\n").replace("\\|\\|\\|", "|||");
-                    Question q = new Question(parts[0], parts[1], options, Integer.parseInt(parts[6]), exp);
-                    customQuestions.add(q);
-                    questions.add(q);
+
+        if (packs > 0) {
+            System.out.println(GREEN + "✓ Loaded " + loadedCards + " flashcards and " + loadedQuestions +
+                " questions from " + packs + " content pack(s)" +
+                (duplicates > 0 ? " (" + duplicates + " duplicates skipped)" : "") + RESET);
+        }
+    }
+
+    // ==================== HEADLESS DRIVER ====================
+
+    private static final String HEADLESS_USAGE =
+        "Usage: java StudyApp --headless [script] [--sessions N] [--warmup N] [--verbose]";
+    private static final String[] HEADLESS_OPERATIONS = {"flashcards", "quiz", "exam", "review"};
+
+    /** One mode entry point and the lines typed while in it */
+    private static class HeadlessStep {
+        final int operation; // Index into HEADLESS_OPERATIONS
+        final List<String> input = new ArrayList<>();
+
+        HeadlessStep(int operation) {
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Drive whole study sessions from a script at full speed and report throughput
+     * A script is the lines a user would type, split into steps by "@flashcards", "@quiz",
+     * "@exam" or "@review"; each step starts in that mode's menu and must end back out of it.
+     * Blank lines are Enter presses; lines starting with "#" are comments. Without a script a
+     * flashcards/quiz/exam session is generated. Pauses and screen clears are skipped, output is
+     * discarded (unless --verbose), and progress is neither loaded nor saved.
+     */
+    private static void runHeadless(String[] args) {
+        String scriptFile = null;
+        int sessions = 100;
+        int warmup = 10;
+        boolean verbose = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--sessions": sessions = Integer.parseInt(args[++i]); break;
+                    case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                    case "--verbose": verbose = true; break;
+                    default:
+                        if (args[i].startsWith("--") || scriptFile != null) throw new IllegalArgumentException(args[i]);
+                        scriptFile = args[i];
                 }
             }
-        } catch (Exception e) {
-            // File doesn't exist yet
+        } catch (RuntimeException e) {
+            System.err.println(HEADLESS_USAGE);
+            System.exit(1);
+        }
+
+        PrintStream report = System.out;
+        headless = true;
+        if (!verbose) System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        initializeContent();
+        fingerprintContent();
+        openCardTexts();
+        loadContentPacks();
+        rebuildProgressAggregates();
+
+        List<HeadlessStep> steps;
+        try {
+            steps = scriptFile != null ? readHeadlessScript(Paths.get(scriptFile)) : generatedSession();
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Cannot read script: " + e.getMessage());
+            System.exit(1);
+            return;
+        }
+
+        LatencyHistogram[] operationMicros = new LatencyHistogram[HEADLESS_OPERATIONS.length];
+        LatencyHistogram sessionMicros = new LatencyHistogram();
+        for (int i = 0; i < operationMicros.length; i++) operationMicros[i] = new LatencyHistogram();
+
+        for (int i = 0; i < warmup; i++) runHeadlessSession(steps, null, null);
+        long started = System.nanoTime();
+        for (int i = 0; i < sessions; i++) runHeadlessSession(steps, operationMicros, sessionMicros);
+        long elapsed = System.nanoTime() - started;
+
+        double seconds = elapsed / 1e9;
+        report.printf("Headless: %d sessions (+%d warmup) in %.2fs, %.1f sessions/s%n",
+            sessions, warmup, seconds, sessions / Math.max(seconds, 1e-9));
+        report.printf("  %-12s %7s %10s %10s %10s %10s%n", "operation", "runs", "p50", "p90", "p99", "max");
+        for (int i = 0; i < operationMicros.length; i++) {
+            if (operationMicros[i].count() > 0) printHeadlessLatency(report, HEADLESS_OPERATIONS[i], operationMicros[i]);
         }
+        printHeadlessLatency(report, "session", sessionMicros);
+        report.flush();
     }
-    
+
+    /**
+     * Run every step once, timing each into the histograms (null while warming up)
+     */
+    private static void runHeadlessSession(List<HeadlessStep> steps, LatencyHistogram[] operationMicros,
+                                           LatencyHistogram sessionMicros) {
+        long sessionStart = System.nanoTime();
+        for (HeadlessStep step : steps) {
+            console = InputReactor.scripted(step.input);
+            String name = HEADLESS_OPERATIONS[step.operation];
+            long start = System.nanoTime();
+            try {
+                switch (step.operation) {
+                    case 0: flashcardMode(); break;
+                    case 1: quizMode(); break;
+                    case 2: examSimulation(); break;
+                    default: quickReview(); break;
+                }
+            } catch (NoSuchElementException e) {
+                System.err.println("Script step @" + name + " ran out of input before leaving the mode");
+                System.exit(1);
+            }
+            long micros = (System.nanoTime() - start) / 1000;
+            if (console.pendingLines() > 0) {
+                System.err.println("Script step @" + name + " left " + console.pendingLines() + " line(s) unread");
+                System.exit(1);
+            }
+            if (operationMicros != null) operationMicros[step.operation].record(micros);
+        }
+        if (sessionMicros != null) sessionMicros.record((System.nanoTime() - sessionStart) / 1000);
+    }
+
+    private static List<HeadlessStep> readHeadlessScript(Path path) throws IOException {
+        List<HeadlessStep> steps = new ArrayList<>();
+        HeadlessStep step = null;
+        for (String line : Files.readAllLines(path)) {
+            if (line.startsWith("#")) continue;
+            if (line.startsWith("@")) {
+                int operation = Arrays.asList(HEADLESS_OPERATIONS).indexOf(line.substring(1).trim());
+                if (operation < 0) throw new IllegalArgumentException("unknown step " + line);
+                step = new HeadlessStep(operation);
+                steps.add(step);
+            } else if (step != null) {
+                step.input.add(line);
+            } else if (!line.isBlank()) {
+                throw new IllegalArgumentException("input before the first @step: " + line);
+            }
+        }
+        if (steps.isEmpty()) throw new IllegalArgumentException("no steps in " + path);
+        return steps;
+    }
+
+    /**
+     * A typical sitting: 20 mixed flashcards, a 10-question quiz and a short exam
+     */
+    private static List<HeadlessStep> generatedSession() {
+        HeadlessStep cards = new HeadlessStep(0);
+        int cardCount = Math.min(20, flashcards.size());
+        cards.input.add("4");
+        for (int i = 0; i < cardCount; i++) {
+            cards.input.add("");
+            cards.input.add(i % 3 == 2 ? "n" : "y");
+        }
+        if (cardCount < flashcards.size()) cards.input.add("q");
+        if (cardCount > 0) cards.input.add("");
+        cards.input.add("0");
+
+        HeadlessStep quiz = new HeadlessStep(1);
+        int quizCount = Math.max(1, Math.min(10, questions.size()));
+        quiz.input.add("4");
+        quiz.input.add(String.valueOf(quizCount));
+        for (int i = 0; i < quizCount; i++) {
+            quiz.input.add(String.valueOf((char) ('A' + i % 4)));
+            quiz.input.add("");
+        }
+        quiz.input.add("");
+        quiz.input.add("0");
+
+        HeadlessStep exam = new HeadlessStep(2);
+        exam.input.add("1");
+        for (int i = 0; i < Math.min(10, questions.size()); i++) {
+            exam.input.add(String.valueOf((char) ('D' - i % 4)));
+        }
+        exam.input.add("y");
+        exam.input.add("");
+
+        return List.of(cards, quiz, exam);
+    }
+
+    private static void printHeadlessLatency(PrintStream report, String name, LatencyHistogram histogram) {
+        report.printf("  %-12s %7d %8.2fms %8.2fms %8.2fms %8.2fms%n", name, histogram.count(),
+            histogram.percentile(50) / 1000.0, histogram.percentile(90) / 1000.0,
+            histogram.percentile(99) / 1000.0, histogram.max() / 1000.0);
+    }
+
     // ==================== HELPER METHODS ====================
+
+    private static Path dataFile(String name) {
+        return Paths.get(System.getProperty(DATA_DIR_PROPERTY, "")).resolve(name);
+    }
+
+    /**
+     * Topic id of a subject/topic pair, interning it on first use
+     */
+    private static int topicId(int subjectId, String topic) {
+        int id = topics.intern(subjects.name(subjectId) + "-" + topic);
+        if (id >= topicNames.length) {
+            int capacity = topicNames.length * 2;
+            topicSubject = Arrays.copyOf(topicSubject, capacity);
+            topicNames = Arrays.copyOf(topicNames, capacity);
+            correctAnswers = Arrays.copyOf(correctAnswers, capacity);
+            totalAttempts = Arrays.copyOf(totalAttempts, capacity);
+        }
+        if (subjectId >= subjectAttempts.length) {
+            int capacity = Math.max(subjectAttempts.length * 2, subjectId + 1);
+            subjectCorrect = Arrays.copyOf(subjectCorrect, capacity);
+            subjectAttempts = Arrays.copyOf(subjectAttempts, capacity);
+            subjectTrendSum = Arrays.copyOf(subjectTrendSum, capacity);
+            subjectTrendCount = Arrays.copyOf(subjectTrendCount, capacity);
+            subjectScoreSum = Arrays.copyOf(subjectScoreSum, capacity);
+            subjectScoreCount = Arrays.copyOf(subjectScoreCount, capacity);
+            subjectRecent = Arrays.copyOf(subjectRecent, capacity * 3);
+        }
+        boolean retagged = topicNames[id] != null && topicSubject[id] != subjectId;
+        topicSubject[id] = subjectId; // Authoritative over the guess made by progressTopic
+        topicNames[id] = topic;
+        if (retagged) rebuildProgressAggregates();
+        return id;
+    }
+
+    /**
+     * Topic id the quiz results of a subject are counted under
+     */
+    private static int quizTopic(int subjectId) {
+        if (subjectId >= quizTopics.length) {
+            quizTopics = Arrays.copyOf(quizTopics, subjects.size());
+        }
+        if (quizTopics[subjectId] == 0) {
+            quizTopics[subjectId] = topicId(subjectId, "quiz") + 1;
+        }
+        return quizTopics[subjectId] - 1;
+    }
+
+    /**
+     * Topic id of a saved "subject-topic" key; unknown keys are split at the first '-'
+     */
+    private static int progressTopic(String key) {
+        int id = topics.find(key);
+        if (id >= 0) return id;
+        int dash = key.indexOf('-');
+        return topicId(subjects.intern(key.substring(0, dash)), key.substring(dash + 1));
+    }
     
     private static List<Flashcard> filterCards(String subject) {
         List<Flashcard> result = new ArrayList<>();
+        int subjectId = subjects.find(subject);
         for (Flashcard card : flashcards) {
-            if (card.subject.equals(subject)) {
+            if (card.subjectId == subjectId) {
                 result.add(card);
             }
         }
@@ -8319,8 +8912,9 @@ public class StudyApp {
     
     private static List<Question> filterQuestions(String subject) {
         List<Question> result = new ArrayList<>();
+        int subjectId = subjects.find(subject);
         for (Question q : questions) {
-            if (q.subject.equals(subject)) {
+            if (q.subjectId == subjectId) {
                 result.add(q);
             }
         }
@@ -8329,8 +8923,9 @@ public class StudyApp {
     
     private static int countCards(String subject) {
         int count = 0;
+        int subjectId = subjects.find(subject);
         for (Flashcard card : flashcards) {
-            if (card.subject.equals(subject)) count++;
+            if (card.subjectId == subjectId) count++;
         }
         return count;
     }
@@ -8344,17 +8939,27 @@ public class StudyApp {
         }
     }
     
-    private static void updateProgress(String key, boolean correct) {
-        correctAnswers.put(key, correctAnswers.getOrDefault(key, 0) + (correct ? 1 : 0));
-        totalAttempts.put(key, totalAttempts.getOrDefault(key, 0) + 1);
+    private static void updateProgress(int topic, boolean correct) {
+        String key = topics.name(topic);
+        int subject = topicSubject[topic];
+        if (correct) {
+            correctAnswers[topic]++;
+            subjectCorrect[subject]++;
+            allCorrect++;
+        }
+        totalAttempts[topic]++;
+        subjectAttempts[subject]++;
+        allAttempts++;
+        updateWeakTopic(topic);
+        recordDaily(topic, today(), correct ? 1 : 0, 1);
 
         // Update enhanced tracking
-        int currentCorrect = correctAnswers.get(key);
-        int currentTotal = totalAttempts.get(key);
+        int currentCorrect = correctAnswers[topic];
+        int currentTotal = totalAttempts[topic];
         int percentage = (currentCorrect * 100) / currentTotal;
 
         // Add to performance history
-        performanceHistory.computeIfAbsent(key, k -> new ArrayList<>()).add(percentage);
+        recordScore(topic, percentage);
 
         // Update last study time
         long now = System.currentTimeMillis();
@@ -8370,32 +8975,297 @@ public class StudyApp {
         }
     }
     
+    // ========== Progress aggregates ==========
+
+    private static void updateWeakTopic(int topic) {
+        int total = totalAttempts[topic];
+        int pct = total > 0 ? correctAnswers[topic] * 100 / total : 0;
+        if (total >= 3 && pct < 60) {
+            weakTopics.put(topic, pct);
+        } else {
+            weakTopics.remove(topic);
+        }
+    }
+
+    /**
+     * Append a score to a topic's history and fold it into its subject's trend figures
+     */
+    private static void recordScore(int topic, int score) {
+        List<Integer> history = performanceHistory.computeIfAbsent(topics.name(topic), k -> new ArrayList<>());
+        int subject = topicSubject[topic];
+
+        // Swap the topic's last-5 window in the subject trend for the one including this score
+        if (history.size() >= 2) {
+            subjectTrendSum[subject] -= windowSum(history);
+            subjectTrendCount[subject] -= Math.min(5, history.size());
+        }
+        history.add(score);
+        if (history.size() >= 2) {
+            subjectTrendSum[subject] += windowSum(history);
+            subjectTrendCount[subject] += Math.min(5, history.size());
+        }
+
+        subjectRecent[subject * 3 + subjectScoreCount[subject] % 3] = score;
+        subjectScoreSum[subject] += score;
+        subjectScoreCount[subject]++;
+    }
+
+    private static void recordDaily(int topic, int day, int correct, int attempts) {
+        topicDaily.add(topic, day, correct, attempts);
+        subjectDaily.add(topicSubject[topic], day, correct, attempts);
+        allDaily.add(0, day, correct, attempts);
+    }
+
+    private static int today() {
+        return (int) LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Accuracy of a node over the last RECENT_DAYS days, "-" without answers
+     */
+    private static String recentAccuracy(DailyCounts counts, int node) {
+        int to = today();
+        int from = to - RECENT_DAYS + 1;
+        int attempts = counts.attempts(node, from, to);
+        if (attempts == 0) return "-";
+        int correct = counts.correct(node, from, to);
+        return (correct * 100 / attempts) + "% (" + correct + "/" + attempts + ")";
+    }
+
+    private static void recordReview(long fingerprint, int topic, boolean correct, long responseNanos, int mode) {
+        int millis = (int) Math.min(Integer.MAX_VALUE, responseNanos / 1_000_000);
+        reviewEvents.add(System.currentTimeMillis(), fingerprint, topic, correct, millis, mode);
+        recordLatency(topic, responseNanos / 1000);
+    }
+
+    private static void recordLatency(int topic, long micros) {
+        if (topic >= topicLatency.length) {
+            topicLatency = Arrays.copyOf(topicLatency, Math.max(topicLatency.length * 2, topic + 1));
+        }
+        int subject = topicSubject[topic];
+        if (subject >= subjectLatency.length) {
+            subjectLatency = Arrays.copyOf(subjectLatency, Math.max(subjectLatency.length * 2, subject + 1));
+        }
+        if (topicLatency[topic] == null) topicLatency[topic] = new LatencyHistogram();
+        if (subjectLatency[subject] == null) subjectLatency[subject] = new LatencyHistogram();
+        topicLatency[topic].record(micros);
+        subjectLatency[subject].record(micros);
+    }
+
+    private static String formatMicros(long micros) {
+        if (micros < 1_000_000) return (micros / 1000) + "ms";
+        return String.format("%.1fs", micros / 1_000_000.0);
+    }
+
+    private static String latencySummary(LatencyHistogram histogram) {
+        return "p50 " + formatMicros(histogram.percentile(50))
+            + "  p90 " + formatMicros(histogram.percentile(90))
+            + "  p99 " + formatMicros(histogram.percentile(99));
+    }
+
+    /**
+     * Recall-speed percentiles per subject, and the topics slowest at p90
+     */
+    private static void printResponseTimes() {
+        if (reviewEvents.size() == 0) return;
+
+        System.out.println("\n  " + BOLD + "Response Times:" + RESET);
+        System.out.println("  ─────────────────────────────────────────");
+        for (int subject = 0; subject < Math.min(subjects.size(), subjectLatency.length); subject++) {
+            LatencyHistogram histogram = subjectLatency[subject];
+            if (histogram == null) continue;
+            String name = subjects.name(subject);
+            System.out.printf("  %s%-8s%s %s  (%d answers)\n",
+                getSubjectColor(name), name, RESET, latencySummary(histogram), histogram.count());
+        }
+
+        // Packed (p90, topic id), slowest last
+        long[] slow = new long[Math.min(topics.size(), topicLatency.length)];
+        int count = 0;
+        for (int topic = 0; topic < slow.length; topic++) {
+            LatencyHistogram histogram = topicLatency[topic];
+            if (histogram != null && histogram.count() >= 3) {
+                slow[count++] = Math.min(histogram.percentile(90), Integer.MAX_VALUE) << 32 | topic;
+            }
+        }
+        if (count == 0) return;
+        Arrays.sort(slow, 0, count);
+        System.out.println("\n  Slowest topics (p90):");
+        for (int i = count - 1; i >= Math.max(0, count - 3); i--) {
+            int topic = (int) slow[i];
+            System.out.println("  • " + topics.name(topic) + ": " + latencySummary(topicLatency[topic]));
+        }
+    }
+
+    /**
+     * Hour-of-day accuracy heatmap and per-mode breakdown from the review events
+     */
+    private static void printReviewAnalytics() {
+        if (reviewEvents.size() == 0) return;
+
+        ReviewEvents.Groups byHour = reviewEvents.query().groupByHourOfDay(OffsetDateTime.now().getOffset());
+        System.out.println("\n  " + BOLD + "Accuracy by Hour of Day:" + RESET);
+        System.out.println("  ─────────────────────────────────────────");
+        StringBuilder hours = new StringBuilder("  ");
+        StringBuilder cells = new StringBuilder("  ");
+        for (int hour = 0; hour < 24; hour++) {
+            if (hour % 3 == 0) hours.append(String.format("%-6d", hour));
+            int pct = byHour.accuracy(hour);
+            if (pct < 0) cells.append("· ");
+            else cells.append(pct >= 80 ? GREEN : pct >= 60 ? YELLOW : RED).append("█ ").append(RESET);
+        }
+        System.out.println(hours);
+        System.out.println(cells);
+        System.out.println("  " + GREEN + "█" + RESET + " 80%+  " + YELLOW + "█" + RESET + " 60%+  " + RED + "█" + RESET + " below  · no answers");
+
+        ReviewEvents.Groups byMode = reviewEvents.query().groupByMode(MODE_NAMES.length);
+        System.out.println("\n  " + BOLD + "By Study Mode:" + RESET);
+        System.out.println("  ─────────────────────────────────────────");
+        for (int mode = 0; mode < MODE_NAMES.length; mode++) {
+            if (byMode.count[mode] == 0) continue;
+            System.out.printf("  %-14s %5d answers  %3d%%  avg %.1fs\n",
+                MODE_NAMES[mode], byMode.count[mode], byMode.accuracy(mode), byMode.meanResponseMillis(mode) / 1000.0);
+        }
+    }
+
+    private static int windowSum(List<Integer> history) {
+        int sum = 0;
+        for (int i = Math.max(0, history.size() - 5); i < history.size(); i++) {
+            sum += history.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Recompute every aggregate from the per-topic counters and histories
+     */
+    private static void rebuildProgressAggregates() {
+        for (String key : new ArrayList<>(performanceHistory.keySet())) {
+            if (key.indexOf('-') > 0) progressTopic(key);
+        }
+        Arrays.fill(subjectCorrect, 0);
+        Arrays.fill(subjectAttempts, 0);
+        Arrays.fill(subjectTrendSum, 0);
+        Arrays.fill(subjectTrendCount, 0);
+        Arrays.fill(subjectScoreSum, 0);
+        Arrays.fill(subjectScoreCount, 0);
+        allCorrect = 0;
+        allAttempts = 0;
+        weakTopics.clear();
+        subjectDaily.clear();
+        allDaily.clear();
+        Arrays.fill(topicLatency, null);
+        Arrays.fill(subjectLatency, null);
+        for (int row = 0; row < reviewEvents.size(); row++) {
+            recordLatency(reviewEvents.topic(row), reviewEvents.responseMillis(row) * 1000L);
+        }
+
+        for (int topic = 0; topic < topics.size(); topic++) {
+            int subject = topicSubject[topic];
+            subjectCorrect[subject] += correctAnswers[topic];
+            subjectAttempts[subject] += totalAttempts[topic];
+            allCorrect += correctAnswers[topic];
+            allAttempts += totalAttempts[topic];
+            updateWeakTopic(topic);
+            topicDaily.forEachDay(topic, (day, correct, attempts) -> {
+                subjectDaily.add(subject, day, correct, attempts);
+                allDaily.add(0, day, correct, attempts);
+            });
+
+            List<Integer> history = performanceHistory.get(topics.name(topic));
+            if (history == null) continue;
+            if (history.size() >= 2) {
+                subjectTrendSum[subject] += windowSum(history);
+                subjectTrendCount[subject] += Math.min(5, history.size());
+            }
+            for (int score : history) {
+                subjectRecent[subject * 3 + subjectScoreCount[subject] % 3] = score;
+                subjectScoreSum[subject] += score;
+                subjectScoreCount[subject]++;
+            }
+        }
+    }
+
     private static String generateProgressBar(int percent, int width) {
-        int filled = (percent * width) / 100;
-        StringBuilder bar = new StringBuilder("[");
-        for (int i = 0; i < width; i++) {
-            if (i < filled) bar.append(GREEN + "█" + RESET);
-            else bar.append("░");
-        }
-        bar.append("]");
-        return bar.toString();
+        int filled = Math.max(0, Math.min(width, (percent * width) / 100));
+        if (width >= progressBars.length) return buildProgressBar(filled, width);
+        if (progressBars[width] == null) progressBars[width] = new String[width + 1];
+        String bar = progressBars[width][filled];
+        if (bar == null) {
+            bar = progressBars[width][filled] = buildProgressBar(filled, width);
+        }
+        return bar;
+    }
+
+    private static String buildProgressBar(int filled, int width) {
+        StringBuilder bar = new StringBuilder(width + 16).append('[');
+        if (filled > 0) {
+            bar.append(GREEN);
+            for (int i = 0; i < filled; i++) bar.append('█');
+            bar.append(RESET);
+        }
+        for (int i = filled; i < width; i++) bar.append('░');
+        return bar.append(']').toString();
     }
     
     private static void clearScreen() {
-        System.out.print("\033[H\033[2J");
-        System.out.flush();
+        if (headless) return;
+        if (screen != null) {
+            screen.clearScreen();
+        } else {
+            System.out.print("\033[H\033[2J");
+            System.out.flush();
+        }
     }
     
     private static void pause(int ms) {
+        if (headless) return;
+        System.out.flush();
         try { Thread.sleep(ms); } catch (Exception e) {}
     }
+
+    /**
+     * Route System.out through a FrameRenderer, keeping the console encoding
+     */
+    private static void installRenderer() {
+        String encoding = System.getProperty("stdout.encoding",
+            System.getProperty("sun.stdout.encoding", Charset.defaultCharset().name()));
+        boolean diff = Boolean.getBoolean(DIFF_REDRAW_PROPERTY);
+        int[] size = diff ? terminalSize() : new int[2];
+        screen = new FrameRenderer(new FileOutputStream(FileDescriptor.out), diff, size[0], size[1]);
+        System.setOut(screen.printStream(Charset.forName(encoding)));
+        Runtime.getRuntime().addShutdownHook(new Thread(System.out::flush));
+    }
+
+    /**
+     * {rows, columns} from LINES/COLUMNS or stty, {0, 0} if unknown
+     */
+    private static int[] terminalSize() {
+        try {
+            String lines = System.getenv("LINES");
+            String columns = System.getenv("COLUMNS");
+            if (lines != null && columns != null) {
+                return new int[]{Integer.parseInt(lines.trim()), Integer.parseInt(columns.trim())};
+            }
+            Process stty = new ProcessBuilder("sh", "-c", "stty size < /dev/tty").redirectErrorStream(true).start();
+            String[] parts = new String(stty.getInputStream().readAllBytes()).trim().split("\\s+");
+            if (stty.waitFor() == 0 && parts.length == 2) {
+                return new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+            }
+        } catch (Exception e) {
+            // Not a terminal; diff redraw stays off
+        }
+        return new int[2];
+    }
     
     private static void saveProgress() {
-        try (PrintWriter writer = new PrintWriter(new FileWriter("study_progress.dat"))) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(dataFile(PROGRESS_FILE).toFile()))) {
             // Save basic progress
             writer.println("### BASIC_PROGRESS ###");
-            for (String key : correctAnswers.keySet()) {
-                writer.println(key + "," + correctAnswers.get(key) + "," + totalAttempts.get(key));
+            for (int topic = 0; topic < topics.size(); topic++) {
+                if (totalAttempts[topic] > 0) {
+                    writer.println(topics.name(topic) + "," + correctAnswers[topic] + "," + totalAttempts[topic]);
+                }
             }
 
             // Save performance history
@@ -8411,6 +9281,14 @@ public class StudyApp {
                 writer.println(key + "," + lastStudyTime.get(key));
             }
 
+            // Save answers per day (epoch day), per topic
+            writer.println("### DAILY_PROGRESS ###");
+            for (int topic = 0; topic < topics.size(); topic++) {
+                String key = topics.name(topic);
+                topicDaily.forEachDay(topic, (day, correct, attempts) ->
+                    writer.println(key + "," + day + "," + correct + "," + attempts));
+            }
+
             // Save mastered cards
             writer.println("### MASTERED_CARDS ###");
             for (String card : masteredCards) {
@@ -8425,10 +9303,16 @@ public class StudyApp {
         } catch (Exception e) {
             // Silently fail
         }
+
+        try {
+            reviewEvents.appendSegment(dataFile(REVIEW_EVENTS_FILE), topics::name);
+        } catch (IOException e) {
+            // Silently fail, like the progress file
+        }
     }
 
     private static void loadProgress() {
-        try (BufferedReader reader = new BufferedReader(new FileReader("study_progress.dat"))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(dataFile(PROGRESS_FILE).toFile()))) {
             String line;
             String section = "";
 
@@ -8440,9 +9324,10 @@ public class StudyApp {
 
                 if (section.equals("### BASIC_PROGRESS ###")) {
                     String[] parts = line.split(",");
-                    if (parts.length == 3) {
-                        correctAnswers.put(parts[0], Integer.parseInt(parts[1]));
-                        totalAttempts.put(parts[0], Integer.parseInt(parts[2]));
+                    if (parts.length == 3 && parts[0].indexOf('-') > 0) {
+                        int topic = progressTopic(parts[0]);
+                        correctAnswers[topic] = Integer.parseInt(parts[1]);
+                        totalAttempts[topic] = Integer.parseInt(parts[2]);
                     }
                 } else if (section.equals("### PERFORMANCE_HISTORY ###")) {
                     String[] parts = line.split(",", 2);
@@ -8458,6 +9343,13 @@ public class StudyApp {
                     if (parts.length == 2) {
                         lastStudyTime.put(parts[0], Long.parseLong(parts[1]));
                     }
+                } else if (section.equals("### DAILY_PROGRESS ###")) {
+                    // Subject and overall counts are rolled up in rebuildProgressAggregates
+                    String[] parts = line.split(",");
+                    if (parts.length == 4 && parts[0].indexOf('-') > 0) {
+                        topicDaily.add(progressTopic(parts[0]), Integer.parseInt(parts[1]),
+                            Integer.parseInt(parts[2]), Integer.parseInt(parts[3]));
+                    }
                 } else if (section.equals("### MASTERED_CARDS ###")) {
                     masteredCards.add(line);
                 } else if (section.equals("### GLOBAL_STATS ###")) {
@@ -8474,6 +9366,12 @@ public class StudyApp {
         } catch (Exception e) {
             // File doesn't exist yet, start fresh
         }
+
+        try {
+            reviewEvents.load(dataFile(REVIEW_EVENTS_FILE), StudyApp::progressTopic);
+        } catch (IOException e) {
+            System.out.println(YELLOW + "  Could not read review history: " + e.getMessage() + RESET);
+        }
     }
     
     private static void printGoodbye() {
@@ -0,0 +1,176 @@
+package content;
+
+import content.FlashcardGenerator.Flashcard;
+import content.QuestionGenerator.Question;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Binary content pack (.sadc) holding generated flashcards and questions
+ * Replaces pasting generated Java source into StudyApp: packs are loaded at startup,
+ * so regenerated content needs no recompile.
+ *
+ * Layout (big-endian):
+ *   magic "SADC", u16 version, i32 flashcard count, i32 question count, then records
+ *   'F' subject topic front back u8 difficulty
+ *   'Q' subject question u8 optionCount options... u8 correctIndex explanation
+ * Every string is an i32 byte length followed by UTF-8 bytes. Questions have exactly four
+ * options; a pack with anything else is rejected as corrupt.
+ */
+public class ContentPack {
+
+    public static final String EXTENSION = ".sadc";
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'S', 'A', 'D', 'C'};
+    private static final byte FLASHCARD = 'F';
+    private static final byte QUESTION = 'Q';
+    private static final int OPTION_COUNT = 4; // The quiz, exam and editor assume A-D
+
+    /**
+     * Receives records while a pack is read
+     */
+    public interface Sink {
+        void flashcard(String subject, String topic, String front, String back, int difficulty);
+
+        void question(String subject, String question, String[] options, int correctIndex, String explanation);
+    }
+
+    /**
+     * Write flashcards and questions to a pack file
+     */
+    public static void write(Path path, List<Flashcard> flashcards, List<Question> questions) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.write(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(flashcards.size());
+            out.writeInt(questions.size());
+
+            for (Flashcard card : flashcards) {
+                out.writeByte(FLASHCARD);
+                writeString(out, card.subject);
+                writeString(out, card.topic);
+                writeString(out, card.front);
+                writeString(out, card.back);
+                out.writeByte(card.difficulty);
+            }
+
+            for (Question q : questions) {
+                if (q.options.length != OPTION_COUNT || q.correctIndex < 0 || q.correctIndex >= OPTION_COUNT) {
+                    throw new IOException("Question needs " + OPTION_COUNT + " options and a valid answer: " + q.question);
+                }
+                out.writeByte(QUESTION);
+                writeString(out, q.subject);
+                writeString(out, q.question);
+                out.writeByte(q.options.length);
+                for (String option : q.options) {
+                    writeString(out, option);
+                }
+                out.writeByte(q.correctIndex);
+                writeString(out, q.explanation);
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Read a pack file, passing each record to the sink
+     * Subjects and topics repeat across records, so each distinct value is decoded once and shared.
+     */
+    public static void read(Path path, Sink sink) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            in.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a content pack: " + path);
+            }
+            int version = in.getShort() & 0xFFFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported content pack version " + version + ": " + path);
+            }
+
+            int flashcardCount = in.getInt();
+            int questionCount = in.getInt();
+            Map<String, String> shared = new HashMap<>();
+
+            for (int i = 0; i < flashcardCount; i++) {
+                expect(in, FLASHCARD, path);
+                String subject = shared(readString(in), shared);
+                String topic = shared(readString(in), shared);
+                String front = readString(in);
+                String back = readString(in);
+                sink.flashcard(subject, topic, front, back, in.get());
+            }
+
+            for (int i = 0; i < questionCount; i++) {
+                expect(in, QUESTION, path);
+                String subject = shared(readString(in), shared);
+                String question = readString(in);
+                int optionCount = in.get() & 0xFF;
+                if (optionCount != OPTION_COUNT) {
+                    throw new IOException("Corrupt content pack (" + optionCount + " options): " + path);
+                }
+                String[] options = new String[optionCount];
+                for (int j = 0; j < options.length; j++) {
+                    options[j] = readString(in);
+                }
+                int correctIndex = in.get() & 0xFF;
+                if (correctIndex >= optionCount) {
+                    throw new IOException("Corrupt content pack (correct answer " + correctIndex + "): " + path);
+                }
+                sink.question(subject, question, options, correctIndex, readString(in));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated content pack: " + path, e);
+        }
+    }
+
+    /**
+     * Pack files in a directory (or the file itself), sorted by name
+     */
+    public static List<Path> find(Path location) throws IOException {
+        List<Path> packs = new ArrayList<>();
+        if (Files.isRegularFile(location)) {
+            packs.add(location);
+        } else if (Files.isDirectory(location)) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(location, "*" + EXTENSION)) {
+                for (Path file : dir) packs.add(file);
+            }
+            Collections.sort(packs);
+        }
+        return packs;
+    }
+
+    private static void expect(ByteBuffer in, byte tag, Path path) throws IOException {
+        byte actual = in.get();
+        if (actual != tag) {
+            throw new IOException("Corrupt content pack (unexpected record '" + (char) actual + "'): " + path);
+        }
+    }
+
+    private static String readString(ByteBuffer in) throws IOException {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            throw new IOException("Corrupt content pack (bad string length " + length + ")");
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static String shared(String value, Map<String, String> shared) {
+        String existing = shared.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+}
@@ -62,8 +62,13 @@ public class ContentProcessor {
         System.out.println("Processing content from: " + file.getName());
 
         String text = new String(Files.readAllBytes(file.toPath()));
-        String topic = inferTopicFromFilename(file.getName());
+        processText(text, inferTopicFromFilename(file.getName()), content);
+    }
 
+    /**
+     * Extract every kind of item from one file's text
+     */
+    void processText(String text, String topic, ProcessedContent content) {
         // Extract definitions
         Map<String, String> definitions = TextExtractor.extractDefinitions(text);
         for (Map.Entry<String, String> entry : definitions.entrySet()) {
@@ -127,7 +132,7 @@ public class ContentProcessor {
     /**
      * Extract conceptual content (explanatory paragraphs)
      */
-    private List<String> extractConcepts(String text) {
+    List<String> extractConcepts(String text) {
         List<String> concepts = new ArrayList<>();
         String[] paragraphs = text.split("\n\n+");
 
@@ -152,7 +157,7 @@ public class ContentProcessor {
     /**
      * Extract problem scenarios
      */
-    private List<String> extractProblems(String text) {
+    List<String> extractProblems(String text) {
         List<String> problems = new ArrayList<>();
         String[] lines = text.split("\n");
 
@@ -0,0 +1,219 @@
+package export;
+
+import content.FlashcardGenerator.Flashcard;
+
+/**
+ * Single-pass formatter for Anki note fields and tags
+ * Scans the card text once and writes HTML-escaped output into a reusable buffer,
+ * handling line breaks, bullet lists, code fences, inline code and **bold** on the way.
+ * Instances keep internal state and are not thread-safe.
+ */
+public class AnkiFieldFormatter {
+
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    /**
+     * Format text as an Anki field and return it as a String
+     */
+    public String format(String text) {
+        buffer.setLength(0);
+        appendField(buffer, text);
+        return buffer.toString();
+    }
+
+    /**
+     * Format tags for a card and return them as a String
+     */
+    public String tags(Flashcard card) {
+        buffer.setLength(0);
+        appendTags(buffer, card);
+        return buffer.toString();
+    }
+
+    /**
+     * Append the formatted field directly to an output buffer
+     */
+    public void appendField(StringBuilder out, String text) {
+        if (text == null) return;
+
+        // Equivalent of trim(): skip leading/trailing whitespace and control chars
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') start++;
+        while (end > start && text.charAt(end - 1) <= ' ') end--;
+
+        boolean inList = false;
+        boolean inCode = false;
+        boolean firstCodeLine = false;
+        boolean needBreak = false;
+
+        int lineStart = start;
+        while (lineStart <= end) {
+            int lineEnd = text.indexOf('\n', lineStart);
+            if (lineEnd < 0 || lineEnd > end) lineEnd = end;
+            int contentEnd = lineEnd;
+            if (contentEnd > lineStart && text.charAt(contentEnd - 1) == '\r') contentEnd--;
+
+            // Trimmed bounds of the line
+            int ts = lineStart;
+            int te = contentEnd;
+            while (ts < te && text.charAt(ts) <= ' ') ts++;
+            while (te > ts && text.charAt(te - 1) <= ' ') te--;
+
+            if (text.startsWith("```", ts)) {
+                if (!inCode) {
+                    if (inList) {
+                        out.append("</ul>");
+                        inList = false;
+                    }
+                    out.append("<pre><code>");
+                    inCode = true;
+                    firstCodeLine = true;
+                } else {
+                    out.append("</code></pre>");
+                    inCode = false;
+                    needBreak = false;
+                }
+            } else if (inCode) {
+                if (!firstCodeLine) out.append("<br>");
+                appendEscaped(out, text, lineStart, contentEnd);
+                firstCodeLine = false;
+            } else if (te - ts >= 2 && text.charAt(ts) == '•' && text.charAt(ts + 1) == ' ') {
+                if (!inList) {
+                    out.append("<ul>");
+                    inList = true;
+                }
+                out.append("<li>");
+                appendInline(out, text, ts + 2, te);
+                out.append("</li>");
+                needBreak = false;
+            } else {
+                if (inList) {
+                    out.append("</ul>");
+                    inList = false;
+                }
+                if (needBreak) out.append("<br>");
+                appendInline(out, text, lineStart, contentEnd);
+                needBreak = true;
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        if (inList) out.append("</ul>");
+        if (inCode) out.append("</code></pre>");
+    }
+
+    /**
+     * Append hierarchical tags for a card: Subject::Topic::Type Difficulty::Level
+     */
+    public void appendTags(StringBuilder out, Flashcard card) {
+        out.append(card.subject).append("::");
+
+        String topic = card.topic;
+        for (int i = 0; i < topic.length(); i++) {
+            char c = topic.charAt(i);
+            if (c == ' ') out.append('_');
+            else if (c == '/') out.append('-');
+            else if (c == '&') out.append("and");
+            else out.append(c);
+        }
+
+        out.append("::").append(cardType(card.front));
+
+        out.append(" Difficulty::");
+        if (card.difficulty == 1) out.append("Easy");
+        else if (card.difficulty == 2) out.append("Medium");
+        else out.append("Hard");
+    }
+
+    /**
+     * Determine card type from the front text without lower-casing a copy of it
+     */
+    static String cardType(String front) {
+        if (front.regionMatches(true, 0, "what is ", 0, 8)) {
+            return "Definition";
+        } else if (front.regionMatches(true, 0, "how does ", 0, 9) ||
+                   front.regionMatches(true, 0, "explain ", 0, 8)) {
+            return "Concept";
+        } else if (containsIgnoreCase(front, "command") || containsIgnoreCase(front, "code")) {
+            return "Code";
+        } else if (containsIgnoreCase(front, "problem") || containsIgnoreCase(front, "scenario")) {
+            return "Problem";
+        }
+        return "General";
+    }
+
+    private static boolean containsIgnoreCase(String text, String lowerNeedle) {
+        int max = text.length() - lowerNeedle.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, lowerNeedle, 0, lowerNeedle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append a line with inline `code` and **bold** markup converted to HTML
+     */
+    private void appendInline(StringBuilder out, String text, int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = text.charAt(i);
+
+            if (c == '`') {
+                int close = text.indexOf('`', i + 1);
+                if (close > i + 1 && close < to) {
+                    out.append("<code>");
+                    appendEscaped(out, text, i + 1, close);
+                    out.append("</code>");
+                    i = close + 1;
+                    continue;
+                }
+            } else if (c == '*' && i + 1 < to && text.charAt(i + 1) == '*') {
+                int close = findBoldEnd(text, i + 2, to);
+                if (close > 0) {
+                    out.append("<b>");
+                    appendEscaped(out, text, i + 2, close);
+                    out.append("</b>");
+                    i = close + 2;
+                    continue;
+                }
+            }
+
+            appendEscapedChar(out, c);
+            i++;
+        }
+    }
+
+    /**
+     * Find the closing ** of a bold span; the span may not contain '*'
+     */
+    private static int findBoldEnd(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == '*') {
+                return (i > from && i + 1 < to && text.charAt(i + 1) == '*') ? i : -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void appendEscaped(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            appendEscapedChar(out, text.charAt(i));
+        }
+    }
+
+    private static void appendEscapedChar(StringBuilder out, char c) {
+        switch (c) {
+            case '&': out.append("&amp;"); break;
+            case '<': out.append("&lt;"); break;
+            case '>': out.append("&gt;"); break;
+            case '"': out.append("&quot;"); break;
+            case '\t': out.append("    "); break; // Tabs would break the format
+            case '\r': break;
+            default: out.append(c);
+        }
+    }
+}
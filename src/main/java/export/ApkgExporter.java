@@ -0,0 +1,484 @@
+package export;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import content.FlashcardGenerator.Flashcard;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Export flashcards as a native Anki package (.apkg)
+ * An .apkg is a zip containing an SQLite collection (collection.anki2) and a media map.
+ * Cards are streamed into the collection in batched transactions, and one Anki deck is
+ * created per Subject::Topic so the deck structure survives the import.
+ */
+public class ApkgExporter {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int COMMIT_INTERVAL = 10_000;
+    private static final long DEFAULT_DECK_ID = 1;
+
+    private final AnkiFieldFormatter formatter = new AnkiFieldFormatter();
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    /**
+     * Export flashcards to an .apkg file
+     */
+    public void exportToApkg(Iterable<Flashcard> flashcards, String outputPath) throws IOException {
+        Path collection = Files.createTempFile("studyapp-collection-", ".anki2");
+
+        try {
+            int count = writeCollection(flashcards.iterator(), collection);
+            writePackage(collection, Paths.get(outputPath));
+
+            System.out.println("✓ Anki package created: " + outputPath);
+            System.out.println("  Total flashcards: " + count);
+        } catch (SQLException e) {
+            throw new IOException("Failed to build Anki collection: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(collection);
+        }
+    }
+
+    /**
+     * Read a package back and check what Anki relies on when importing it, offline
+     * The zip holds the collection and media map, every note has a unique GUID and two fields,
+     * sfld/csum match the stripped first field, and every card points at its note, a known
+     * model and a deck in the collection. Returns the number of notes; throws on the first problem.
+     */
+    public int verifyApkg(String apkgPath) throws IOException {
+        Path collection = Files.createTempFile("studyapp-verify-", ".anki2");
+        try {
+            try (ZipFile zip = new ZipFile(apkgPath)) {
+                ZipEntry entry = zip.getEntry("collection.anki2");
+                if (entry == null || zip.getEntry("media") == null) {
+                    throw new IOException("Package lacks collection.anki2 or media: " + apkgPath);
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    Files.copy(in, collection, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            return verifyCollection(collection);
+        } catch (SQLException e) {
+            throw new IOException("Unreadable Anki collection: " + e.getMessage(), e);
+        } finally {
+            Files.deleteIfExists(collection);
+        }
+    }
+
+    private int verifyCollection(Path collection) throws SQLException, IOException {
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + collection.toAbsolutePath());
+             Statement stmt = conn.createStatement()) {
+            Set<String> models;
+            Set<String> decks;
+            try (ResultSet col = stmt.executeQuery("SELECT ver, models, decks FROM col")) {
+                if (!col.next()) throw new IOException("Collection has no col row");
+                if (col.getInt(1) != 11) throw new IOException("Unexpected schema version " + col.getInt(1));
+                models = jsonKeys(col.getString(2));
+                decks = jsonKeys(col.getString(3));
+            }
+
+            int notes = 0;
+            Set<String> guids = new HashSet<>();
+            try (ResultSet note = stmt.executeQuery("SELECT id, guid, mid, flds, sfld, csum FROM notes")) {
+                while (note.next()) {
+                    long id = note.getLong(1);
+                    String[] fields = note.getString(4).split("\u001f", -1);
+                    String sortField = stripHtml(fields[0], 0, fields[0].length());
+                    if (!guids.add(note.getString(2))) throw new IOException("Duplicate GUID on note " + id);
+                    if (!models.contains(String.valueOf(note.getLong(3)))) throw new IOException("Unknown model on note " + id);
+                    if (fields.length != 2) throw new IOException("Note " + id + " has " + fields.length + " fields");
+                    if (!sortField.equals(note.getString(5)) || checksum(sortField) != note.getLong(6)) {
+                        throw new IOException("Sort field or checksum mismatch on note " + id);
+                    }
+                    notes++;
+                }
+            }
+
+            int cards = 0;
+            try (ResultSet card = stmt.executeQuery(
+                     "SELECT c.id, c.did, n.id FROM cards c LEFT JOIN notes n ON n.id = c.nid")) {
+                while (card.next()) {
+                    if (card.getObject(3) == null) throw new IOException("Card " + card.getLong(1) + " has no note");
+                    if (!decks.contains(String.valueOf(card.getLong(2)))) {
+                        throw new IOException("Card " + card.getLong(1) + " is in unknown deck " + card.getLong(2));
+                    }
+                    cards++;
+                }
+            }
+            if (cards != notes) throw new IOException(cards + " cards for " + notes + " notes");
+            return notes;
+        }
+    }
+
+    private Set<String> jsonKeys(String json) {
+        Map<?, ?> map = gson.fromJson(json, Map.class);
+        Set<String> keys = new HashSet<>();
+        if (map != null) {
+            for (Object key : map.keySet()) keys.add(key.toString());
+        }
+        return keys;
+    }
+
+    /**
+     * Stream all cards into a fresh SQLite collection
+     */
+    private int writeCollection(Iterator<Flashcard> cards, Path collection) throws SQLException {
+        long now = System.currentTimeMillis();
+        long modelId = now;
+        long idBase = now * 1000; // Note/card ids are millisecond timestamps in Anki; keep them unique
+
+        Map<String, Long> deckIds = new LinkedHashMap<>();
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + collection.toAbsolutePath())) {
+            try (Statement stmt = conn.createStatement()) {
+                // Scratch file: durability is not needed until the package is zipped
+                stmt.execute("PRAGMA journal_mode=OFF");
+                stmt.execute("PRAGMA synchronous=OFF");
+                createSchema(stmt);
+            }
+
+            conn.setAutoCommit(false);
+
+            int count = 0;
+            try (PreparedStatement noteInsert = conn.prepareStatement(
+                     "INSERT INTO notes VALUES (?, ?, ?, ?, -1, ?, ?, ?, ?, 0, '')");
+                 PreparedStatement cardInsert = conn.prepareStatement(
+                     "INSERT INTO cards VALUES (?, ?, ?, 0, ?, -1, 0, 0, ?, 0, 0, 0, 0, 0, 0, 0, 0, '')")) {
+
+                StringBuilder fields = new StringBuilder(512);
+                StringBuilder tags = new StringBuilder(128);
+                long modSeconds = now / 1000;
+
+                while (cards.hasNext()) {
+                    Flashcard card = cards.next();
+                    long noteId = idBase + count;
+                    long deckId = deckIds.computeIfAbsent(card.subject + "::" + card.topic,
+                        name -> idBase - 1 - deckIds.size());
+
+                    fields.setLength(0);
+                    formatter.appendField(fields, card.front);
+                    String sortField = stripHtml(fields, 0, fields.length());
+                    fields.append('\u001f');
+                    formatter.appendField(fields, card.back);
+
+                    tags.setLength(0);
+                    tags.append(' ');
+                    formatter.appendTags(tags, card);
+                    tags.append(' ');
+
+                    noteInsert.setLong(1, noteId);
+                    noteInsert.setString(2, guid(card));
+                    noteInsert.setLong(3, modelId);
+                    noteInsert.setLong(4, modSeconds);
+                    noteInsert.setString(5, tags.toString());
+                    noteInsert.setString(6, fields.toString());
+                    noteInsert.setString(7, sortField);
+                    noteInsert.setLong(8, checksum(sortField));
+                    noteInsert.addBatch();
+
+                    cardInsert.setLong(1, noteId);
+                    cardInsert.setLong(2, noteId);
+                    cardInsert.setLong(3, deckId);
+                    cardInsert.setLong(4, modSeconds);
+                    cardInsert.setLong(5, count + 1); // New-card queue position
+                    cardInsert.addBatch();
+
+                    count++;
+                    if (count % BATCH_SIZE == 0) {
+                        noteInsert.executeBatch();
+                        cardInsert.executeBatch();
+                    }
+                    if (count % COMMIT_INTERVAL == 0) {
+                        conn.commit();
+                    }
+                }
+
+                noteInsert.executeBatch();
+                cardInsert.executeBatch();
+            }
+
+            // Collection row last: decks are only known once all cards were seen
+            try (PreparedStatement colInsert = conn.prepareStatement(
+                     "INSERT INTO col VALUES (1, ?, ?, ?, 11, 0, 0, 0, ?, ?, ?, ?, '{}')")) {
+                colInsert.setLong(1, now / 1000 / 86400 * 86400);
+                colInsert.setLong(2, now);
+                colInsert.setLong(3, now);
+                colInsert.setString(4, gson.toJson(buildConf(modelId, count)));
+                colInsert.setString(5, gson.toJson(buildModels(modelId, now)));
+                colInsert.setString(6, gson.toJson(buildDecks(deckIds, now)));
+                colInsert.setString(7, gson.toJson(buildDeckConf()));
+                colInsert.executeUpdate();
+            }
+
+            conn.commit();
+            return count;
+        }
+    }
+
+    /**
+     * Create the Anki collection schema (version 11)
+     */
+    private void createSchema(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE col (id integer primary key, crt integer not null, mod integer not null, " +
+            "scm integer not null, ver integer not null, dty integer not null, usn integer not null, " +
+            "ls integer not null, conf text not null, models text not null, decks text not null, " +
+            "dconf text not null, tags text not null)");
+        stmt.execute("CREATE TABLE notes (id integer primary key, guid text not null, mid integer not null, " +
+            "mod integer not null, usn integer not null, tags text not null, flds text not null, " +
+            "sfld integer not null, csum integer not null, flags integer not null, data text not null)");
+        stmt.execute("CREATE TABLE cards (id integer primary key, nid integer not null, did integer not null, " +
+            "ord integer not null, mod integer not null, usn integer not null, type integer not null, " +
+            "queue integer not null, due integer not null, ivl integer not null, factor integer not null, " +
+            "reps integer not null, lapses integer not null, left integer not null, odue integer not null, " +
+            "odid integer not null, flags integer not null, data text not null)");
+        stmt.execute("CREATE TABLE revlog (id integer primary key, cid integer not null, usn integer not null, " +
+            "ease integer not null, ivl integer not null, lastIvl integer not null, factor integer not null, " +
+            "time integer not null, type integer not null)");
+        stmt.execute("CREATE TABLE graves (usn integer not null, oid integer not null, type integer not null)");
+        stmt.execute("CREATE INDEX ix_notes_usn ON notes (usn)");
+        stmt.execute("CREATE INDEX ix_cards_usn ON cards (usn)");
+        stmt.execute("CREATE INDEX ix_revlog_usn ON revlog (usn)");
+        stmt.execute("CREATE INDEX ix_cards_nid ON cards (nid)");
+        stmt.execute("CREATE INDEX ix_cards_sched ON cards (did, queue, due)");
+        stmt.execute("CREATE INDEX ix_revlog_cid ON revlog (cid)");
+        stmt.execute("CREATE INDEX ix_notes_csum ON notes (csum)");
+    }
+
+    /**
+     * Zip the collection and an empty media map into the .apkg
+     */
+    private void writePackage(Path collection, Path outputPath) throws IOException {
+        try (ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(outputPath)))) {
+            zip.putNextEntry(new ZipEntry("collection.anki2"));
+            Files.copy(collection, zip);
+            zip.closeEntry();
+
+            zip.putNextEntry(new ZipEntry("media"));
+            zip.write("{}".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    /**
+     * Stable note GUID so re-importing the same card updates it instead of duplicating it
+     * Every identifying field goes in; cards that share a question but differ in topic or
+     * answer must not collide, or Anki merges them on import.
+     */
+    private String guid(Flashcard card) {
+        byte[] hash = sha1(card.subject + "\u001f" + card.topic + "\u001f" + card.front + "\u001f" + card.back);
+        return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 8));
+    }
+
+    /**
+     * Anki duplicate checksum: first 8 hex digits of the SHA-1 of the sort field
+     */
+    private long checksum(String sortField) {
+        byte[] hash = sha1(sortField);
+        return ((hash[0] & 0xFFL) << 24) | ((hash[1] & 0xFFL) << 16) | ((hash[2] & 0xFFL) << 8) | (hash[3] & 0xFFL);
+    }
+
+    /**
+     * The sort field as Anki derives it from a formatted field: tags removed, entities decoded
+     */
+    static String stripHtml(CharSequence html, int from, int to) {
+        StringBuilder text = new StringBuilder(to - from);
+        for (int i = from; i < to; i++) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                while (i < to && html.charAt(i) != '>') i++;
+            } else if (c == '&') {
+                int semicolon = i + 1;
+                while (semicolon < to && semicolon - i <= 6 && html.charAt(semicolon) != ';') semicolon++;
+                String entity = semicolon < to ? html.subSequence(i + 1, semicolon).toString() : "";
+                char decoded = entity.equals("amp") ? '&' : entity.equals("lt") ? '<' : entity.equals("gt") ? '>'
+                    : entity.equals("quot") ? '"' : entity.equals("nbsp") ? ' ' : 0;
+                if (decoded != 0) {
+                    text.append(decoded);
+                    i = semicolon;
+                } else {
+                    text.append(c);
+                }
+            } else {
+                text.append(c);
+            }
+        }
+        return text.toString();
+    }
+
+    private static byte[] sha1(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-1").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    // ========== Collection JSON ==========
+
+    private Map<String, Object> buildConf(long modelId, int cardCount) {
+        Map<String, Object> conf = new LinkedHashMap<>();
+        conf.put("nextPos", cardCount + 1);
+        conf.put("estTimes", true);
+        conf.put("activeDecks", List.of(DEFAULT_DECK_ID));
+        conf.put("sortType", "noteFld");
+        conf.put("timeLim", 0);
+        conf.put("sortBackwards", false);
+        conf.put("addToCur", true);
+        conf.put("curDeck", DEFAULT_DECK_ID);
+        conf.put("newSpread", 0);
+        conf.put("dueCounts", true);
+        conf.put("curModel", String.valueOf(modelId));
+        conf.put("collapseTime", 1200);
+        return conf;
+    }
+
+    private Map<String, Object> buildModels(long modelId, long now) {
+        Map<String, Object> template = new LinkedHashMap<>();
+        template.put("name", "Card 1");
+        template.put("ord", 0);
+        template.put("qfmt", "{{Front}}");
+        template.put("afmt", "{{FrontSide}}\n\n<hr id=answer>\n\n{{Back}}");
+        template.put("did", null);
+        template.put("bqfmt", "");
+        template.put("bafmt", "");
+
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("id", modelId);
+        model.put("name", "StudyApp Basic");
+        model.put("type", 0);
+        model.put("mod", now / 1000);
+        model.put("usn", -1);
+        model.put("sortf", 0);
+        model.put("did", DEFAULT_DECK_ID);
+        model.put("tmpls", List.of(template));
+        model.put("flds", List.of(buildField("Front", 0), buildField("Back", 1)));
+        model.put("css", ".card { font-family: arial; font-size: 20px; text-align: left; color: black; background-color: white; }\n" +
+                         "pre { background: #2c3e50; color: #ecf0f1; padding: 0.5em; }");
+        model.put("latexPre", "\\documentclass[12pt]{article}\n\\special{papersize=3in,5in}\n" +
+                              "\\usepackage[utf8]{inputenc}\n\\usepackage{amssymb,amsmath}\n" +
+                              "\\pagestyle{empty}\n\\setlength{\\parindent}{0in}\n\\begin{document}\n");
+        model.put("latexPost", "\\end{document}");
+        model.put("tags", List.of());
+        model.put("vers", List.of());
+        model.put("req", List.of(List.of(0, "any", List.of(0))));
+
+        Map<String, Object> models = new LinkedHashMap<>();
+        models.put(String.valueOf(modelId), model);
+        return models;
+    }
+
+    private Map<String, Object> buildField(String name, int ord) {
+        Map<String, Object> field = new LinkedHashMap<>();
+        field.put("name", name);
+        field.put("ord", ord);
+        field.put("sticky", false);
+        field.put("rtl", false);
+        field.put("font", "Arial");
+        field.put("size", 20);
+        field.put("media", List.of());
+        return field;
+    }
+
+    /**
+     * Build deck JSON including parent decks (BSYS for BSYS::Memory Management)
+     */
+    private Map<String, Object> buildDecks(Map<String, Long> deckIds, long now) {
+        Map<String, Object> decks = new LinkedHashMap<>();
+        decks.put(String.valueOf(DEFAULT_DECK_ID), buildDeck(DEFAULT_DECK_ID, "Default", now));
+
+        Set<String> names = new LinkedHashSet<>();
+        for (Map.Entry<String, Long> entry : deckIds.entrySet()) {
+            decks.put(String.valueOf(entry.getValue()), buildDeck(entry.getValue(), entry.getKey(), now));
+            names.add(entry.getKey());
+        }
+
+        long nextId = deckIds.isEmpty() ? now : Collections.min(deckIds.values()) - 1;
+        for (String name : deckIds.keySet()) {
+            String parent = name;
+            int sep = parent.lastIndexOf("::");
+            while (sep > 0) {
+                parent = parent.substring(0, sep);
+                if (names.add(parent)) {
+                    decks.put(String.valueOf(nextId), buildDeck(nextId, parent, now));
+                    nextId--;
+                }
+                sep = parent.lastIndexOf("::");
+            }
+        }
+        return decks;
+    }
+
+    private Map<String, Object> buildDeck(long id, String name, long now) {
+        Map<String, Object> deck = new LinkedHashMap<>();
+        deck.put("id", id);
+        deck.put("name", name);
+        deck.put("mod", now / 1000);
+        deck.put("usn", -1);
+        deck.put("lrnToday", List.of(0, 0));
+        deck.put("revToday", List.of(0, 0));
+        deck.put("newToday", List.of(0, 0));
+        deck.put("timeToday", List.of(0, 0));
+        deck.put("collapsed", false);
+        deck.put("browserCollapsed", false);
+        deck.put("desc", "");
+        deck.put("dyn", 0);
+        deck.put("conf", 1);
+        deck.put("extendNew", 0);
+        deck.put("extendRev", 0);
+        return deck;
+    }
+
+    private Map<String, Object> buildDeckConf() {
+        Map<String, Object> newCards = new LinkedHashMap<>();
+        newCards.put("delays", List.of(1, 10));
+        newCards.put("ints", List.of(1, 4, 7));
+        newCards.put("initialFactor", 2500);
+        newCards.put("order", 1);
+        newCards.put("perDay", 20);
+        newCards.put("bury", false);
+
+        Map<String, Object> reviews = new LinkedHashMap<>();
+        reviews.put("perDay", 200);
+        reviews.put("ease4", 1.3);
+        reviews.put("fuzz", 0.05);
+        reviews.put("maxIvl", 36500);
+        reviews.put("ivlFct", 1);
+        reviews.put("hardFactor", 1.2);
+        reviews.put("bury", false);
+
+        Map<String, Object> lapses = new LinkedHashMap<>();
+        lapses.put("delays", List.of(10));
+        lapses.put("mult", 0);
+        lapses.put("minInt", 1);
+        lapses.put("leechFails", 8);
+        lapses.put("leechAction", 0);
+
+        Map<String, Object> conf = new LinkedHashMap<>();
+        conf.put("id", 1);
+        conf.put("name", "Default");
+        conf.put("mod", 0);
+        conf.put("usn", 0);
+        conf.put("maxTaken", 60);
+        conf.put("autoplay", true);
+        conf.put("timer", 0);
+        conf.put("replayq", true);
+        conf.put("dyn", false);
+        conf.put("new", newCards);
+        conf.put("rev", reviews);
+        conf.put("lapse", lapses);
+
+        Map<String, Object> dconf = new LinkedHashMap<>();
+        dconf.put("1", conf);
+        return dconf;
+    }
+}
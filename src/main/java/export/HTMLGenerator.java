@@ -2,19 +2,59 @@ package export;
 
 import org.commonmark.node.*;
 import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.AttributeProvider;
 import org.commonmark.renderer.html.HtmlRenderer;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Generate HTML website from markdown scriptums
+ * Pages are rendered on a worker pool (one Parser/HtmlRenderer per thread), and a
+ * content-hash manifest lets unchanged pages, CSS and JS be skipped on rebuilds.
+ * Each page also gets a search index shard (search/*.js) for the offline search box.
+ * Every output is written with a precompressed .gz twin, and etags.json lists a strong
+ * ETag per file for tools.StaticSiteServer.
  */
 public class HTMLGenerator {
 
-    private Parser parser = Parser.builder().build();
-    private HtmlRenderer renderer = HtmlRenderer.builder().build();
+    /** Bump when the page template or generated assets change, to force a full rebuild */
+    private static final String TEMPLATE_VERSION = "3";
+    private static final String MANIFEST_FILE = ".build-manifest.json";
+    public static final String ETAGS_FILE = "etags.json";
+
+    private static final ThreadLocal<Parser> PARSER =
+        ThreadLocal.withInitial(() -> Parser.builder().build());
+    private static final ThreadLocal<HtmlRenderer> RENDERER =
+        ThreadLocal.withInitial(() -> HtmlRenderer.builder()
+            .attributeProviderFactory(context -> new HeadingAnchorProvider())
+            .build());
+
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Gson compactGson = new Gson();
+    private final SearchIndexBuilder searchIndexBuilder = new SearchIndexBuilder();
+    private final int threads;
+    private final Map<String, String> writtenETags = new ConcurrentHashMap<>(); // Output path -> ETag, this build
+
+    public HTMLGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public HTMLGenerator(int threads) {
+        this.threads = Math.max(1, threads);
+    }
 
     /**
      * Generate complete website from markdown files
@@ -28,47 +68,138 @@ public class HTMLGenerator {
         new File(outDir, "topics").mkdirs();
         new File(outDir, "css").mkdirs();
         new File(outDir, "js").mkdirs();
+        new File(outDir, "search").mkdirs();
+
+        Map<String, String> previous = loadManifest(outDir);
+        Map<String, String> manifest = new ConcurrentHashMap<>();
+        writtenETags.clear();
 
         // Generate CSS
-        generateCSS(new File(outDir, "css/style.css"));
+        generateCSS(new File(outDir, "css/style.css"), previous, manifest);
 
         // Generate JavaScript
-        generateJavaScript(new File(outDir, "js/navigation.js"));
+        generateJavaScript(new File(outDir, "js/navigation.js"), previous, manifest);
 
         // Find all markdown files
         File[] mdFiles = mdDir.listFiles((dir, name) -> name.endsWith(".md"));
         if (mdFiles == null) mdFiles = new File[0];
         Arrays.sort(mdFiles, Comparator.comparing(File::getName));
 
-        // Generate topic pages
+        // Generate topic pages in parallel, collecting results in file order
         List<TopicPage> pages = new ArrayList<>();
-        for (File mdFile : mdFiles) {
-            String topic = extractTopicName(mdFile.getName());
-            String content = new String(Files.readAllBytes(mdFile.toPath()));
-            String html = convertMarkdownToHTML(content);
+        int rendered = 0;
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, Math.max(1, mdFiles.length)));
+        try {
+            List<Future<TopicPage>> futures = new ArrayList<>();
+            for (int i = 0; i < mdFiles.length; i++) {
+                File mdFile = mdFiles[i];
+                int pageNum = i;
+                int totalPages = mdFiles.length;
+                futures.add(pool.submit(() -> renderPage(mdFile, outDir, pageNum, totalPages, previous, manifest)));
+            }
+
+            for (Future<TopicPage> future : futures) {
+                TopicPage page = future.get();
+                pages.add(page);
+                if (page.isRendered()) {
+                    rendered++;
+                    System.out.println("✓ Generated HTML: " + page.url.substring("topics/".length()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Website generation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Failed to render page: " + cause.getMessage(), cause);
+        } finally {
+            pool.shutdown();
+        }
+
+        // Generate index page and search index
+        generateIndex(new File(outDir, "index.html"), pages, previous, manifest);
+        generateSearchIndex(outDir, pages, previous, manifest);
 
-            String htmlFilename = mdFile.getName().replace(".md", ".html");
-            String outputPath = Paths.get(outDir.getPath(), "topics", htmlFilename).toString();
+        // Remove pages whose markdown source disappeared
+        for (String path : previous.keySet()) {
+            if (!manifest.containsKey(path)) {
+                File stale = new File(outDir, path);
+                Files.deleteIfExists(stale.toPath());
+                Files.deleteIfExists(gzipFile(stale).toPath());
+            }
+        }
+        saveManifest(outDir, manifest);
+        saveETags(outDir, manifest);
 
-            String fullHtml = applyTemplate(html, topic, pages.size(), mdFiles.length);
-            Files.write(Paths.get(outputPath), fullHtml.getBytes());
+        System.out.println("✓ Website generated in: " + outputDir +
+            " (" + rendered + " pages rendered, " + (pages.size() - rendered) + " unchanged)");
+    }
 
-            pages.add(new TopicPage(topic, "topics/" + htmlFilename));
-            System.out.println("✓ Generated HTML: " + htmlFilename);
+    /**
+     * Write the search shard list and report index size
+     */
+    private void generateSearchIndex(File outDir, List<TopicPage> pages,
+                                     Map<String, String> previous, Map<String, String> manifest) throws IOException {
+        List<String> shards = new ArrayList<>(pages.size());
+        long bytes = 0;
+        int terms = 0;
+        int docs = 0;
+        for (TopicPage page : pages) {
+            shards.add(page.shardPath);
+            bytes += new File(outDir, page.shardPath).length();
+            if (page.isRendered()) {
+                terms += page.shard.getTermCount();
+                docs += page.shard.getDocCount();
+            }
         }
 
-        // Generate index page
-        generateIndex(new File(outDir, "index.html"), pages);
+        String js = "StudySearch.setIndex(" + compactGson.toJson(shards) + ");\n";
+        writeIfChanged(new File(outDir, "search/index.js"), "search/index.js", js, previous, manifest);
 
-        System.out.println("✓ Website generated in: " + outputDir);
+        System.out.println(String.format("✓ Search index: %d shards, %.1f KB (%d terms / %d sections re-indexed)",
+            shards.size(), bytes / 1024.0, terms, docs));
+    }
+
+    /**
+     * Render a single topic page unless its inputs are unchanged since the last build
+     */
+    private TopicPage renderPage(File mdFile, File outDir, int pageNum, int totalPages,
+                                 Map<String, String> previous, Map<String, String> manifest) throws IOException {
+        String topic = extractTopicName(mdFile.getName());
+        String htmlFilename = mdFile.getName().replace(".md", ".html");
+        String relativePath = "topics/" + htmlFilename;
+        String shardPath = "search/" + htmlFilename.replace(".html", ".js");
+        File outputFile = new File(outDir, relativePath);
+        File shardFile = new File(outDir, shardPath);
+
+        byte[] markdown = Files.readAllBytes(mdFile.toPath());
+        String hash = hash(TEMPLATE_VERSION, topic, String.valueOf(pageNum), String.valueOf(totalPages), markdown);
+        manifest.put(relativePath, hash);
+        manifest.put(shardPath, hash);
+
+        if (hash.equals(previous.get(relativePath)) && hash.equals(previous.get(shardPath))
+                && isUpToDate(outputFile) && isUpToDate(shardFile)) {
+            return new TopicPage(topic, relativePath, shardPath, null);
+        }
+
+        // Parse once; the same tree feeds both the HTML renderer and the search index
+        Node document = PARSER.get().parse(new String(markdown, StandardCharsets.UTF_8));
+        String fullHtml = applyTemplate(RENDERER.get().render(document), topic, pageNum, totalPages);
+        writeOutput(outputFile, fullHtml.getBytes(StandardCharsets.UTF_8));
+
+        SearchIndexBuilder.Shard shard = searchIndexBuilder.build(topic, relativePath, document);
+        writeOutput(shardFile, shard.toJavaScript(compactGson).getBytes(StandardCharsets.UTF_8));
+
+        return new TopicPage(topic, relativePath, shardPath, shard);
     }
 
     /**
      * Convert markdown to HTML
      */
     public String convertMarkdownToHTML(String markdown) {
-        Node document = parser.parse(markdown);
-        return renderer.render(document);
+        Node document = PARSER.get().parse(markdown);
+        return RENDERER.get().render(document);
     }
 
     /**
@@ -93,7 +224,7 @@ public class HTMLGenerator {
                         <a href="../index.html" class="nav-brand">BSYS Study Guide</a>
                         <div class="nav-links">
                             <a href="../index.html">Home</a>
-                            <a href="#" onclick="toggleSearch()">Search</a>
+                            <a href="#" onclick="toggleSearch(); return false;">Search</a>
                         </div>
                     </div>
                 </nav>
@@ -129,7 +260,8 @@ public class HTMLGenerator {
     /**
      * Generate index page
      */
-    private void generateIndex(File outputFile, List<TopicPage> pages) throws IOException {
+    private void generateIndex(File outputFile, List<TopicPage> pages,
+                               Map<String, String> previous, Map<String, String> manifest) throws IOException {
         StringBuilder html = new StringBuilder();
         html.append("""
             <!DOCTYPE html>
@@ -144,6 +276,9 @@ public class HTMLGenerator {
                 <nav class="navbar">
                     <div class="nav-container">
                         <a href="index.html" class="nav-brand">BSYS Study Guide</a>
+                        <div class="nav-links">
+                            <a href="#" onclick="toggleSearch(); return false;">Search</a>
+                        </div>
                     </div>
                 </nav>
 
@@ -190,14 +325,15 @@ public class HTMLGenerator {
             </html>
             """);
 
-        Files.write(outputFile.toPath(), html.toString().getBytes());
-        System.out.println("✓ Generated index.html");
+        if (writeIfChanged(outputFile, "index.html", html.toString(), previous, manifest)) {
+            System.out.println("✓ Generated index.html");
+        }
     }
 
     /**
      * Generate CSS file
      */
-    private void generateCSS(File outputFile) throws IOException {
+    private void generateCSS(File outputFile, Map<String, String> previous, Map<String, String> manifest) throws IOException {
         String css = """
             * {
                 margin: 0;
@@ -402,6 +538,68 @@ public class HTMLGenerator {
                 border-radius: 8px;
             }
 
+            .search-panel {
+                display: none;
+                position: fixed;
+                inset: 0;
+                background: rgba(0,0,0,0.4);
+                z-index: 100;
+            }
+
+            .search-panel.open {
+                display: flex;
+                justify-content: center;
+                align-items: flex-start;
+                padding-top: 10vh;
+            }
+
+            .search-box {
+                background: white;
+                width: min(640px, 90vw);
+                max-height: 75vh;
+                padding: 1rem;
+                border-radius: 8px;
+                box-shadow: 0 4px 20px rgba(0,0,0,0.2);
+                display: flex;
+                flex-direction: column;
+            }
+
+            .search-box input {
+                width: 100%;
+                padding: 0.75rem;
+                font-size: 1.1rem;
+                border: 2px solid #3498db;
+                border-radius: 5px;
+            }
+
+            .search-status {
+                color: #7f8c8d;
+                font-size: 0.9rem;
+                margin: 0.5rem 0;
+            }
+
+            .search-results {
+                overflow-y: auto;
+            }
+
+            .search-result {
+                display: block;
+                padding: 0.5rem;
+                color: #2c3e50;
+                text-decoration: none;
+                border-radius: 4px;
+            }
+
+            .search-result:hover {
+                background: #ecf0f1;
+            }
+
+            .search-result span {
+                display: block;
+                font-size: 0.85rem;
+                color: #7f8c8d;
+            }
+
             footer {
                 text-align: center;
                 padding: 2rem;
@@ -424,17 +622,232 @@ public class HTMLGenerator {
             }
             """;
 
-        Files.write(outputFile.toPath(), css.getBytes());
-        System.out.println("✓ Generated style.css");
+        if (writeIfChanged(outputFile, "css/style.css", css, previous, manifest)) {
+            System.out.println("✓ Generated style.css");
+        }
     }
 
     /**
      * Generate JavaScript file
      */
-    private void generateJavaScript(File outputFile) throws IOException {
+    private void generateJavaScript(File outputFile, Map<String, String> previous, Map<String, String> manifest) throws IOException {
         String js = """
+            // Offline search over the prebuilt index in search/*.js (see SearchIndexBuilder)
+            const StudySearch = (function() {
+                const MAX_RESULTS = 50;
+                const STOP_WORDS = new Set([
+                    'the', 'and', 'for', 'are', 'with', 'that', 'this', 'from', 'was', 'were', 'has', 'have',
+                    'not', 'but', 'its', 'into', 'can', 'all', 'any', 'use', 'used', 'also', 'than', 'then',
+                    'der', 'die', 'das', 'und', 'ist', 'ein', 'eine', 'mit', 'für', 'von', 'den', 'dem', 'des', 'zu'
+                ]);
+                const script = document.currentScript;
+                const base = script ? script.src.replace(/js\\/navigation\\.js(\\?.*)?$/, '') : '';
+                const shards = [];
+                let pending = -1;
+                let panel = null;
+                let input = null;
+                let status = null;
+                let results = null;
+
+                // Must match SearchIndexBuilder.stem()
+                function stem(w) {
+                    const n = w.length;
+                    if (n > 4 && w.endsWith('ies')) return w.slice(0, -3) + 'y';
+                    if (w.endsWith('sses')) return w.slice(0, -2);
+                    if (n > 5 && w.endsWith('ing')) return w.slice(0, -3);
+                    if (n > 4 && w.endsWith('ed')) return w.slice(0, -2);
+                    if (n > 4 && w.endsWith('ly')) return w.slice(0, -2);
+                    if (n > 3 && w.endsWith('s') && !w.endsWith('ss') && !w.endsWith('us') && !w.endsWith('is')) {
+                        return w.slice(0, -1);
+                    }
+                    return w;
+                }
+
+                function tokenize(text) {
+                    return (text.match(/[\\p{L}\\p{Nd}]+/gu) || [])
+                        .filter(t => t.length >= 2)
+                        .map(t => t.toLowerCase())
+                        .filter(t => !STOP_WORDS.has(t))
+                        .map(stem);
+                }
+
+                function lowerBound(keys, term) {
+                    let lo = 0;
+                    let hi = keys.length;
+                    while (lo < hi) {
+                        const mid = (lo + hi) >>> 1;
+                        if (keys[mid] < term) lo = mid + 1; else hi = mid;
+                    }
+                    return lo;
+                }
+
+                // Postings are delta-encoded base-36 doc numbers, decoded on first use
+                function decode(shard, i) {
+                    if (!shard.cache) shard.cache = new Map();
+                    let docs = shard.cache.get(i);
+                    if (!docs) {
+                        docs = [];
+                        let doc = 0;
+                        for (const delta of shard.p[i].split(',')) {
+                            doc += parseInt(delta, 36);
+                            docs.push(doc);
+                        }
+                        shard.cache.set(i, docs);
+                    }
+                    return docs;
+                }
+
+                function postings(shard, term, prefix) {
+                    const keys = shard.k;
+                    let i = lowerBound(keys, term);
+                    if (!prefix) return i < keys.length && keys[i] === term ? decode(shard, i) : [];
+                    const found = new Set();
+                    for (; i < keys.length && keys[i].startsWith(term); i++) {
+                        for (const doc of decode(shard, i)) found.add(doc);
+                    }
+                    return Array.from(found).sort((a, b) => a - b);
+                }
+
+                function intersect(a, b) {
+                    const out = [];
+                    let i = 0;
+                    let j = 0;
+                    while (i < a.length && j < b.length) {
+                        if (a[i] === b[j]) { out.push(a[i]); i++; j++; }
+                        else if (a[i] < b[j]) i++;
+                        else j++;
+                    }
+                    return out;
+                }
+
+                // Every term must match; the last one is treated as a prefix while typing
+                function search(query) {
+                    const terms = tokenize(query);
+                    const hits = [];
+                    if (!terms.length) return hits;
+                    for (const shard of shards) {
+                        let docs = null;
+                        for (let t = 0; t < terms.length && (docs === null || docs.length); t++) {
+                            const list = postings(shard, terms[t], t === terms.length - 1);
+                            docs = docs === null ? list : intersect(docs, list);
+                        }
+                        for (const doc of docs) hits.push({ shard: shard, doc: doc });
+                    }
+                    return hits;
+                }
+
+                function render() {
+                    if (!panel) return;
+                    results.innerHTML = '';
+                    if (pending !== 0) {
+                        status.textContent = 'Loading search index…';
+                        return;
+                    }
+                    if (!input.value.trim()) {
+                        status.textContent = shards.length + ' topics indexed';
+                        return;
+                    }
+
+                    const start = performance.now();
+                    const hits = search(input.value);
+                    const elapsed = performance.now() - start;
+                    status.textContent = hits.length + (hits.length === 1 ? ' result' : ' results') +
+                        ' (' + elapsed.toFixed(1) + ' ms)';
+
+                    for (const hit of hits.slice(0, MAX_RESULTS)) {
+                        const doc = hit.shard.d[hit.doc];
+                        const link = document.createElement('a');
+                        link.className = 'search-result';
+                        link.href = base + hit.shard.u + (doc[1] ? '#' + doc[1] : '');
+                        const title = document.createElement('strong');
+                        title.textContent = doc[0];
+                        const topic = document.createElement('span');
+                        topic.textContent = hit.shard.t;
+                        link.append(title, topic);
+                        results.appendChild(link);
+                    }
+                }
+
+                function load(path) {
+                    const tag = document.createElement('script');
+                    tag.src = base + path;
+                    tag.onerror = function() {
+                        if (path === 'search/index.js') {
+                            pending = -1;
+                            if (status) status.textContent = 'Search index not available';
+                        } else {
+                            shardLoaded();
+                        }
+                    };
+                    document.head.appendChild(tag);
+                }
+
+                function shardLoaded() {
+                    pending--;
+                    if (pending === 0) {
+                        shards.sort((a, b) => a.u < b.u ? -1 : a.u > b.u ? 1 : 0);
+                        render();
+                    }
+                }
+
+                function build() {
+                    panel = document.createElement('div');
+                    panel.className = 'search-panel';
+                    panel.innerHTML = '<div class="search-box">' +
+                        '<input type="search" placeholder="Search all topics…" aria-label="Search">' +
+                        '<p class="search-status"></p><div class="search-results"></div></div>';
+                    document.body.appendChild(panel);
+                    input = panel.querySelector('input');
+                    status = panel.querySelector('.search-status');
+                    results = panel.querySelector('.search-results');
+
+                    input.addEventListener('input', render);
+                    panel.addEventListener('click', e => { if (e.target === panel) close(); });
+                    results.addEventListener('click', close);
+                }
+
+                function open() {
+                    if (!panel) build();
+                    panel.classList.add('open');
+                    input.focus();
+                    if (pending < 0) {
+                        pending = 1;
+                        load('search/index.js');
+                    }
+                    render();
+                }
+
+                function close() {
+                    if (panel) panel.classList.remove('open');
+                }
+
+                document.addEventListener('keydown', function(e) {
+                    if (e.key === 'Escape') {
+                        close();
+                    } else if (e.key === '/' && document.activeElement === document.body) {
+                        e.preventDefault();
+                        open();
+                    }
+                });
+
+                return {
+                    toggle: function() {
+                        if (panel && panel.classList.contains('open')) close(); else open();
+                    },
+                    setIndex: function(files) {
+                        pending = files.length;
+                        files.forEach(load);
+                        render();
+                    },
+                    addShard: function(shard) {
+                        shards.push(shard);
+                        shardLoaded();
+                    }
+                };
+            })();
+
             function toggleSearch() {
-                alert('Search functionality - to be implemented');
+                StudySearch.toggle();
             }
 
             // Smooth scrolling for anchor links
@@ -455,8 +868,109 @@ public class HTMLGenerator {
             });
             """;
 
-        Files.write(outputFile.toPath(), js.getBytes());
-        System.out.println("✓ Generated navigation.js");
+        if (writeIfChanged(outputFile, "js/navigation.js", js, previous, manifest)) {
+            System.out.println("✓ Generated navigation.js");
+        }
+    }
+
+    /**
+     * Write a generated file only if its content hash differs from the last build
+     */
+    private boolean writeIfChanged(File outputFile, String relativePath, String content,
+                                   Map<String, String> previous, Map<String, String> manifest) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = hash(TEMPLATE_VERSION, bytes);
+        manifest.put(relativePath, hash);
+
+        if (hash.equals(previous.get(relativePath)) && isUpToDate(outputFile)) {
+            return false;
+        }
+        writeOutput(outputFile, bytes);
+        return true;
+    }
+
+    /**
+     * Write a file together with its gzip-compressed variant (file.gz)
+     */
+    private void writeOutput(File outputFile, byte[] bytes) throws IOException {
+        Files.write(outputFile.toPath(), bytes);
+        writtenETags.put(outputFile.getAbsolutePath(), etag(bytes));
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 3 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed) {{ def.setLevel(Deflater.BEST_COMPRESSION); }}) {
+            gzip.write(bytes);
+        }
+        Files.write(gzipFile(outputFile).toPath(), compressed.toByteArray());
+    }
+
+    private static boolean isUpToDate(File outputFile) {
+        return outputFile.exists() && gzipFile(outputFile).exists();
+    }
+
+    private static File gzipFile(File file) {
+        return new File(file.getPath() + ".gz");
+    }
+
+    /**
+     * Load the content-hash manifest of the previous build (empty if missing or unreadable)
+     */
+    private Map<String, String> loadManifest(File outDir) {
+        File file = new File(outDir, MANIFEST_FILE);
+        if (!file.exists()) return new HashMap<>();
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, String> manifest = gson.fromJson(reader, new TypeToken<Map<String, String>>() {}.getType());
+            return manifest != null ? manifest : new HashMap<>();
+        } catch (IOException | JsonParseException e) {
+            // Corrupt manifest: fall back to a full rebuild
+            return new HashMap<>();
+        }
+    }
+
+    private void saveManifest(File outDir, Map<String, String> manifest) throws IOException {
+        String json = gson.toJson(new TreeMap<>(manifest));
+        Files.write(new File(outDir, MANIFEST_FILE).toPath(), json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write strong ETags for every generated file
+     * An ETag hashes the bytes actually served, not the build inputs: a renderer change that
+     * slips past TEMPLATE_VERSION must still change it. Files skipped this build are hashed
+     * from disk. The server appends "-gz" for the compressed representation.
+     */
+    private void saveETags(File outDir, Map<String, String> manifest) throws IOException {
+        Map<String, String> etags = new TreeMap<>();
+        for (String path : manifest.keySet()) {
+            File file = new File(outDir, path);
+            String etag = writtenETags.get(file.getAbsolutePath());
+            etags.put(path, etag != null ? etag : etag(Files.readAllBytes(file.toPath())));
+        }
+        Files.write(new File(outDir, ETAGS_FILE).toPath(), gson.toJson(etags).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String etag(byte[] bytes) {
+        return "\"" + hash(bytes).substring(0, 32) + "\"";
+    }
+
+    /**
+     * SHA-256 over the given parts (Strings or byte arrays), as hex
+     */
+    private static String hash(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                byte[] bytes = part instanceof byte[] ? (byte[]) part : part.toString().getBytes(StandardCharsets.UTF_8);
+                digest.update(bytes);
+                digest.update((byte) 0);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     /**
@@ -470,16 +984,39 @@ public class HTMLGenerator {
             .replace("_", " ");
     }
 
+    /**
+     * Adds id attributes to headings so search results can link to sections
+     * A new provider is created per render, so anchors are numbered per page like the index
+     */
+    private static class HeadingAnchorProvider implements AttributeProvider {
+        private final Map<String, Integer> seen = new HashMap<>();
+
+        @Override
+        public void setAttributes(Node node, String tagName, Map<String, String> attributes) {
+            if (node instanceof Heading) {
+                attributes.put("id", SearchIndexBuilder.anchor(SearchIndexBuilder.textOf(node), seen));
+            }
+        }
+    }
+
     /**
      * Represents a topic page
      */
     private static class TopicPage {
         final String title;
         final String url;
+        final String shardPath;
+        final SearchIndexBuilder.Shard shard; // null when the page was unchanged
 
-        TopicPage(String title, String url) {
+        TopicPage(String title, String url, String shardPath, SearchIndexBuilder.Shard shard) {
             this.title = title;
             this.url = url;
+            this.shardPath = shardPath;
+            this.shard = shard;
+        }
+
+        boolean isRendered() {
+            return shard != null;
         }
     }
 }
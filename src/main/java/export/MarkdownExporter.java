@@ -6,18 +6,47 @@ import content.FlashcardGenerator.Flashcard;
 import java.io.*;
 import java.nio.file.*;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Export content as Markdown scriptums (study guides)
  * Creates both single comprehensive file and multiple topic-based files
+ * Content is grouped once into a TopicIndex and topic sections are rendered in parallel;
+ * callers running both exports render the sections once and pass them to each.
  */
 public class MarkdownExporter {
 
+    /**
+     * Group content items by type and flashcards by topic once, for use by both exports
+     * Items come already grouped by topic from ProcessedContent: O(topics + items + cards)
+     */
+    public TopicIndex buildIndex(ProcessedContent content, List<Flashcard> flashcards) {
+        return new TopicIndex(content, flashcards);
+    }
+
     /**
      * Export single comprehensive markdown scriptum
      */
     public void exportSingleScriptum(ProcessedContent content, List<Flashcard> flashcards, String outputPath) throws IOException {
-        StringBuilder md = new StringBuilder();
+        exportSingleScriptum(buildIndex(content, flashcards), outputPath);
+    }
+
+    /**
+     * Export single comprehensive markdown scriptum from a prebuilt index
+     */
+    public void exportSingleScriptum(TopicIndex index, String outputPath) throws IOException {
+        exportSingleScriptum(index, renderSections(index), outputPath);
+    }
+
+    /**
+     * Export single comprehensive markdown scriptum from sections rendered by renderSections(index)
+     */
+    public void exportSingleScriptum(TopicIndex index, List<String> sections, String outputPath) throws IOException {
+        List<String> topics = index.topics;
+
+        int size = 256;
+        for (String section : sections) size += section.length() + 8;
+        StringBuilder md = new StringBuilder(size);
 
         // Title and TOC
         md.append("# Operating Systems - Complete Study Guide\n\n");
@@ -25,18 +54,14 @@ public class MarkdownExporter {
         md.append("---\n\n");
         md.append("## Table of Contents\n\n");
 
-        List<String> topics = new ArrayList<>(content.getTopics());
-        Collections.sort(topics);
-
         for (int i = 0; i < topics.size(); i++) {
-            md.append(String.format("%d. [%s](#%s)\n", i + 1, topics.get(i),
-                topics.get(i).toLowerCase().replace(" ", "-").replace("/", "-").replace("&", "and")));
+            md.append(String.format("%d. [%s](#%s)\n", i + 1, topics.get(i), slug(topics.get(i))));
         }
         md.append("\n---\n\n");
 
-        // Generate content for each topic
-        for (String topic : topics) {
-            md.append(generateTopicSection(topic, content.getByTopic(topic), flashcards));
+        // Content for each topic, in topic order
+        for (String section : sections) {
+            md.append(section);
             md.append("\n---\n\n");
         }
 
@@ -49,15 +74,28 @@ public class MarkdownExporter {
      * Export multiple markdown scriptums by topic
      */
     public void exportMultipleScriptums(ProcessedContent content, List<Flashcard> flashcards, String outputDir) throws IOException {
+        exportMultipleScriptums(buildIndex(content, flashcards), outputDir);
+    }
+
+    /**
+     * Export multiple markdown scriptums by topic from a prebuilt index
+     */
+    public void exportMultipleScriptums(TopicIndex index, String outputDir) throws IOException {
+        exportMultipleScriptums(index, renderSections(index), outputDir);
+    }
+
+    /**
+     * Export multiple markdown scriptums by topic from sections rendered by renderSections(index)
+     */
+    public void exportMultipleScriptums(TopicIndex index, List<String> sections, String outputDir) throws IOException {
         File dir = new File(outputDir);
         dir.mkdirs();
 
-        List<String> topics = new ArrayList<>(content.getTopics());
-        Collections.sort(topics);
+        List<String> topics = index.topics;
 
-        int fileNumber = 1;
-        for (String topic : topics) {
-            StringBuilder md = new StringBuilder();
+        for (int i = 0; i < topics.size(); i++) {
+            String topic = topics.get(i);
+            StringBuilder md = new StringBuilder(sections.get(i).length() + topic.length() + 64);
 
             // Title
             md.append(String.format("# %s\n\n", topic));
@@ -65,11 +103,10 @@ public class MarkdownExporter {
             md.append("---\n\n");
 
             // Content
-            md.append(generateTopicSection(topic, content.getByTopic(topic), flashcards));
+            md.append(sections.get(i));
 
             // Write file
-            String filename = String.format("%02d-%s.md", fileNumber++,
-                topic.toLowerCase().replace(" ", "-").replace("/", "-").replace("&", "and"));
+            String filename = String.format("%02d-%s.md", i + 1, slug(topic));
             String filepath = Paths.get(outputDir, filename).toString();
 
             Files.write(Paths.get(filepath), md.toString().getBytes());
@@ -77,55 +114,54 @@ public class MarkdownExporter {
         }
     }
 
+    /**
+     * Render all topic sections in parallel, in the index's topic order
+     */
+    public List<String> renderSections(TopicIndex index) {
+        return index.topics.parallelStream()
+            .map(topic -> generateTopicSection(topic, index.itemsByType(topic), index.cards(topic)))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Generate markdown section for a topic
      */
-    private String generateTopicSection(String topic, List<ContentItem> items, List<Flashcard> flashcards) {
+    private String generateTopicSection(String topic, Map<ContentType, List<ContentItem>> byType, List<Flashcard> topicCards) {
         StringBuilder md = new StringBuilder();
 
         md.append(String.format("## %s\n\n", topic));
 
-        // Group items by type
-        Map<ContentType, List<ContentItem>> byType = new HashMap<>();
-        for (ContentItem item : items) {
-            byType.computeIfAbsent(item.type, k -> new ArrayList<>()).add(item);
-        }
-
         // Definitions
-        if (byType.containsKey(ContentType.DEFINITION)) {
+        List<ContentItem> definitions = byType.get(ContentType.DEFINITION);
+        if (definitions != null) {
             md.append("### Key Definitions\n\n");
-            for (ContentItem item : byType.get(ContentType.DEFINITION)) {
+            for (ContentItem item : definitions) {
                 md.append(formatDefinition(item.title, item.content));
             }
             md.append("\n");
         }
 
         // Concepts
-        if (byType.containsKey(ContentType.CONCEPT)) {
+        List<ContentItem> concepts = byType.get(ContentType.CONCEPT);
+        if (concepts != null) {
             md.append("### Core Concepts\n\n");
-            for (ContentItem item : byType.get(ContentType.CONCEPT).subList(0, Math.min(5, byType.get(ContentType.CONCEPT).size()))) {
+            for (ContentItem item : concepts.subList(0, Math.min(5, concepts.size()))) {
                 md.append(formatConcept(item.title, item.content));
             }
             md.append("\n");
         }
 
         // Code examples
-        if (byType.containsKey(ContentType.CODE)) {
+        List<ContentItem> code = byType.get(ContentType.CODE);
+        if (code != null) {
             md.append("### Code Examples & Commands\n\n");
-            for (ContentItem item : byType.get(ContentType.CODE).subList(0, Math.min(5, byType.get(ContentType.CODE).size()))) {
+            for (ContentItem item : code.subList(0, Math.min(5, code.size()))) {
                 md.append(formatCodeExample(item.content));
             }
             md.append("\n");
         }
 
         // Study notes (flashcards for this topic)
-        List<Flashcard> topicCards = new ArrayList<>();
-        for (Flashcard card : flashcards) {
-            if (card.topic.equals(topic)) {
-                topicCards.add(card);
-            }
-        }
-
         if (!topicCards.isEmpty()) {
             md.append("### Study Notes\n\n");
             md.append("*Key points to remember:*\n\n");
@@ -139,6 +175,10 @@ public class MarkdownExporter {
         return md.toString();
     }
 
+    private static String slug(String topic) {
+        return topic.toLowerCase().replace(" ", "-").replace("/", "-").replace("&", "and");
+    }
+
     /**
      * Format definition entry
      */
@@ -189,4 +229,42 @@ public class MarkdownExporter {
 
         return text;
     }
+
+    /**
+     * Content items grouped by topic and type, and flashcards grouped by topic
+     * Built once per run and shared by the single and multi-file exports.
+     */
+    public static class TopicIndex {
+        final List<String> topics;
+        private final Map<String, Map<ContentType, List<ContentItem>>> items = new HashMap<>();
+        private final Map<String, List<Flashcard>> cards = new HashMap<>();
+
+        TopicIndex(ProcessedContent content, List<Flashcard> flashcards) {
+            topics = new ArrayList<>(content.getTopics());
+            Collections.sort(topics);
+
+            for (String topic : topics) {
+                Map<ContentType, List<ContentItem>> byType = new EnumMap<>(ContentType.class);
+                for (ContentItem item : content.getByTopic(topic)) {
+                    byType.computeIfAbsent(item.type, k -> new ArrayList<>()).add(item);
+                }
+                items.put(topic, byType);
+            }
+            for (Flashcard card : flashcards) {
+                cards.computeIfAbsent(card.topic, k -> new ArrayList<>()).add(card);
+            }
+        }
+
+        public List<String> getTopics() {
+            return Collections.unmodifiableList(topics);
+        }
+
+        Map<ContentType, List<ContentItem>> itemsByType(String topic) {
+            return items.getOrDefault(topic, Collections.emptyMap());
+        }
+
+        List<Flashcard> cards(String topic) {
+            return cards.getOrDefault(topic, Collections.emptyList());
+        }
+    }
 }
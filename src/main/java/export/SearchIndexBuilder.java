@@ -0,0 +1,231 @@
+package export;
+
+import com.google.gson.Gson;
+import org.commonmark.node.*;
+
+import java.util.*;
+
+/**
+ * Build a compact client-side search index shard for one topic page
+ * Documents are heading sections plus study-note list items ("- **term** ..."). Terms are
+ * lower-cased, stop-word filtered and stemmed; each term maps to a postings list of document
+ * numbers, delta-encoded in base 36. Terms are kept sorted so the browser can binary-search
+ * them for prefix queries. The stemmer and tokenizer are mirrored in navigation.js.
+ */
+public class SearchIndexBuilder {
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "the", "and", "for", "are", "with", "that", "this", "from", "was", "were", "has", "have",
+        "not", "but", "its", "into", "can", "all", "any", "use", "used", "also", "than", "then",
+        "der", "die", "das", "und", "ist", "ein", "eine", "mit", "für", "von", "den", "dem", "des", "zu"
+    ));
+
+    /**
+     * Build the shard for a parsed page
+     */
+    public Shard build(String topic, String url, Node document) {
+        Shard shard = new Shard(topic, url);
+        walk(document, shard, new HashMap<>());
+        return shard;
+    }
+
+    private void walk(Node node, Shard shard, Map<String, Integer> anchors) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNext()) {
+            if (child instanceof Heading) {
+                String title = textOf(child);
+                shard.startDoc(title, anchor(title, anchors));
+                shard.addText(title);
+            } else if (child instanceof ListItem && isStudyNote(child)) {
+                int section = shard.section();
+                shard.startDoc(textOf(child.getFirstChild().getFirstChild()), shard.docs.get(section)[1]);
+                walk(child, shard, anchors);
+                shard.current = section;
+            } else if (child instanceof Text) {
+                shard.addText(((Text) child).getLiteral());
+            } else if (child instanceof Code) {
+                shard.addText(((Code) child).getLiteral());
+            } else if (child instanceof FencedCodeBlock) {
+                shard.addText(((FencedCodeBlock) child).getLiteral());
+            } else if (child instanceof IndentedCodeBlock) {
+                shard.addText(((IndentedCodeBlock) child).getLiteral());
+            } else {
+                walk(child, shard, anchors);
+            }
+        }
+    }
+
+    /**
+     * A list item whose first paragraph starts with bold text, as written by MarkdownExporter
+     */
+    private static boolean isStudyNote(Node item) {
+        Node first = item.getFirstChild();
+        return first instanceof Paragraph && first.getFirstChild() instanceof StrongEmphasis;
+    }
+
+    // ========== Text helpers (shared with the heading anchor provider) ==========
+
+    /**
+     * Plain text content of a node
+     */
+    static String textOf(Node node) {
+        StringBuilder text = new StringBuilder();
+        appendText(node, text);
+        return text.toString().trim();
+    }
+
+    private static void appendText(Node node, StringBuilder text) {
+        for (Node child = node.getFirstChild(); child != null; child = child.getNext()) {
+            if (child instanceof Text) text.append(((Text) child).getLiteral());
+            else if (child instanceof Code) text.append(((Code) child).getLiteral());
+            else if (child instanceof SoftLineBreak || child instanceof HardLineBreak) text.append(' ');
+            else appendText(child, text);
+        }
+    }
+
+    /**
+     * Unique anchor id for a heading, in document order ("memory", "memory-1", ...)
+     */
+    static String anchor(String title, Map<String, Integer> seen) {
+        StringBuilder slug = new StringBuilder(title.length());
+        for (int i = 0; i < title.length(); i++) {
+            char c = Character.toLowerCase(title.charAt(i));
+            if (Character.isLetterOrDigit(c)) {
+                slug.append(c);
+            } else if ((c == ' ' || c == '-') && slug.length() > 0 && slug.charAt(slug.length() - 1) != '-') {
+                slug.append('-');
+            }
+        }
+        if (slug.length() > 0 && slug.charAt(slug.length() - 1) == '-') slug.setLength(slug.length() - 1);
+        if (slug.length() == 0) slug.append("section");
+
+        String base = slug.toString();
+        int count = seen.merge(base, 1, Integer::sum);
+        return count == 1 ? base : base + "-" + (count - 1);
+    }
+
+    /**
+     * Split text into lower-cased, stemmed index terms
+     */
+    static void tokenize(String text, List<String> out) {
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i - start >= 2) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(token)) {
+                    out.add(stem(token));
+                }
+            }
+        }
+    }
+
+    /**
+     * Light suffix-stripping stemmer; must match stem() in navigation.js
+     */
+    static String stem(String word) {
+        int n = word.length();
+        if (n > 4 && word.endsWith("ies")) return word.substring(0, n - 3) + "y";
+        if (word.endsWith("sses")) return word.substring(0, n - 2);
+        if (n > 5 && word.endsWith("ing")) return word.substring(0, n - 3);
+        if (n > 4 && word.endsWith("ed")) return word.substring(0, n - 2);
+        if (n > 4 && word.endsWith("ly")) return word.substring(0, n - 2);
+        if (n > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+
+    /**
+     * Index shard for one topic page
+     */
+    public static class Shard {
+        final String topic;
+        final String url;
+        final List<String[]> docs = new ArrayList<>(); // [title, anchor]
+        final Map<String, int[]> postings = new HashMap<>(); // term -> [size, doc...]
+        private final List<String> tokens = new ArrayList<>();
+        int current = -1;
+
+        Shard(String topic, String url) {
+            this.topic = topic;
+            this.url = url;
+        }
+
+        void startDoc(String title, String anchor) {
+            docs.add(new String[]{title, anchor});
+            current = docs.size() - 1;
+        }
+
+        /**
+         * Current document, opening one named after the topic for text before the first heading
+         */
+        int section() {
+            if (current < 0) startDoc(topic, "");
+            return current;
+        }
+
+        void addText(String text) {
+            section();
+            tokens.clear();
+            tokenize(text, tokens);
+            for (String term : tokens) {
+                int[] list = postings.get(term);
+                if (list == null) {
+                    list = new int[4];
+                    postings.put(term, list);
+                } else if (list[list[0]] == current && list[0] > 0) {
+                    continue; // Already posted for this document
+                }
+                if (list[0] + 1 == list.length) {
+                    list = Arrays.copyOf(list, list.length * 2);
+                    postings.put(term, list);
+                }
+                list[++list[0]] = current;
+            }
+        }
+
+        public int getTermCount() {
+            return postings.size();
+        }
+
+        public int getDocCount() {
+            return docs.size();
+        }
+
+        /**
+         * Serialize as a script that registers the shard with StudySearch
+         */
+        public String toJavaScript(Gson gson) {
+            List<String> terms = new ArrayList<>(postings.keySet());
+            Collections.sort(terms);
+
+            List<String> encoded = new ArrayList<>(terms.size());
+            StringBuilder deltas = new StringBuilder();
+            for (String term : terms) {
+                int[] list = postings.get(term);
+                // Text after a study-note list posts back to its section, so re-sort first
+                Arrays.sort(list, 1, list[0] + 1);
+                deltas.setLength(0);
+                int previous = -1;
+                for (int i = 1; i <= list[0]; i++) {
+                    if (list[i] == previous) continue;
+                    if (previous >= 0) deltas.append(',');
+                    deltas.append(Integer.toString(list[i] - Math.max(previous, 0), 36));
+                    previous = list[i];
+                }
+                encoded.add(deltas.toString());
+            }
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("t", topic);
+            json.put("u", url);
+            json.put("d", docs);
+            json.put("k", terms);
+            json.put("p", encoded);
+            return "StudySearch.addShard(" + gson.toJson(json) + ");\n";
+        }
+    }
+}
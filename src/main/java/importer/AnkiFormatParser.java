@@ -0,0 +1,72 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+
+import java.util.List;
+
+/**
+ * Anki text export: front[TAB]back[TAB]tags
+ * The subject comes from the tags or from a "BSYS: ..." prefix on the front.
+ */
+class AnkiFormatParser implements FormatParser {
+
+    private static final String[] SUBJECTS = {"BSYS", "DigiCom", "TEAM"};
+
+    @Override
+    public void parse(List<String> lines, ImportBatch out) {
+        for (String raw : lines) {
+            String line = raw.trim();
+            int tab1 = line.indexOf('\t');
+            if (tab1 < 0) continue;
+            int tab2 = line.indexOf('\t', tab1 + 1);
+
+            String front = line.substring(0, tab1).trim();
+            String back = (tab2 < 0 ? line.substring(tab1 + 1) : line.substring(tab1 + 1, tab2)).trim();
+            String subject = "CUSTOM";
+
+            if (tab2 >= 0) {
+                int tab3 = line.indexOf('\t', tab2 + 1);
+                String tags = tab3 < 0 ? line.substring(tab2 + 1) : line.substring(tab2 + 1, tab3);
+                for (String candidate : SUBJECTS) {
+                    if (containsIgnoreCase(tags, candidate)) {
+                        subject = candidate;
+                        break;
+                    }
+                }
+            }
+
+            // Subject prefix in the front text, e.g. "BSYS: What is..."
+            int colon = subjectPrefixEnd(front);
+            if (colon > 0) {
+                String prefix = front.substring(0, colon);
+                for (String candidate : SUBJECTS) {
+                    if (candidate.equals(prefix)) {
+                        subject = candidate;
+                        front = front.substring(colon + 1).trim();
+                        break;
+                    }
+                }
+            }
+
+            out.add(new Flashcard(subject, "Imported", front, back, 2));
+        }
+    }
+
+    /**
+     * Index of the ':' in a leading "Letters: " prefix, or -1
+     */
+    private static int subjectPrefixEnd(String text) {
+        int i = 0;
+        while (i < text.length() && Character.isLetter(text.charAt(i))) i++;
+        if (i == 0 || i + 1 >= text.length() || text.charAt(i) != ':') return -1;
+        return Character.isWhitespace(text.charAt(i + 1)) ? i : -1;
+    }
+
+    private static boolean containsIgnoreCase(String text, String needle) {
+        int max = text.length() - needle.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * CSV: Subject,Topic,Question,Answer,Difficulty (header row optional)
+ * Reads records from a CsvReader, so quoted commas and multi-line answers exported by
+ * spreadsheet tools survive; extra columns are ignored.
+ */
+class CsvFormatParser implements FormatParser {
+
+    /**
+     * Parse lines joined back together (ImportEngine reads CSV files directly instead)
+     */
+    @Override
+    public void parse(List<String> lines, ImportBatch out) {
+        byte[] text = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        try (CsvReader reader = new CsvReader(Channels.newChannel(new ByteArrayInputStream(text)))) {
+            parse(reader, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // In memory; nothing to fail
+        }
+    }
+
+    /**
+     * A quoted field may span lines, so no line is a safe place to cut
+     */
+    @Override
+    public boolean isRecordStart(String line) {
+        return false;
+    }
+
+    void parse(CsvReader reader, ImportBatch out) throws IOException {
+        while (reader.next()) {
+            int count = reader.fieldCount();
+            if (count < 4 || reader.fieldEquals(0, "Subject")) continue; // Header row
+            if (reader.fieldLength(2) == 0 || reader.fieldLength(3) == 0) continue;
+
+            int difficulty = count > 4 ? clampDifficulty(reader.fieldAsInt(4, 2)) : 2;
+            out.add(new Flashcard(reader.field(0), reader.field(1), reader.field(2), reader.field(3), difficulty));
+        }
+    }
+
+    static int parseDifficulty(String value) {
+        if (value.length() == 1) {
+            char c = value.charAt(0);
+            if (c >= '1' && c <= '3') return c - '0';
+        }
+        return 2; // Default to medium difficulty
+    }
+
+    private static int clampDifficulty(int difficulty) {
+        return difficulty >= 1 && difficulty <= 3 ? difficulty : 2;
+    }
+}
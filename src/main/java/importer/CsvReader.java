@@ -0,0 +1,281 @@
+package importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Byte-level RFC 4180 CSV reader
+ * Scans a channel through a reusable buffer and copies each record's unescaped bytes into
+ * a record buffer; fields are slices of it and are only decoded to Strings on request.
+ * Handles quoted delimiters, doubled quotes, embedded newlines, CRLF/LF/CR line ends and
+ * a UTF-8 BOM. Unquoted fields are trimmed; blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int START = 0;      // Before the first byte of a field
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_SEEN = 3; // Quote inside a quoted field: closing or escaped
+
+    private final ReadableByteChannel channel;
+    private final byte delimiter;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final byte[] in = buffer.array();
+    private int pos;
+    private int limit;
+    private boolean eof;
+    private boolean skipLineFeed;
+
+    private byte[] record = new byte[1024];
+    private int recordLength;
+    private int[] fieldStart = new int[8];
+    private int[] fieldEnd = new int[8];
+    private int fieldCount;
+    private long lineCount;
+
+    public CsvReader(ReadableByteChannel channel) throws IOException {
+        this(channel, ',');
+    }
+
+    public CsvReader(ReadableByteChannel channel, char delimiter) throws IOException {
+        this.channel = channel;
+        this.delimiter = (byte) delimiter;
+        fill();
+        if (limit >= 3 && in[0] == (byte) 0xEF && in[1] == (byte) 0xBB && in[2] == (byte) 0xBF) {
+            pos = 3; // Spreadsheet tools like to start with a BOM
+        }
+    }
+
+    public static CsvReader open(Path path) throws IOException {
+        return new CsvReader(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Advance to the next non-blank record; false at end of input
+     */
+    public boolean next() throws IOException {
+        while (readRecord()) {
+            if (fieldCount > 1 || fieldEnd[0] > fieldStart[0]) return true;
+        }
+        return false;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    public int fieldLength(int index) {
+        return fieldEnd[index] - fieldStart[index];
+    }
+
+    /**
+     * Decode a field of the current record
+     */
+    public String field(int index) {
+        return new String(record, fieldStart[index], fieldEnd[index] - fieldStart[index], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compare a field with an ASCII string without decoding it
+     */
+    public boolean fieldEquals(int index, String ascii) {
+        int start = fieldStart[index];
+        if (fieldEnd[index] - start != ascii.length()) return false;
+        for (int i = 0; i < ascii.length(); i++) {
+            if (record[start + i] != ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Parse a field as a non-negative decimal int, or return the default
+     */
+    public int fieldAsInt(int index, int defaultValue) {
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+        if (start == end || end - start > 9) return defaultValue;
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = record[i] - '0';
+            if (digit < 0 || digit > 9) return defaultValue;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Physical lines consumed so far (newlines inside quoted fields included)
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // ========== Scanner ==========
+
+    private boolean readRecord() throws IOException {
+        recordLength = 0;
+        fieldCount = 0;
+        int fieldBegin = 0;
+        int state = START;
+        boolean quoted = false;
+        boolean any = false;
+
+        while (true) {
+            if (pos >= limit && !fill()) {
+                if (!any) return false;
+                lineCount++;
+                endField(fieldBegin, quoted);
+                return true;
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (in[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            any = true;
+
+            if (state == QUOTED) {
+                // Copy the run up to the next quote or line break in one go
+                int run = pos;
+                while (run < limit && in[run] != '"' && in[run] != '\n' && in[run] != '\r') run++;
+                append(pos, run);
+                pos = run;
+                if (pos == limit) continue;
+
+                byte b = in[pos++];
+                if (b == '"') {
+                    state = QUOTE_SEEN;
+                } else if (b == '\n') { // Keep embedded newlines as \n only
+                    lineCount++;
+                    append(b);
+                }
+                continue;
+            }
+
+            if (state == UNQUOTED) {
+                int run = pos;
+                while (run < limit && in[run] != delimiter && in[run] != '\n' && in[run] != '\r') run++;
+                append(pos, run);
+                pos = run;
+                if (pos == limit) continue;
+
+                byte b = in[pos++];
+                if (b == delimiter) {
+                    endField(fieldBegin, quoted);
+                    fieldBegin = recordLength;
+                    state = START;
+                    quoted = false;
+                } else {
+                    endLine(b);
+                    endField(fieldBegin, quoted);
+                    return true;
+                }
+                continue;
+            }
+
+            byte b = in[pos++];
+            if (state == START) {
+                if (b == '"') {
+                    state = QUOTED;
+                    quoted = true;
+                } else if (b == delimiter) {
+                    endField(fieldBegin, quoted);
+                    fieldBegin = recordLength;
+                } else if (b == '\n' || b == '\r') {
+                    endLine(b);
+                    endField(fieldBegin, quoted);
+                    return true;
+                } else if (b != ' ' && b != '\t') { // Skip leading blanks, e.g. `a, "b"`
+                    append(b);
+                    state = UNQUOTED;
+                }
+            } else { // QUOTE_SEEN: closing quote, or the first half of an escaped ""
+                if (b == '"') {
+                    append(b);
+                    state = QUOTED;
+                } else if (b == delimiter) {
+                    endField(fieldBegin, quoted);
+                    fieldBegin = recordLength;
+                    state = START;
+                    quoted = false;
+                } else if (b == '\n' || b == '\r') {
+                    endLine(b);
+                    endField(fieldBegin, quoted);
+                    return true;
+                } else if (b != ' ' && b != '\t') {
+                    append(b); // Lenient: text after the closing quote
+                    state = UNQUOTED;
+                }
+            }
+        }
+    }
+
+    private void endLine(byte b) {
+        lineCount++;
+        if (b == '\r') skipLineFeed = true;
+    }
+
+    private void endField(int begin, boolean quoted) {
+        int end = recordLength;
+        if (!quoted) {
+            while (end > begin && (record[end - 1] == ' ' || record[end - 1] == '\t')) end--;
+        }
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+        }
+        fieldStart[fieldCount] = begin;
+        fieldEnd[fieldCount] = end;
+        fieldCount++;
+    }
+
+    private void append(byte b) {
+        if (recordLength == record.length) {
+            record = Arrays.copyOf(record, recordLength * 2);
+        }
+        record[recordLength++] = b;
+    }
+
+    private void append(int from, int to) {
+        int length = to - from;
+        if (length == 0) return;
+        if (recordLength + length > record.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, recordLength + length));
+        }
+        System.arraycopy(in, from, record, recordLength, length);
+        recordLength += length;
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            pos = limit = 0;
+            return false;
+        }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
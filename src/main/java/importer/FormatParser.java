@@ -0,0 +1,22 @@
+package importer;
+
+import java.util.List;
+
+/**
+ * Parser for one import format
+ * Implementations are stateless so chunks of the same file can be parsed concurrently.
+ */
+public interface FormatParser {
+
+    /**
+     * Parse a chunk of lines that contains only complete records
+     */
+    void parse(List<String> lines, ImportBatch out);
+
+    /**
+     * Whether a record can start at this line, i.e. a chunk may be cut before it
+     */
+    default boolean isRecordStart(String line) {
+        return true;
+    }
+}
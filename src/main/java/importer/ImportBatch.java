@@ -0,0 +1,23 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+import content.QuestionGenerator.Question;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records parsed from one chunk of an import file
+ */
+public class ImportBatch {
+    final List<Flashcard> flashcards = new ArrayList<>();
+    final List<Question> questions = new ArrayList<>();
+
+    public void add(Flashcard card) {
+        flashcards.add(card);
+    }
+
+    public void add(Question question) {
+        questions.add(question);
+    }
+}
@@ -0,0 +1,164 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+import content.QuestionGenerator.Question;
+
+import java.io.*;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Streaming importer for flashcard/question files
+ * The format is detected once from the first lines, then the file is read in chunks
+ * (cut only at record boundaries) that are parsed on a worker pool. Results are
+ * collected in file order, with at most a few chunks in flight at a time.
+ * CSV is scanned sequentially at byte level by CsvReader instead.
+ */
+public class ImportEngine {
+
+    public static final int DEFAULT_CHUNK_LINES = 8192;
+    private static final int DETECT_LINES = 64;
+
+    private final int threads;
+    private final int chunkLines;
+
+    public ImportEngine() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_CHUNK_LINES);
+    }
+
+    public ImportEngine(int threads, int chunkLines) {
+        this.threads = Math.max(1, threads);
+        this.chunkLines = Math.max(1, chunkLines);
+    }
+
+    /**
+     * Import a file, detecting its format
+     */
+    public ImportResult importFile(Path path) throws IOException {
+        long start = System.nanoTime();
+
+        try (BufferedReader reader = newReader(path)) {
+            List<String> head = new ArrayList<>(DETECT_LINES);
+            String line;
+            while (head.size() < DETECT_LINES && (line = reader.readLine()) != null) {
+                head.add(line);
+            }
+            if (!head.isEmpty() && head.get(0).startsWith("\uFEFF")) {
+                head.set(0, head.get(0).substring(1)); // Byte order mark
+            }
+
+            ImportFormat format = ImportFormat.detect(head);
+            if (format == null) {
+                throw new IOException("Unrecognized file format");
+            }
+            if (!format.isLineBased()) {
+                return importCsv(path, start);
+            }
+
+            return parse(format, head, reader, start);
+        }
+    }
+
+    /**
+     * Import a file in a known format
+     */
+    public ImportResult importFile(Path path, ImportFormat format) throws IOException {
+        long start = System.nanoTime();
+        if (!format.isLineBased()) {
+            return importCsv(path, start);
+        }
+        try (BufferedReader reader = newReader(path)) {
+            return parse(format, Collections.emptyList(), reader, start);
+        }
+    }
+
+    private ImportResult importCsv(Path path, long start) throws IOException {
+        ImportBatch batch = new ImportBatch();
+        try (CsvReader reader = CsvReader.open(path)) {
+            new CsvFormatParser().parse(reader, batch);
+            return new ImportResult(ImportFormat.CSV, batch.flashcards, batch.questions,
+                reader.getLineCount(), System.nanoTime() - start);
+        }
+    }
+
+    private ImportResult parse(ImportFormat format, List<String> head, BufferedReader reader, long start) throws IOException {
+        FormatParser parser = format.newParser();
+        List<Flashcard> flashcards = new ArrayList<>();
+        List<Question> questions = new ArrayList<>();
+        long lines = 0;
+
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        Deque<Future<ImportBatch>> inFlight = new ArrayDeque<>();
+        try {
+            List<String> chunk = new ArrayList<>(chunkLines);
+            Iterator<String> headLines = head.iterator();
+            String line;
+            while ((line = headLines.hasNext() ? headLines.next() : reader.readLine()) != null) {
+                lines++;
+                if (chunk.size() >= chunkLines && parser.isRecordStart(line)) {
+                    submit(parser, chunk, pool, inFlight, flashcards, questions);
+                    chunk = new ArrayList<>(chunkLines);
+                }
+                chunk.add(line);
+            }
+            submit(parser, chunk, pool, inFlight, flashcards, questions);
+
+            while (!inFlight.isEmpty()) {
+                collect(inFlight.poll(), flashcards, questions);
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
+        }
+
+        return new ImportResult(format, flashcards, questions, lines, System.nanoTime() - start);
+    }
+
+    private void submit(FormatParser parser, List<String> chunk, ExecutorService pool, Deque<Future<ImportBatch>> inFlight,
+                        List<Flashcard> flashcards, List<Question> questions) throws IOException {
+        if (chunk.isEmpty()) return;
+
+        if (pool == null) {
+            ImportBatch batch = new ImportBatch();
+            parser.parse(chunk, batch);
+            flashcards.addAll(batch.flashcards);
+            questions.addAll(batch.questions);
+            return;
+        }
+
+        inFlight.add(pool.submit(() -> {
+            ImportBatch batch = new ImportBatch();
+            parser.parse(chunk, batch);
+            return batch;
+        }));
+
+        // Bound memory: keep reading only while a couple of chunks per worker are pending
+        while (inFlight.size() > threads * 2) {
+            collect(inFlight.poll(), flashcards, questions);
+        }
+    }
+
+    private static void collect(Future<ImportBatch> future, List<Flashcard> flashcards, List<Question> questions) throws IOException {
+        try {
+            ImportBatch batch = future.get();
+            flashcards.addAll(batch.flashcards);
+            questions.addAll(batch.questions);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static BufferedReader newReader(Path path) throws IOException {
+        // Tolerate stray non-UTF-8 bytes instead of aborting the whole import
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(path), decoder), 1 << 16);
+    }
+}
@@ -0,0 +1,90 @@
+package importer;
+
+import java.util.List;
+
+/**
+ * Import file formats, detected once per file from its first lines
+ */
+public enum ImportFormat {
+    STUDYAPP("StudyApp export"),
+    ANKI("Anki (tab-separated)"),
+    CSV("CSV"),
+    SIMPLE("Simple (question;answer)");
+
+    private final String description;
+
+    ImportFormat(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Whether records are line-oriented and can be parsed in chunks
+     * CSV is not: quoted fields may span lines, so ImportEngine scans it sequentially with a
+     * CsvReader; its FormatParser never lets a chunk be cut and takes the whole file at once.
+     */
+    public boolean isLineBased() {
+        return this != CSV;
+    }
+
+    public FormatParser newParser() {
+        return switch (this) {
+            case STUDYAPP -> new StudyAppFormatParser();
+            case ANKI -> new AnkiFormatParser();
+            case CSV -> new CsvFormatParser();
+            case SIMPLE -> new SimpleFormatParser();
+        };
+    }
+
+    /**
+     * Detect the format from a sample of lines; null if nothing looks like a record
+     * StudyApp markers win outright, otherwise the most common line shape decides.
+     */
+    public static ImportFormat detect(List<String> sample) {
+        int tabs = 0;
+        int commas = 0;
+        int semicolons = 0;
+
+        for (String raw : sample) {
+            String line = raw.trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            if (line.equals(StudyAppFormatParser.CARD_MARKER) || line.equals(StudyAppFormatParser.QUESTION_MARKER)) {
+                return STUDYAPP;
+            }
+
+            // question;answer is checked before commas, whose prose answers often list things
+            // with commas; a semicolon inside a quoted CSV field does not count
+            if (line.indexOf('\t') >= 0) {
+                tabs++;
+            } else if (hasUnquotedSemicolon(line)) {
+                semicolons++;
+            } else if (count(line, ',') >= 3) {
+                commas++;
+            }
+        }
+
+        if (tabs == 0 && commas == 0 && semicolons == 0) return null;
+        if (tabs >= commas && tabs >= semicolons) return ANKI;
+        if (commas >= semicolons) return CSV;
+        return SIMPLE;
+    }
+
+    private static boolean hasUnquotedSemicolon(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') quoted = !quoted;
+            else if (c == ';' && !quoted) return true;
+        }
+        return false;
+    }
+
+    private static int count(String line, char c) {
+        int n = 0;
+        for (int i = line.indexOf(c); i >= 0; i = line.indexOf(c, i + 1)) n++;
+        return n;
+    }
+}
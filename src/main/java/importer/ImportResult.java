@@ -0,0 +1,50 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+import content.QuestionGenerator.Question;
+
+import java.util.List;
+
+/**
+ * Outcome of importing one file
+ */
+public class ImportResult {
+    private final ImportFormat format;
+    private final List<Flashcard> flashcards;
+    private final List<Question> questions;
+    private final long lines;
+    private final long elapsedNanos;
+
+    ImportResult(ImportFormat format, List<Flashcard> flashcards, List<Question> questions,
+                 long lines, long elapsedNanos) {
+        this.format = format;
+        this.flashcards = flashcards;
+        this.questions = questions;
+        this.lines = lines;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public List<Flashcard> getFlashcards() {
+        return flashcards;
+    }
+
+    public List<Question> getQuestions() {
+        return questions;
+    }
+
+    public long getLines() {
+        return lines;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    public long getLinesPerSecond() {
+        return elapsedNanos > 0 ? lines * 1_000_000_000L / elapsedNanos : lines;
+    }
+}
@@ -0,0 +1,25 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+
+import java.util.List;
+
+/**
+ * question;answer, one card per line
+ */
+class SimpleFormatParser implements FormatParser {
+
+    @Override
+    public void parse(List<String> lines, ImportBatch out) {
+        for (String line : lines) {
+            int separator = line.indexOf(';');
+            if (separator < 0 || line.indexOf('\t') >= 0) continue;
+
+            String front = line.substring(0, separator).trim();
+            String back = line.substring(separator + 1).trim();
+            if (!front.isEmpty() && !back.isEmpty()) {
+                out.add(new Flashcard("CUSTOM", "Imported", front, back, 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package importer;
+
+import content.FlashcardGenerator.Flashcard;
+import content.QuestionGenerator.Question;
+
+import java.util.List;
+
+/**
+ * StudyApp export format (see StudyApp.exportCustomContent)
+ *
+ *   ---CARD---                 ---QUESTION---
+ *   SUBJECT: ...               SUBJECT: ...
+ *   TOPIC: ...                 Q: ...
+ *   DIFFICULTY: 2              A: ... (B:, C:, D:)
+ *   FRONT:                     CORRECT: B
+ *   (lines)                    EXPLANATION: ...
+ *   BACK:
+ *   (lines)
+ *
+ * A record runs until the next marker, section header or end of input, so card
+ * texts may contain blank lines.
+ */
+class StudyAppFormatParser implements FormatParser {
+
+    static final String CARD_MARKER = "---CARD---";
+    static final String QUESTION_MARKER = "---QUESTION---";
+
+    private enum Field { NONE, FRONT, BACK }
+
+    @Override
+    public boolean isRecordStart(String line) {
+        String trimmed = line.trim();
+        return trimmed.equals(CARD_MARKER) || trimmed.equals(QUESTION_MARKER);
+    }
+
+    @Override
+    public void parse(List<String> lines, ImportBatch out) {
+        int i = 0;
+        int n = lines.size();
+        while (i < n) {
+            String marker = lines.get(i).trim();
+            int end = i + 1;
+            while (end < n && !isRecordStart(lines.get(end)) && !isSectionHeader(lines.get(end))) end++;
+
+            if (marker.equals(CARD_MARKER)) {
+                parseCard(lines, i + 1, end, out);
+            } else if (marker.equals(QUESTION_MARKER)) {
+                parseQuestion(lines, i + 1, end, out);
+            }
+            i = end;
+        }
+    }
+
+    private void parseCard(List<String> lines, int from, int to, ImportBatch out) {
+        String subject = "CUSTOM";
+        String topic = "Imported";
+        int difficulty = 2;
+        StringBuilder front = new StringBuilder();
+        StringBuilder back = new StringBuilder();
+        Field field = Field.NONE;
+
+        for (int i = from; i < to; i++) {
+            String line = lines.get(i);
+            String trimmed = line.trim();
+
+            if (field == Field.NONE) {
+                if (trimmed.startsWith("SUBJECT: ")) subject = trimmed.substring(9).trim();
+                else if (trimmed.startsWith("TOPIC: ")) topic = trimmed.substring(7).trim();
+                else if (trimmed.startsWith("DIFFICULTY: ")) difficulty = CsvFormatParser.parseDifficulty(trimmed.substring(12).trim());
+                else if (trimmed.equals("FRONT:")) field = Field.FRONT;
+            } else if (field == Field.FRONT && trimmed.equals("BACK:")) {
+                field = Field.BACK;
+            } else {
+                StringBuilder target = field == Field.FRONT ? front : back;
+                if (target.length() > 0) target.append('\n');
+                target.append(line);
+            }
+        }
+
+        String frontText = front.toString().trim();
+        String backText = back.toString().trim();
+        if (!frontText.isEmpty() && !backText.isEmpty()) {
+            out.add(new Flashcard(subject, topic, frontText, backText, difficulty));
+        }
+    }
+
+    private void parseQuestion(List<String> lines, int from, int to, ImportBatch out) {
+        String subject = "CUSTOM";
+        String question = "";
+        String[] options = {"", "", "", ""};
+        int correctIndex = 0;
+        String explanation = "";
+
+        for (int i = from; i < to; i++) {
+            String line = lines.get(i).trim();
+            if (line.startsWith("SUBJECT: ")) subject = line.substring(9).trim();
+            else if (line.startsWith("Q: ")) question = line.substring(3);
+            else if (line.startsWith("A: ")) options[0] = line.substring(3);
+            else if (line.startsWith("B: ")) options[1] = line.substring(3);
+            else if (line.startsWith("C: ")) options[2] = line.substring(3);
+            else if (line.startsWith("D: ")) options[3] = line.substring(3);
+            else if (line.startsWith("CORRECT: ") && line.length() > 9) correctIndex = Math.max(0, Math.min(3, line.charAt(9) - 'A'));
+            else if (line.startsWith("EXPLANATION: ")) explanation = line.substring(13);
+        }
+
+        if (!question.isEmpty()) {
+            out.add(new Question(subject, question, options, correctIndex, explanation));
+        }
+    }
+
+    private static boolean isSectionHeader(String line) {
+        String trimmed = line.trim();
+        return trimmed.equals("## FLASHCARDS") || trimmed.equals("## QUESTIONS");
+    }
+}
@@ -0,0 +1,87 @@
+package store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Off-heap store for long card texts, backed by a memory-mapped scratch file
+ * Texts are appended as UTF-8 into fixed-size mapped segments and addressed by a long handle
+ * (offset << 24 | length); they are decoded only when get() is called. The pages live in the
+ * OS page cache instead of the Java heap, so a large deck costs little heap for its answers.
+ * The file is temporary and deleted on exit; nothing here is persistent.
+ */
+public class CardTextStore implements TextStore, Closeable {
+
+    /** Texts longer than this are not stored; callers keep them on heap */
+    public static final int MAX_LENGTH = (1 << 24) - 1;
+
+    private static final int SEGMENT_SIZE = 1 << 26; // 64 MB, a multiple of MAX_LENGTH + 1
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private long end;
+
+    public CardTextStore() throws IOException {
+        file = Files.createTempFile("studyapp-texts", ".bin");
+        file.toFile().deleteOnExit();
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public synchronized long add(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_LENGTH) return -1;
+
+        // Records never straddle segments, so every read is one bulk get
+        long segmentEnd = (end / SEGMENT_SIZE + 1) * SEGMENT_SIZE;
+        if (end + bytes.length > segmentEnd) {
+            end = segmentEnd;
+        }
+        int index = (int) (end / SEGMENT_SIZE);
+        while (segments.size() <= index) {
+            segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * SEGMENT_SIZE, SEGMENT_SIZE));
+        }
+        segments.get(index).duplicate().position((int) (end % SEGMENT_SIZE)).put(bytes);
+
+        long handle = end << 24 | bytes.length;
+        end += bytes.length;
+        return handle;
+    }
+
+    @Override
+    public String get(long handle) {
+        long offset = handle >>> 24;
+        byte[] bytes = new byte[(int) (handle & MAX_LENGTH)];
+        MappedByteBuffer segment;
+        synchronized (this) {
+            segment = segments.get((int) (offset / SEGMENT_SIZE));
+        }
+        segment.get((int) (offset % SEGMENT_SIZE), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Bytes stored so far (including padding at segment ends)
+     */
+    public synchronized long size() {
+        return end;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        segments.clear(); // Mappings are released when collected
+        channel.close();
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Still mapped on some platforms; deleteOnExit takes care of it
+        }
+    }
+}
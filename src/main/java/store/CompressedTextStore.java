@@ -0,0 +1,233 @@
+package store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * In-heap text store that keeps each text DEFLATE-compressed against a shared preset dictionary
+ * Card texts are short, so compressing them one by one gains little on its own; a dictionary
+ * trained over the whole deck (recurring lines, bullet scaffolding, frequent phrases) gives
+ * every text the shared context up front. Texts are packed into one growing byte array, and
+ * recently displayed texts are served from a small LRU cache.
+ *
+ * Blob layout per text: i32 UTF-8 length, then the raw DEFLATE stream.
+ */
+public class CompressedTextStore implements TextStore {
+
+    public static final int DEFAULT_DICTIONARY_SIZE = 32 * 1024; // DEFLATE's window
+    public static final int DEFAULT_CACHE_SIZE = 64;
+
+    private static final int MAX_LENGTH = (1 << 24) - 1;
+
+    private final byte[] dictionary;
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+    private final Inflater inflater = new Inflater(true);
+    private final Map<Long, String> cache;
+
+    private byte[] blob = new byte[1 << 16];
+    private int blobLength;
+    private byte[] scratch = new byte[1 << 12];
+    private int count;
+    private long rawBytes;
+    private final long[] samples = new long[256]; // Reservoir of handles for measureDecodeMicros
+    private final Random random = new Random(42);
+
+    public CompressedTextStore(byte[] dictionary) {
+        this(dictionary, DEFAULT_CACHE_SIZE);
+    }
+
+    public CompressedTextStore(byte[] dictionary, int cacheSize) {
+        this.dictionary = dictionary;
+        this.cache = new LinkedHashMap<>(cacheSize * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    // ========== Dictionary training ==========
+
+    /**
+     * Build a preset dictionary from sample texts
+     * Candidates are whole lines and word trigrams that occur more than once, ranked by the bytes
+     * they would save ((count - 1) * length). The best ones go last, since DEFLATE codes nearer
+     * matches more cheaply.
+     */
+    public static byte[] trainDictionary(Iterable<String> samples, int maxSize) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String text : samples) {
+            if (text == null) continue;
+            for (String line : text.split("\n")) {
+                if (line.length() >= 4 && line.length() <= 160) {
+                    counts.merge(line + "\n", 1, Integer::sum);
+                }
+                String[] words = line.split(" ");
+                for (int i = 0; i + 2 < words.length; i++) {
+                    String gram = words[i] + " " + words[i + 1] + " " + words[i + 2] + " ";
+                    if (gram.length() >= 8) counts.merge(gram, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > 1) candidates.add(entry);
+        }
+        candidates.sort((a, b) -> Long.compare(score(b), score(a)));
+
+        List<String> chosen = new ArrayList<>();
+        int size = 0;
+        for (Map.Entry<String, Integer> candidate : candidates) {
+            String piece = candidate.getKey();
+            int length = piece.getBytes(StandardCharsets.UTF_8).length;
+            if (size + length > maxSize) continue;
+            chosen.add(piece);
+            size += length;
+            if (size >= maxSize - 8) break;
+        }
+
+        StringBuilder dictionary = new StringBuilder(size);
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            dictionary.append(chosen.get(i));
+        }
+        return dictionary.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long score(Map.Entry<String, Integer> entry) {
+        return (long) (entry.getValue() - 1) * entry.getKey().length();
+    }
+
+    // ========== Store ==========
+
+    @Override
+    public synchronized long add(String text) {
+        byte[] raw = text.getBytes(StandardCharsets.UTF_8);
+        if (raw.length > MAX_LENGTH) return -1;
+
+        deflater.reset();
+        deflater.setDictionary(dictionary);
+        deflater.setInput(raw);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == scratch.length) scratch = Arrays.copyOf(scratch, scratch.length * 2);
+            length += deflater.deflate(scratch, length, scratch.length - length);
+        }
+
+        int offset = blobLength;
+        ensureBlob(4 + length);
+        blob[offset] = (byte) (raw.length >>> 24);
+        blob[offset + 1] = (byte) (raw.length >>> 16);
+        blob[offset + 2] = (byte) (raw.length >>> 8);
+        blob[offset + 3] = (byte) raw.length;
+        System.arraycopy(scratch, 0, blob, offset + 4, length);
+        blobLength += 4 + length;
+
+        long handle = (long) offset << 24 | length;
+        if (count < samples.length) {
+            samples[count] = handle;
+        } else {
+            int slot = random.nextInt(count + 1);
+            if (slot < samples.length) samples[slot] = handle;
+        }
+        count++;
+        rawBytes += heapSize(text);
+        return handle;
+    }
+
+    @Override
+    public synchronized String get(long handle) {
+        String text = cache.get(handle);
+        if (text == null) {
+            text = decode(handle);
+            cache.put(handle, text);
+        }
+        return text;
+    }
+
+    /**
+     * Decode without touching the cache
+     */
+    public synchronized String decode(long handle) {
+        int offset = (int) (handle >>> 24);
+        int length = (int) (handle & MAX_LENGTH);
+        int rawLength = (blob[offset] & 0xFF) << 24 | (blob[offset + 1] & 0xFF) << 16
+            | (blob[offset + 2] & 0xFF) << 8 | (blob[offset + 3] & 0xFF);
+        byte[] raw = new byte[rawLength];
+
+        inflater.reset();
+        inflater.setDictionary(dictionary); // Raw streams take the dictionary up front
+        inflater.setInput(blob, offset + 4, length);
+        try {
+            int n = 0;
+            while (n < rawLength) {
+                int read = inflater.inflate(raw, n, rawLength - n);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) break;
+                n += read;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text at " + offset, e);
+        }
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    private void ensureBlob(int extra) {
+        if (blobLength + extra > blob.length) {
+            blob = Arrays.copyOf(blob, Math.max(blob.length * 2, blobLength + extra));
+        }
+    }
+
+    // ========== Statistics ==========
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Approximate heap the texts would take as Strings (compact Latin-1 or UTF-16 payload plus headers)
+     */
+    public synchronized long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * Heap used by the compressed texts, handles excluded
+     */
+    public synchronized long getCompressedBytes() {
+        return blobLength;
+    }
+
+    public int getDictionarySize() {
+        return dictionary.length;
+    }
+
+    /**
+     * Mean time to decode one text without the cache, over a sample of the stored texts
+     */
+    public synchronized double measureDecodeMicros() {
+        int n = Math.min(count, samples.length);
+        if (n == 0) return 0;
+        for (int i = 0; i < n; i++) {
+            decode(samples[i]); // Warm-up
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            decode(samples[i]);
+        }
+        return (System.nanoTime() - start) / 1000.0 / n;
+    }
+
+    private static long heapSize(String text) {
+        boolean latin1 = true;
+        for (int i = 0; i < text.length() && latin1; i++) {
+            latin1 = text.charAt(i) < 256;
+        }
+        // String object + byte[] header, 8-byte aligned
+        long payload = latin1 ? text.length() : text.length() * 2L;
+        return 24 + ((16 + payload + 7) & ~7);
+    }
+}
@@ -0,0 +1,93 @@
+package store;
+
+/**
+ * Set of 64-bit content fingerprints for rejecting duplicate cards and questions
+ * A fingerprint hashes the identifying fields, trimmed and case-folded, so re-importing a
+ * file or loading overlapping content is caught in O(1) without keeping the text around.
+ */
+public class ContentFingerprints {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char FIELD_SEPARATOR = '\u001F';
+
+    private final LongHashSet fingerprints = new LongHashSet(1024);
+
+    /**
+     * Fingerprint of a flashcard
+     */
+    public static long card(String subject, String topic, String front, String back) {
+        long h = FNV_OFFSET;
+        h = mix(h, subject);
+        h = mix(h, topic);
+        h = mix(h, front);
+        h = mix(h, back);
+        return finish(h);
+    }
+
+    /**
+     * Fingerprint of a quiz question (the explanation does not make it a different question)
+     */
+    public static long question(String subject, String question, String[] options) {
+        long h = FNV_OFFSET;
+        h = mix(h, subject);
+        h = mix(h, question);
+        for (String option : options) {
+            h = mix(h, option);
+        }
+        return finish(h);
+    }
+
+    /**
+     * Record a fingerprint; false if it is a duplicate
+     */
+    public boolean add(long fingerprint) {
+        return fingerprints.add(fingerprint);
+    }
+
+    public boolean contains(long fingerprint) {
+        return fingerprints.contains(fingerprint);
+    }
+
+    /**
+     * Forget a fingerprint
+     */
+    public boolean remove(long fingerprint) {
+        return fingerprints.remove(fingerprint);
+    }
+
+    public int size() {
+        return fingerprints.size();
+    }
+
+    /**
+     * Size the table for the given total number of entries, so a large import does not rehash
+     * the whole set again each time it doubles
+     */
+    public void ensureCapacity(int expectedSize) {
+        fingerprints.ensureCapacity(expectedSize);
+    }
+
+    private static long mix(long h, String value) {
+        if (value != null) {
+            int start = 0;
+            int end = value.length();
+            while (start < end && Character.isWhitespace(value.charAt(start))) start++;
+            while (end > start && Character.isWhitespace(value.charAt(end - 1))) end--;
+            for (int i = start; i < end; i++) {
+                h = (h ^ Character.toLowerCase(value.charAt(i))) * FNV_PRIME;
+            }
+        }
+        return (h ^ FIELD_SEPARATOR) * FNV_PRIME;
+    }
+
+    private static long finish(long h) {
+        // MurmurHash3 fmix64: spread FNV's weak low bits across the whole word
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,89 @@
+package store;
+
+import java.util.Arrays;
+
+/**
+ * Correct/attempt counts per node (a topic, a subject, ...) bucketed by day
+ * Each node gets a pair of Fenwick trees indexed from the first day it saw, so the counts of
+ * any day window are O(log days). Days are epoch days; a day before a node's first one
+ * rebases its trees, which only happens when counts are loaded out of order.
+ */
+public class DailyCounts {
+
+    /** Receives the non-empty days of a node */
+    public interface DayConsumer {
+        void accept(int day, int correct, int attempts);
+    }
+
+    private FenwickTree[] correct = new FenwickTree[16];
+    private FenwickTree[] attempts = new FenwickTree[16];
+    private int[] firstDay = new int[16];
+
+    public void add(int node, int day, int correctDelta, int attemptDelta) {
+        if (node >= correct.length) {
+            int capacity = Math.max(correct.length * 2, node + 1);
+            correct = Arrays.copyOf(correct, capacity);
+            attempts = Arrays.copyOf(attempts, capacity);
+            firstDay = Arrays.copyOf(firstDay, capacity);
+        }
+        if (correct[node] == null) {
+            correct[node] = new FenwickTree();
+            attempts[node] = new FenwickTree();
+            firstDay[node] = day;
+        }
+        if (day < firstDay[node]) rebase(node, day);
+        int index = day - firstDay[node];
+        if (correctDelta != 0) correct[node].add(index, correctDelta);
+        attempts[node].add(index, attemptDelta);
+    }
+
+    /**
+     * Correct answers of a node over fromDay..toDay (inclusive)
+     */
+    public int correct(int node, int fromDay, int toDay) {
+        return sum(correct, node, fromDay, toDay);
+    }
+
+    /**
+     * Attempts of a node over fromDay..toDay (inclusive)
+     */
+    public int attempts(int node, int fromDay, int toDay) {
+        return sum(attempts, node, fromDay, toDay);
+    }
+
+    public void forEachDay(int node, DayConsumer action) {
+        if (node >= correct.length || correct[node] == null) return;
+        FenwickTree nodeAttempts = attempts[node];
+        for (int i = 0; i < nodeAttempts.capacity(); i++) {
+            int n = nodeAttempts.get(i);
+            if (n != 0) action.accept(firstDay[node] + i, correct[node].get(i), n);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(correct, null);
+        Arrays.fill(attempts, null);
+    }
+
+    private void rebase(int node, int day) {
+        int shift = firstDay[node] - day;
+        FenwickTree oldCorrect = correct[node];
+        FenwickTree oldAttempts = attempts[node];
+        correct[node] = new FenwickTree(oldAttempts.capacity() + shift);
+        attempts[node] = new FenwickTree(oldAttempts.capacity() + shift);
+        for (int i = 0; i < oldAttempts.capacity(); i++) {
+            int n = oldAttempts.get(i);
+            if (n == 0) continue;
+            correct[node].add(i + shift, oldCorrect.get(i));
+            attempts[node].add(i + shift, n);
+        }
+        firstDay[node] = day;
+    }
+
+    private int sum(FenwickTree[] trees, int node, int fromDay, int toDay) {
+        if (node >= trees.length || trees[node] == null) return 0;
+        int base = firstDay[node];
+        if (toDay < base) return 0;
+        return trees[node].rangeSum(Math.max(0, fromDay - base), toDay - base);
+    }
+}
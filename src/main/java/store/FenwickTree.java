@@ -0,0 +1,67 @@
+package store;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree of int counts over indexes 0..capacity-1
+ * Point updates and prefix or range sums are O(log n). The capacity is a power of two and
+ * doubles on demand: the only new node covering old cells is the new root, which takes the
+ * old root's total, so growing is a single array copy.
+ */
+public class FenwickTree {
+
+    private int[] tree; // 1-based; tree[i] holds the sum of (i - lowbit(i), i]
+
+    public FenwickTree() {
+        this(16);
+    }
+
+    public FenwickTree(int capacity) {
+        tree = new int[Math.max(2, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1) + 1];
+    }
+
+    public int capacity() {
+        return tree.length - 1;
+    }
+
+    public void add(int index, int delta) {
+        if (index < 0) throw new IndexOutOfBoundsException("Negative index " + index);
+        while (index >= capacity()) grow();
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum of indexes 0..index (inclusive); indexes past the end count as the total
+     */
+    public int prefixSum(int index) {
+        int sum = 0;
+        for (int i = Math.min(index + 1, capacity()); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sum of indexes from..to (inclusive)
+     */
+    public int rangeSum(int from, int to) {
+        if (to < from) return 0;
+        return prefixSum(to) - prefixSum(from - 1);
+    }
+
+    public int get(int index) {
+        return rangeSum(index, index);
+    }
+
+    public void clear() {
+        Arrays.fill(tree, 0);
+    }
+
+    private void grow() {
+        int old = capacity();
+        tree = Arrays.copyOf(tree, old * 2 + 1);
+        tree[old * 2] = tree[old];
+    }
+}
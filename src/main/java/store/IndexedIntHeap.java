@@ -0,0 +1,170 @@
+package store;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int ids keyed by an int priority, with a position index per id
+ * Ids are small and dense (array indexes elsewhere), so the position table gives O(log n)
+ * insert, re-key and removal of any id. The k smallest are read off in O(k log k) without
+ * disturbing the heap. Ties are broken by the lower id.
+ */
+public class IndexedIntHeap {
+
+    private int[] heap = new int[16];     // Ids in heap order
+    private int[] priority = new int[16]; // By id
+    private int[] position = new int[16]; // By id; -1 if absent
+    private int size;
+
+    public IndexedIntHeap() {
+        Arrays.fill(position, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int id) {
+        return id < position.length && position[id] >= 0;
+    }
+
+    /**
+     * Insert an id or change its priority
+     */
+    public void put(int id, int newPriority) {
+        if (id >= position.length) {
+            int old = position.length;
+            int capacity = Math.max(old * 2, id + 1);
+            priority = Arrays.copyOf(priority, capacity);
+            position = Arrays.copyOf(position, capacity);
+            Arrays.fill(position, old, capacity, -1);
+        }
+        int i = position[id];
+        if (i < 0) {
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            priority[id] = newPriority;
+            heap[size] = id;
+            position[id] = size;
+            siftUp(size++);
+        } else {
+            int oldPriority = priority[id];
+            priority[id] = newPriority;
+            if (newPriority < oldPriority) siftUp(i);
+            else siftDown(i);
+        }
+    }
+
+    /**
+     * Remove an id; false if it was not in the heap
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) return false;
+        int i = position[id];
+        position[id] = -1;
+        int last = heap[--size];
+        if (i < size) {
+            heap[i] = last;
+            position[last] = i;
+            siftDown(i);
+            siftUp(position[last]);
+        }
+        return true;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Up to k ids with the smallest priorities, smallest first
+     * Walks the heap best-first from the root, keeping a frontier of at most k + 1 slots.
+     */
+    public int[] smallest(int k) {
+        int n = Math.min(k, size);
+        int[] result = new int[n];
+        if (n == 0) return result;
+
+        int[] frontier = new int[n + 1]; // Heap slots, themselves a min-heap
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        for (int found = 0; found < n; found++) {
+            int slot = frontier[0];
+            result[found] = heap[slot];
+
+            // Replace the taken slot by its left child (or the frontier's last entry), then add the right child
+            int left = 2 * slot + 1;
+            if (left < size) {
+                frontier[0] = left;
+            } else {
+                frontier[0] = frontier[--frontierSize];
+            }
+            if (frontierSize > 0) frontierDown(frontier, frontierSize, 0);
+            int right = left + 1;
+            if (right < size && frontierSize < frontier.length) {
+                frontier[frontierSize] = right;
+                frontierUp(frontier, frontierSize++);
+            }
+        }
+        return result;
+    }
+
+    // ========== Heap maintenance ==========
+
+    private boolean less(int a, int b) {
+        return priority[a] < priority[b] || (priority[a] == priority[b] && a < b);
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(id, heap[parent])) break;
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) child++;
+            if (!less(heap[child], id)) break;
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    private void frontierUp(int[] frontier, int i) {
+        int slot = frontier[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(heap[slot], heap[frontier[parent]])) break;
+            frontier[i] = frontier[parent];
+            i = parent;
+        }
+        frontier[i] = slot;
+    }
+
+    private void frontierDown(int[] frontier, int frontierSize, int i) {
+        int slot = frontier[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= frontierSize) break;
+            if (child + 1 < frontierSize && less(heap[frontier[child + 1]], heap[frontier[child]])) child++;
+            if (!less(heap[frontier[child]], heap[slot])) break;
+            frontier[i] = frontier[child];
+            i = child;
+        }
+        frontier[i] = slot;
+    }
+}
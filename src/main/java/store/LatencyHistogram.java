@@ -0,0 +1,71 @@
+package store;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear latency histogram in the style of HdrHistogram
+ * Values below 64 get a bucket each; above that every power of two is split into 32 equal
+ * buckets, so any recorded value is known to within about 3% whatever its magnitude. The
+ * bucket array grows only up to the largest value seen (a minute in microseconds needs ~700).
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS; // Buckets per power of two
+
+    private int[] counts = new int[2 * SUB_COUNT];
+    private long total;
+    private long max;
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        int index = bucket(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, index + 1));
+        }
+        counts[index]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    public long count() {
+        return total;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Value at a percentile (0-100): the highest value in the bucket that reaches it, 0 when empty
+     */
+    public long percentile(double percentile) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestInBucket(i));
+        }
+        return max;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    static int bucket(long value) {
+        if (value < 2 * SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS; // value >>> shift is in [32, 63]
+        return shift * SUB_COUNT + (int) (value >>> shift);
+    }
+
+    static long highestInBucket(int index) {
+        if (index < 2 * SUB_COUNT) return index;
+        int shift = index / SUB_COUNT - 1;
+        long mantissa = index - (long) shift * SUB_COUNT;
+        return ((mantissa + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,139 @@
+package store;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing hash set of primitive longs
+ * Linear probing over a power-of-two table; no boxing, one array. Deletion uses backward
+ * shifting, so there are no tombstones and lookups stay short after many removals.
+ * The value 0 marks a free slot and is tracked separately.
+ */
+public class LongHashSet {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        table = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long value) {
+        if (value == 0) return containsZero;
+        for (int i = slot(value); ; i = (i + 1) & mask) {
+            long current = table[i];
+            if (current == value) return true;
+            if (current == 0) return false;
+        }
+    }
+
+    /**
+     * Add a value; false if it was already present
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (containsZero) return false;
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(value);
+        for (long current; (current = table[i]) != 0; i = (i + 1) & mask) {
+            if (current == value) return false;
+        }
+        table[i] = value;
+        if (++size > table.length * LOAD_FACTOR) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Remove a value; false if it was not present
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!containsZero) return false;
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int i = slot(value);
+        for (long current; (current = table[i]) != value; i = (i + 1) & mask) {
+            if (current == 0) return false;
+        }
+        size--;
+
+        // Shift later entries of the probe run back into the gap
+        int gap = i;
+        for (int j = (gap + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+            int home = slot(table[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                table[gap] = table[j];
+                gap = j;
+            }
+        }
+        table[gap] = 0;
+        return true;
+    }
+
+    /**
+     * Grow the table once so it holds expectedSize values without further resizing
+     */
+    public void ensureCapacity(int expectedSize) {
+        int capacity = capacityFor(expectedSize);
+        if (capacity > table.length) rehash(capacity);
+    }
+
+    public void forEach(LongConsumer action) {
+        if (containsZero) action.accept(0);
+        for (long value : table) {
+            if (value != 0) action.accept(value);
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(table, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    private void grow() {
+        rehash(table.length * 2);
+    }
+
+    private void rehash(int capacity) {
+        long[] old = table;
+        table = new long[capacity];
+        mask = table.length - 1;
+        for (long value : old) {
+            if (value == 0) continue;
+            int i = slot(value);
+            while (table[i] != 0) i = (i + 1) & mask;
+            table[i] = value;
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+    }
+
+    private int slot(long value) {
+        // Values are already well-mixed hashes; fold the high bits in for other callers
+        return (int) (value ^ (value >>> 32)) & mask;
+    }
+}
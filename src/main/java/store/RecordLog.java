@@ -0,0 +1,469 @@
+package store;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Append-only binary log of records keyed by a numeric record id
+ * Every change is one appended record: a put adds or replaces a record's fields, a delete is a
+ * tombstone. Opening the log replays it sequentially; the last version of each id wins. When
+ * superseded versions and tombstones outweigh the live records, the log is compacted on a
+ * background thread: live records are written to a temporary file, anything appended meanwhile
+ * is copied over, and the file is swapped in atomically.
+ *
+ * Layout (big-endian):
+ *   magic "SARL", u16 version, i32 live count, i32 record count (updated on close and compaction)
+ *   'P' i64 id u8 fieldCount fields...   put
+ *   'D' i64 id                           delete
+ * Every field is an i32 byte length followed by UTF-8 bytes. The counts only pre-size the
+ * replay; records are read to the end of the file, and a torn last record is cut off, as is a
+ * tail of garbage left by a crash (after backing the file up).
+ * In memory only the file offset of each live record is kept; fields are decoded from the
+ * file when visited, and compaction copies raw record bytes. Reads go through a window buffer
+ * with positional channel reads rather than a mapping, so logs may exceed 2 GB and the file can
+ * be truncated or replaced right away (Windows refuses both while a mapping is alive).
+ *
+ * Files in the older text format (one record per line) are migrated once on open, using a
+ * caller-supplied parser for the lines.
+ */
+public class RecordLog implements Closeable {
+
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'S', 'A', 'R', 'L'};
+    private static final int HEADER_SIZE = MAGIC.length + 2 + 4 + 4;
+    private static final int COUNTS_OFFSET = MAGIC.length + 2;
+    private static final byte PUT = 'P';
+    private static final byte DELETE = 'D';
+
+    private static final int COMPACT_MIN_GARBAGE = 256;
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "record-log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path path;
+    private Map<Long, Long> live; // Record id -> offset of its latest version
+    private DataOutputStream out;
+    private long size;
+    private long nextId = 1;
+    private long records;
+    private int generation; // Bumped by clear(), which invalidates a running compaction
+    private boolean compacting;
+    private boolean closed;
+
+    private RecordLog(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Open (or create) a log, replaying it
+     * legacyParser turns a line of an old text file into fields, or null to drop the line.
+     */
+    public static RecordLog open(Path path, Function<String, String[]> legacyParser) throws IOException {
+        RecordLog log = new RecordLog(path);
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            writeSnapshot(path, Collections.emptyMap());
+        } else if (!startsWithMagic(path)) {
+            migrate(path, legacyParser);
+        }
+        log.replay();
+        log.out = newAppender(path);
+        return log;
+    }
+
+    /**
+     * Visit live records in order of their first appearance
+     */
+    public synchronized void forEach(BiConsumer<Long, String[]> action) throws IOException {
+        if (live.isEmpty()) return;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            FileWindow in = new FileWindow(channel, size);
+            for (Map.Entry<Long, Long> record : live.entrySet()) {
+                long position = record.getValue() + 1 + 8;
+                String[] fields = new String[in.at(position++, 1).get() & 0xFF];
+                for (int i = 0; i < fields.length; i++) {
+                    int length = fieldLength(in, position);
+                    ByteBuffer bytes = in.at(position + 4, length);
+                    fields[i] = new String(bytes.array(), bytes.position(), length, StandardCharsets.UTF_8);
+                    position += 4 + length;
+                }
+                action.accept(record.getKey(), fields);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return live.size();
+    }
+
+    /**
+     * Append a new record, returning its id
+     */
+    public synchronized long add(String... fields) throws IOException {
+        long id = nextId++;
+        put(id, fields);
+        return id;
+    }
+
+    /**
+     * Append several records with a single flush, returning their ids
+     */
+    public synchronized long[] addAll(List<String[]> batch) throws IOException {
+        ensureOpen();
+        long[] ids = new long[batch.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = nextId++;
+            live.put(ids[i], size);
+            size += writePut(out, ids[i], batch.get(i));
+        }
+        records += ids.length;
+        out.flush();
+        return ids;
+    }
+
+    /**
+     * Append a new version of a record
+     */
+    public synchronized void put(long id, String... fields) throws IOException {
+        ensureOpen();
+        long offset = size;
+        size += writePut(out, id, fields);
+        out.flush();
+        live.put(id, offset);
+        nextId = Math.max(nextId, id + 1);
+        records++;
+        maybeCompact();
+    }
+
+    /**
+     * Append a tombstone for a record
+     */
+    public synchronized void delete(long id) throws IOException {
+        ensureOpen();
+        if (live.remove(id) == null) return;
+        out.writeByte(DELETE);
+        out.writeLong(id);
+        out.flush();
+        size += 1 + 8;
+        records++;
+        maybeCompact();
+    }
+
+    /**
+     * Drop every record by starting a fresh log
+     */
+    public synchronized void clear() throws IOException {
+        ensureOpen();
+        generation++;
+        out.close();
+        writeSnapshot(path, Collections.emptyMap());
+        live.clear();
+        size = HEADER_SIZE;
+        records = 0;
+        out = newAppender(path);
+    }
+
+    /**
+     * Superseded versions and tombstones still in the file
+     */
+    public synchronized long getGarbage() {
+        return records - live.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        out.close();
+        writeCounts(path, live.size(), records);
+    }
+
+    // ========== Replay ==========
+
+    private void replay() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fileSize = channel.size();
+            FileWindow in = new FileWindow(channel, fileSize);
+            ByteBuffer header = in.at(0, HEADER_SIZE);
+            header.position(header.position() + MAGIC.length);
+            int version = header.getShort() & 0xFFFF;
+            if (version != VERSION) {
+                throw new IOException("Unsupported record log version " + version + ": " + path);
+            }
+            int liveHint = header.getInt();
+            header.getInt(); // Record count, informational
+
+            // Only ids and offsets are needed here; fields are skipped by their lengths
+            live = new LinkedHashMap<>(Math.max(16, (int) (liveHint / 0.75f) + 1));
+            long position = HEADER_SIZE;
+            try {
+                while (position < fileSize) {
+                    ByteBuffer record = in.at(position, 1 + 8);
+                    byte tag = record.get();
+                    long id = record.getLong();
+                    long next = position + 1 + 8;
+                    if (tag == PUT) {
+                        int fieldCount = in.at(next++, 1).get() & 0xFF;
+                        for (int i = 0; i < fieldCount; i++) {
+                            next += 4 + fieldLength(in, next);
+                        }
+                        if (next > fileSize) throw new EOFException();
+                        live.put(id, position);
+                        nextId = Math.max(nextId, id + 1);
+                    } else if (tag == DELETE) {
+                        live.remove(id);
+                    } else {
+                        // The file grew but the data never reached the disk (zeros or garbage);
+                        // keep a copy of everything, then drop the tail like a torn record
+                        Path backup = path.resolveSibling(path.getFileName() + ".corrupt.bak");
+                        Files.copy(path, backup, StandardCopyOption.REPLACE_EXISTING);
+                        System.err.println("Record log " + path + " has a corrupt tail at byte " + position
+                            + " (unexpected record '" + (char) tag + "'); dropped it, original kept as " + backup);
+                        throw new EOFException();
+                    }
+                    records++;
+                    position = next;
+                }
+            } catch (EOFException e) {
+                // A crash mid-append leaves a partial last record; drop it so appends start clean
+                channel.truncate(position);
+            }
+            size = position;
+        }
+    }
+
+    /**
+     * Length of the field at position; EOFException if it runs past the end of the file
+     */
+    private static int fieldLength(FileWindow in, long position) throws IOException {
+        int length = in.at(position, 4).getInt();
+        if (length < 0 || position + 4 + length > in.fileSize) throw new EOFException();
+        return length;
+    }
+
+    // ========== Migration ==========
+
+    /**
+     * One-time conversion of a text file (one record per line) to the binary format
+     */
+    private static void migrate(Path path, Function<String, String[]> legacyParser) throws IOException {
+        byte[] data = Files.readAllBytes(path);
+        Map<Long, String[]> records = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(data), StandardCharsets.UTF_8));
+        long nextId = 1;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isEmpty()) continue;
+            String[] fields = legacyParser.apply(line);
+            if (fields != null) records.put(nextId++, fields);
+        }
+
+        // Keep the original next to the converted file in case anything went wrong
+        Files.write(path.resolveSibling(path.getFileName() + ".txt.bak"), data);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        writeSnapshot(tmp, records);
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // ========== Compaction ==========
+
+    private void maybeCompact() {
+        long garbage = records - live.size();
+        if (!compacting && garbage >= COMPACT_MIN_GARBAGE && garbage > live.size()) {
+            compacting = true;
+            COMPACTOR.execute(this::compact);
+        }
+    }
+
+    private void compact() {
+        Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            Map<Long, Long> snapshot;
+            long snapshotRecords;
+            long snapshotSize;
+            int snapshotGeneration;
+            synchronized (this) {
+                if (closed) return;
+                out.flush();
+                snapshot = new LinkedHashMap<>(live);
+                snapshotRecords = records;
+                snapshotSize = size;
+                snapshotGeneration = generation;
+            }
+
+            // The slow part runs without the lock, so appends are not held up: copy the raw
+            // bytes of each live record, remembering where it lands in the new file
+            Map<Long, Long> moved = new HashMap<>(Math.max(16, (int) (snapshot.size() / 0.75f) + 1));
+            long compactedSize;
+            try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                 DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+                FileWindow in = new FileWindow(source, snapshotSize);
+                writeHeader(file, snapshot.size(), snapshot.size());
+                long position = HEADER_SIZE;
+                for (Map.Entry<Long, Long> record : snapshot.entrySet()) {
+                    long start = record.getValue();
+                    int length = recordLength(in, start);
+                    ByteBuffer bytes = in.at(start, length);
+                    file.write(bytes.array(), bytes.position(), length);
+                    moved.put(record.getKey(), position);
+                    position += length;
+                }
+                compactedSize = position;
+            }
+
+            synchronized (this) {
+                if (closed || generation != snapshotGeneration) return;
+                out.flush();
+                try (FileChannel source = FileChannel.open(path, StandardOpenOption.READ);
+                     FileChannel target = FileChannel.open(tmp, StandardOpenOption.APPEND)) {
+                    long position = snapshotSize;
+                    while (position < size) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                    target.force(true);
+                }
+                out.close();
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                out = newAppender(path);
+
+                // Records appended during compaction moved with the tail; the rest were copied
+                long shift = compactedSize - snapshotSize;
+                for (Map.Entry<Long, Long> record : live.entrySet()) {
+                    long offset = record.getValue();
+                    record.setValue(offset >= snapshotSize ? offset + shift : moved.get(record.getKey()));
+                }
+                size += shift;
+                records = snapshot.size() + (records - snapshotRecords);
+            }
+        } catch (IOException e) {
+            // The original log is untouched; try again after the next change
+            System.err.println("Compaction of " + path + " failed: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static int recordLength(FileWindow in, long start) throws IOException {
+        if (in.at(start, 1).get() == DELETE) return 1 + 8;
+        long position = start + 1 + 8;
+        int fieldCount = in.at(position++, 1).get() & 0xFF;
+        for (int i = 0; i < fieldCount; i++) {
+            position += 4 + fieldLength(in, position);
+        }
+        return Math.toIntExact(position - start);
+    }
+
+    // ========== File helpers ==========
+
+    private static void writeSnapshot(Path target, Map<Long, String[]> records) throws IOException {
+        try (DataOutputStream file = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 1 << 16))) {
+            writeHeader(file, records.size(), records.size());
+            for (Map.Entry<Long, String[]> record : records.entrySet()) {
+                writePut(file, record.getKey(), record.getValue());
+            }
+        }
+    }
+
+    private static void writeHeader(DataOutputStream file, int live, int records) throws IOException {
+        file.write(MAGIC);
+        file.writeShort(VERSION);
+        file.writeInt(live);
+        file.writeInt(records);
+    }
+
+    /**
+     * Write a put record, returning its size in bytes
+     */
+    private static int writePut(DataOutputStream file, long id, String[] fields) throws IOException {
+        if (fields.length > 255) throw new IOException("Too many fields: " + fields.length);
+        file.writeByte(PUT);
+        file.writeLong(id);
+        file.writeByte(fields.length);
+        int length = 1 + 8 + 1;
+        for (String field : fields) {
+            byte[] bytes = (field != null ? field : "").getBytes(StandardCharsets.UTF_8);
+            file.writeInt(bytes.length);
+            file.write(bytes);
+            length += 4 + bytes.length;
+        }
+        return length;
+    }
+
+    private static void writeCounts(Path path, int live, long records) throws IOException {
+        ByteBuffer counts = ByteBuffer.allocate(8);
+        counts.putInt(live).putInt((int) Math.min(records, Integer.MAX_VALUE)).flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(counts, COUNTS_OFFSET);
+        }
+    }
+
+    private static boolean startsWithMagic(Path path) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        try (InputStream in = Files.newInputStream(path)) {
+            return in.readNBytes(magic, 0, magic.length) == magic.length && Arrays.equals(magic, MAGIC);
+        }
+    }
+
+    private static DataOutputStream newAppender(Path path) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 14));
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) throw new IOException("Record log is closed: " + path);
+    }
+
+    /**
+     * Positional reads through a reusable heap buffer
+     * Access that moves mostly forward, as replay, forEach and compaction do, costs one channel
+     * read per window; a record larger than the window grows it.
+     */
+    private static class FileWindow {
+
+        private final FileChannel channel;
+        private final long fileSize;
+        private ByteBuffer window = ByteBuffer.allocate(1 << 16);
+        private long windowStart;
+
+        FileWindow(FileChannel channel, long fileSize) {
+            this.channel = channel;
+            this.fileSize = fileSize;
+            window.limit(0);
+        }
+
+        /**
+         * The buffer positioned at offset with at least length bytes remaining
+         */
+        ByteBuffer at(long offset, int length) throws IOException {
+            if (offset < windowStart || offset + length > windowStart + window.limit()) {
+                if (offset + length > fileSize) throw new EOFException();
+                if (window.capacity() < length) window = ByteBuffer.allocate(Math.max(length, window.capacity() * 2));
+                window.clear();
+                window.limit((int) Math.min(window.capacity(), fileSize - offset));
+                while (window.hasRemaining()) {
+                    if (channel.read(window, offset + window.position()) < 0) throw new EOFException();
+                }
+                window.flip();
+                windowStart = offset;
+            }
+            window.position((int) (offset - windowStart));
+            return window;
+        }
+    }
+}
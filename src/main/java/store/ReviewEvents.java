@@ -0,0 +1,381 @@
+package store;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Columnar store of review events (one answer each): time, card, topic, correctness,
+ * response time and study mode
+ * Every attribute is its own primitive array, so a query touches only the columns it needs
+ * and scans them in tight loops: filters compact a selection vector without branching on
+ * each row, and group-bys fill a key vector first and then accumulate into plain arrays.
+ *
+ * On disk the events are a sequence of segments, each appended when the app saves:
+ * magic "SARE", u16 version, i32 count, i32 key count, keys as UTF, then each column in turn
+ * (i64 time, i64 card, i32 key index, i32 response ms, u8 correct, u8 mode).
+ */
+public class ReviewEvents {
+
+    private static final int MAGIC = 0x53415245; // "SARE"
+    private static final int VERSION = 1;
+    private static final long HOUR = 3_600_000L;
+    private static final long DAY = 24 * HOUR;
+    private static final int EVENT_BYTES = 8 + 8 + 4 + 4 + 1 + 1;
+
+    private long[] time = new long[1024];   // Epoch millis
+    private long[] card = new long[1024];   // Content fingerprint
+    private int[] topic = new int[1024];    // Caller's topic id
+    private int[] response = new int[1024]; // Milliseconds
+    private byte[] correct = new byte[1024];
+    private byte[] mode = new byte[1024];
+    private int size;
+    private int saved; // Events already written to a segment
+
+    public int size() {
+        return size;
+    }
+
+    public void add(long timeMillis, long cardFingerprint, int topicId, boolean isCorrect, int responseMillis, int studyMode) {
+        if (size == time.length) {
+            int capacity = size * 2;
+            time = Arrays.copyOf(time, capacity);
+            card = Arrays.copyOf(card, capacity);
+            topic = Arrays.copyOf(topic, capacity);
+            response = Arrays.copyOf(response, capacity);
+            correct = Arrays.copyOf(correct, capacity);
+            mode = Arrays.copyOf(mode, capacity);
+        }
+        time[size] = timeMillis;
+        card[size] = cardFingerprint;
+        topic[size] = topicId;
+        response[size] = responseMillis;
+        correct[size] = (byte) (isCorrect ? 1 : 0);
+        mode[size] = (byte) studyMode;
+        size++;
+    }
+
+    public int topic(int row) {
+        return topic[row];
+    }
+
+    public int responseMillis(int row) {
+        return response[row];
+    }
+
+    /**
+     * A query over all events so far
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    // ========== Segments ==========
+
+    /**
+     * Append the events added since the last save (or load) as one segment
+     */
+    public void appendSegment(Path path, IntFunction<String> topicKey) throws IOException {
+        int count = size - saved;
+        if (count == 0) return;
+
+        // Topic ids are per session; the segment carries its own key table
+        Map<Integer, Integer> keyIndex = new LinkedHashMap<>();
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = keyIndex.computeIfAbsent(topic[saved + i], k -> keyIndex.size());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(count);
+            out.writeInt(keyIndex.size());
+            for (int id : keyIndex.keySet()) {
+                out.writeUTF(topicKey.apply(id));
+            }
+            for (int i = saved; i < size; i++) out.writeLong(time[i]);
+            for (int i = saved; i < size; i++) out.writeLong(card[i]);
+            for (int i = 0; i < count; i++) out.writeInt(keys[i]);
+            for (int i = saved; i < size; i++) out.writeInt(response[i]);
+            out.write(correct, saved, count);
+            out.write(mode, saved, count);
+        }
+        saved = size;
+    }
+
+    /**
+     * Read every segment of a file
+     * A truncated or corrupt tail (left by an interrupted save) is cut off the file, so the next
+     * appended segment starts right after the last good one instead of behind unreadable bytes.
+     */
+    public void load(Path path, ToIntFunction<String> topicId) throws IOException {
+        if (!Files.exists(path)) return;
+        long fileSize = Files.size(path);
+        long goodEnd = 0; // End of the last complete segment
+        try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+             DataInputStream in = new DataInputStream(counter)) {
+            while (goodEnd < fileSize) {
+                try {
+                    if (in.readInt() != MAGIC) {
+                        if (goodEnd == 0) throw new IOException("Not a review event segment: " + path);
+                        break;
+                    }
+                    int version = in.readUnsignedShort();
+                    if (version > VERSION) throw new IOException("Unsupported review event version " + version);
+                    if (!readSegment(in, topicId, fileSize - counter.count)) break;
+                } catch (EOFException truncated) {
+                    break; // Interrupted while saving
+                }
+                goodEnd = counter.count;
+            }
+        }
+        if (goodEnd < fileSize) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(goodEnd);
+            }
+        }
+        saved = size;
+    }
+
+    /**
+     * Read one segment's body and add its events; false if it is corrupt (nothing is added then)
+     */
+    private boolean readSegment(DataInputStream in, ToIntFunction<String> topicId, long remaining) throws IOException {
+        int count = in.readInt();
+        int keyCount = in.readInt();
+        if (count < 0 || keyCount < 0 || (long) count * EVENT_BYTES + keyCount * 2L > remaining) {
+            throw new EOFException(); // Cut short, or a garbage header that would read past the end
+        }
+        int[] ids = new int[keyCount];
+        for (int k = 0; k < ids.length; k++) {
+            ids[k] = topicId.applyAsInt(in.readUTF());
+        }
+
+        long[] t = new long[count];
+        long[] c = new long[count];
+        int[] k = new int[count];
+        int[] r = new int[count];
+        byte[] ok = new byte[count];
+        byte[] m = new byte[count];
+        for (int i = 0; i < count; i++) t[i] = in.readLong();
+        for (int i = 0; i < count; i++) c[i] = in.readLong();
+        for (int i = 0; i < count; i++) {
+            k[i] = in.readInt();
+            if (k[i] < 0 || k[i] >= ids.length) return false;
+        }
+        for (int i = 0; i < count; i++) r[i] = in.readInt();
+        in.readFully(ok);
+        in.readFully(m);
+
+        for (int i = 0; i < count; i++) {
+            add(t[i], c[i], ids[k[i]], ok[i] != 0, r[i], m[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Bytes consumed through it, i.e. the position in the file above any read-ahead buffer
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int n = super.read(bytes, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    // ========== Queries ==========
+
+    /**
+     * A filtered view of the events, narrowed by chained filters and then grouped
+     * Only the rows present when the query was created are seen.
+     */
+    public class Query {
+
+        private int[] rows; // Selection vector; null while every row is selected
+        private int count = size;
+
+        public int count() {
+            return count;
+        }
+
+        /**
+         * Keep events from fromMillis (inclusive) to toMillis (exclusive)
+         */
+        public Query between(long fromMillis, long toMillis) {
+            int[] selection = selection();
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int i = selection[k];
+                long t = time[i];
+                selection[n] = i;
+                n += (t >= fromMillis & t < toMillis) ? 1 : 0;
+            }
+            count = n;
+            return this;
+        }
+
+        public Query mode(int studyMode) {
+            int[] selection = selection();
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int i = selection[k];
+                selection[n] = i;
+                n += mode[i] == studyMode ? 1 : 0;
+            }
+            count = n;
+            return this;
+        }
+
+        public Query topic(int topicId) {
+            int[] selection = selection();
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int i = selection[k];
+                selection[n] = i;
+                n += topic[i] == topicId ? 1 : 0;
+            }
+            count = n;
+            return this;
+        }
+
+        public Groups total() {
+            return aggregate(new int[count], 1);
+        }
+
+        public Groups groupByMode(int modes) {
+            int[] keys = new int[count];
+            if (rows == null) {
+                for (int i = 0; i < count; i++) keys[i] = mode[i];
+            } else {
+                for (int k = 0; k < count; k++) keys[k] = mode[rows[k]];
+            }
+            return aggregate(keys, modes);
+        }
+
+        public Groups groupByTopic(int topics) {
+            int[] keys = new int[count];
+            if (rows == null) {
+                System.arraycopy(topic, 0, keys, 0, count);
+            } else {
+                for (int k = 0; k < count; k++) keys[k] = topic[rows[k]];
+            }
+            return aggregate(keys, topics);
+        }
+
+        /**
+         * 24 groups, one per hour of the day in the given offset
+         */
+        public Groups groupByHourOfDay(ZoneOffset offset) {
+            long shift = offset.getTotalSeconds() * 1000L;
+            int[] keys = new int[count];
+            if (rows == null) {
+                for (int i = 0; i < count; i++) keys[i] = (int) (Math.floorMod(time[i] + shift, DAY) / HOUR);
+            } else {
+                for (int k = 0; k < count; k++) keys[k] = (int) (Math.floorMod(time[rows[k]] + shift, DAY) / HOUR);
+            }
+            return aggregate(keys, 24);
+        }
+
+        /**
+         * Fixed-width time buckets starting at fromMillis; events outside the buckets are left out
+         */
+        public Groups groupByTimeBucket(long fromMillis, long bucketMillis, int buckets) {
+            between(fromMillis, fromMillis + bucketMillis * buckets);
+            int[] keys = new int[count];
+            int[] selection = selection();
+            for (int k = 0; k < count; k++) {
+                keys[k] = (int) ((time[selection[k]] - fromMillis) / bucketMillis);
+            }
+            return aggregate(keys, buckets);
+        }
+
+        private int[] selection() {
+            if (rows == null) {
+                rows = new int[count];
+                for (int i = 0; i < count; i++) rows[i] = i;
+            }
+            return rows;
+        }
+
+        private Groups aggregate(int[] keys, int groups) {
+            Groups result = new Groups(groups);
+            if (rows == null) {
+                for (int i = 0; i < count; i++) {
+                    int g = keys[i];
+                    result.count[g]++;
+                    result.correct[g] += correct[i];
+                    result.responseMillis[g] += response[i];
+                }
+            } else {
+                for (int k = 0; k < count; k++) {
+                    int g = keys[k];
+                    int i = rows[k];
+                    result.count[g]++;
+                    result.correct[g] += correct[i];
+                    result.responseMillis[g] += response[i];
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Per-group event counts, correct answers and summed response times
+     */
+    public static class Groups {
+
+        public final int[] count;
+        public final int[] correct;
+        public final long[] responseMillis;
+
+        Groups(int groups) {
+            count = new int[groups];
+            correct = new int[groups];
+            responseMillis = new long[groups];
+        }
+
+        public int size() {
+            return count.length;
+        }
+
+        /**
+         * Percent correct in a group, -1 if it is empty
+         */
+        public int accuracy(int group) {
+            return count[group] > 0 ? correct[group] * 100 / count[group] : -1;
+        }
+
+        public long meanResponseMillis(int group) {
+            return count[group] > 0 ? responseMillis[group] / count[group] : 0;
+        }
+    }
+}
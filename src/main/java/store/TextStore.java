@@ -0,0 +1,20 @@
+package store;
+
+import java.io.IOException;
+
+/**
+ * Out-of-line storage for card texts, addressed by handles
+ * Lets the app keep only a long per card on heap and decode the text when it is displayed.
+ */
+public interface TextStore {
+
+    /**
+     * Store a text, returning its handle, or -1 if this store cannot hold it
+     */
+    long add(String text) throws IOException;
+
+    /**
+     * Decode a stored text
+     */
+    String get(long handle);
+}
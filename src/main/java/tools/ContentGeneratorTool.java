@@ -72,14 +72,16 @@ public class ContentGeneratorTool {
             // ========== STEP 5: Export Markdown Scriptums ==========
             System.out.println("========== STEP 5: Exporting Markdown Scriptums ==========");
             MarkdownExporter mdExporter = new MarkdownExporter();
+            MarkdownExporter.TopicIndex topicIndex = mdExporter.buildIndex(content, flashcards);
+            List<String> sections = mdExporter.renderSections(topicIndex);
 
             // Single comprehensive scriptum
             String singleScriptumPath = parsedDir + "/BSYS-Complete-Scriptum.md";
-            mdExporter.exportSingleScriptum(content, flashcards, singleScriptumPath);
+            mdExporter.exportSingleScriptum(topicIndex, sections, singleScriptumPath);
 
             // Multiple topic-based scriptums
             String scriptumsDir = parsedDir + "/scriptums";
-            mdExporter.exportMultipleScriptums(content, flashcards, scriptumsDir);
+            mdExporter.exportMultipleScriptums(topicIndex, sections, scriptumsDir);
             System.out.println();
 
             // ========== STEP 6: Generate HTML Website ==========
@@ -97,13 +99,19 @@ public class ContentGeneratorTool {
 
             // Also create enhanced version
             ankiExporter.exportToAnkiEnhanced(flashcards, ankiPath);
+
+            // Native package with one deck per topic
+            ApkgExporter apkgExporter = new ApkgExporter();
+            String apkgPath = parsedDir + "/BSYS-Anki-Deck.apkg";
+            apkgExporter.exportToApkg(flashcards, apkgPath);
+            System.out.println("✓ Verified Anki package: " + apkgExporter.verifyApkg(apkgPath) + " notes read back");
             System.out.println();
 
-            // ========== STEP 8: Generate StudyApp Integration Code ==========
-            System.out.println("========== STEP 8: Generating StudyApp Integration Code ==========");
+            // ========== STEP 8: Generate StudyApp Content Pack ==========
+            System.out.println("========== STEP 8: Generating StudyApp Content Pack ==========");
             StudyAppCodeGenerator codeGen = new StudyAppCodeGenerator();
-            String codeOutputPath = parsedDir + "/studyapp_additions.txt";
-            codeGen.generateCode(flashcards, questions, codeOutputPath);
+            String packOutputPath = parsedDir + "/bsys-generated" + ContentPack.EXTENSION;
+            codeGen.generateContentPack(flashcards, questions, packOutputPath);
             System.out.println();
 
             // ========== Summary ==========
@@ -117,22 +125,23 @@ public class ContentGeneratorTool {
             System.out.println("  ✓ 1 comprehensive markdown scriptum");
             System.out.println("  ✓ " + content.getTopics().size() + " topic-specific markdown files");
             System.out.println("  ✓ HTML website with " + content.getTopics().size() + " pages");
-            System.out.println("  ✓ Anki export files (standard + enhanced)");
-            System.out.println("  ✓ StudyApp integration code generated");
+            System.out.println("  ✓ Anki export files (standard + enhanced + .apkg package)");
+            System.out.println("  ✓ StudyApp content pack generated");
 
             System.out.println("\nGenerated files in: " + parsedDir);
             System.out.println("  📄 BSYS-Complete-Scriptum.md - Single comprehensive study guide");
             System.out.println("  📁 scriptums/ - Individual topic markdown files");
             System.out.println("  🌐 website/ - HTML website (open website/index.html)");
             System.out.println("  📇 BSYS-Anki-Export.txt - Anki flashcard import file");
-            System.out.println("  💻 studyapp_additions.txt - Java code for StudyApp integration");
+            System.out.println("  📦 BSYS-Anki-Deck.apkg - Anki package with per-topic decks");
+            System.out.println("  💾 bsys-generated.sadc - Content pack for StudyApp (no recompile needed)");
 
             System.out.println("\nNext steps:");
-            System.out.println("  1. Review studyapp_additions.txt");
-            System.out.println("  2. Copy flashcard/question code into StudyApp.java initializeContent() method");
-            System.out.println("  3. Compile and test StudyApp");
-            System.out.println("  4. Import BSYS-Anki-Export.txt into Anki");
-            System.out.println("  5. Open website/index.html in a browser");
+            System.out.println("  1. Copy bsys-generated.sadc into StudyApp's content/ directory");
+            System.out.println("     (or run StudyApp with -Dstudyapp.content=<file or dir>)");
+            System.out.println("  2. Start StudyApp - packs are loaded at startup");
+            System.out.println("  3. Import BSYS-Anki-Deck.apkg into Anki (or the .txt export)");
+            System.out.println("  4. Open website/index.html in a browser");
 
             System.out.println("\n✨ All content generated successfully! ✨\n");
 
@@ -0,0 +1,526 @@
+package tools;
+
+import export.HTMLGenerator;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal static file server for the generated website
+ * Serves the precompressed .gz variants written by HTMLGenerator when the client accepts gzip,
+ * answers If-None-Match with 304 using the ETags from etags.json, and sends file bodies with
+ * FileChannel.transferTo so the kernel copies them straight to the socket.
+ *
+ * Workers only handle requests that have arrived. Idle keep-alive connections wait on one
+ * selector thread instead of holding a worker, so a room full of open browser tabs cannot
+ * starve new visitors; they are closed after a timeout or when too many are idle.
+ *
+ * Usage: java tools.StaticSiteServer [websiteDir] [port]
+ */
+public class StaticSiteServer {
+
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final int KEEP_ALIVE_TIMEOUT_MS = 15_000; // Idle, waiting on the selector
+    private static final int REQUEST_TIMEOUT_MS = 5_000;     // Inside a request, holding a worker
+    private static final int MAX_IDLE_CONNECTIONS = 1000;
+    private static final int IDLE_SWEEP_MS = 1000;
+    private static final int MAX_REQUESTS_PER_CONNECTION = 1000;
+
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+    static {
+        CONTENT_TYPES.put("html", "text/html; charset=utf-8");
+        CONTENT_TYPES.put("css", "text/css; charset=utf-8");
+        CONTENT_TYPES.put("js", "application/javascript; charset=utf-8");
+        CONTENT_TYPES.put("json", "application/json; charset=utf-8");
+        CONTENT_TYPES.put("md", "text/markdown; charset=utf-8");
+        CONTENT_TYPES.put("txt", "text/plain; charset=utf-8");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("jpg", "image/jpeg");
+        CONTENT_TYPES.put("jpeg", "image/jpeg");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+        CONTENT_TYPES.put("pdf", "application/pdf");
+        CONTENT_TYPES.put("apkg", "application/octet-stream");
+    }
+
+    private final Path root;
+    private final int port;
+    private final int threads;
+    private final Gson gson = new Gson();
+
+    private final Queue<Connection> parked = new ConcurrentLinkedQueue<>(); // Handed back by workers
+    private Selector selector;
+
+    private volatile Map<String, String> etags = Collections.emptyMap();
+    private volatile long etagsModified = -1;
+
+    public StaticSiteServer(Path root, int port, int threads) throws IOException {
+        this.root = root.toRealPath();
+        this.port = port;
+        this.threads = Math.max(1, threads);
+    }
+
+    public static void main(String[] args) {
+        String dir = args.length >= 1 ? args[0] : "website";
+        int port = args.length >= 2 ? Integer.parseInt(args[1]) : 8080;
+        int threads = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+
+        try {
+            new StaticSiteServer(Paths.get(dir), port, threads).serve();
+        } catch (IOException e) {
+            System.err.println("Error starting server: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Accept connections until the process is stopped
+     */
+    public void serve() throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (ServerSocketChannel server = ServerSocketChannel.open(); Selector selector = Selector.open()) {
+            this.selector = selector;
+            server.bind(new InetSocketAddress(port), 128);
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("✓ Serving " + root + " on http://localhost:" + port + "/ (" + threads + " workers)");
+
+            List<Connection> ready = new ArrayList<>();
+            while (true) {
+                // Keys left selected by the selectNow below are handled without waiting
+                if (selector.selectedKeys().isEmpty()) selector.select(IDLE_SWEEP_MS);
+                else selector.selectNow();
+
+                for (Iterator<SelectionKey> keys = selector.selectedKeys().iterator(); keys.hasNext(); ) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) {
+                        SocketChannel client;
+                        while ((client = server.accept()) != null) {
+                            park(new Connection(client));
+                        }
+                    } else if (key.isReadable()) {
+                        key.cancel();
+                        ready.add((Connection) key.attachment());
+                    }
+                }
+
+                if (!ready.isEmpty()) {
+                    selector.selectNow(); // Deregister the cancelled keys so the channels can block
+                    for (Connection connection : ready) {
+                        try {
+                            connection.channel.configureBlocking(true);
+                            pool.execute(() -> handleRequests(connection));
+                        } catch (IOException e) {
+                            connection.close();
+                        }
+                    }
+                    ready.clear();
+                }
+
+                Connection returned;
+                while ((returned = parked.poll()) != null) {
+                    park(returned);
+                }
+                closeIdle();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ========== Connection handling ==========
+
+    /**
+     * Wait for the next request on the selector; runs on the selector thread
+     */
+    private void park(Connection connection) {
+        if (selector.keys().size() > MAX_IDLE_CONNECTIONS) {
+            connection.close();
+            return;
+        }
+        try {
+            connection.channel.configureBlocking(false);
+            connection.idleSince = System.currentTimeMillis();
+            connection.channel.register(selector, SelectionKey.OP_READ, connection);
+        } catch (IOException e) {
+            connection.close();
+        }
+    }
+
+    private void closeIdle() {
+        long cutoff = System.currentTimeMillis() - KEEP_ALIVE_TIMEOUT_MS;
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Connection && ((Connection) attachment).idleSince < cutoff) {
+                key.cancel();
+                ((Connection) attachment).close();
+            }
+        }
+    }
+
+    /**
+     * Serve the requests that have arrived, then hand the connection back to the selector
+     */
+    private void handleRequests(Connection connection) {
+        SocketChannel client = connection.channel;
+        try {
+            if (connection.in == null) {
+                client.socket().setSoTimeout(REQUEST_TIMEOUT_MS);
+                client.socket().setTcpNoDelay(true);
+                connection.in = new BufferedInputStream(client.socket().getInputStream());
+            }
+
+            do {
+                Request request = readRequest(connection.in);
+                if (request == null) {
+                    connection.close();
+                    return;
+                }
+                connection.served++;
+                boolean keepAlive = request.keepAlive() && connection.served < MAX_REQUESTS_PER_CONNECTION;
+                if (!respond(client, request, keepAlive) || !keepAlive) {
+                    connection.close();
+                    return;
+                }
+            } while (connection.in.available() > 0); // Pipelined requests already received
+
+            parked.add(connection);
+            selector.wakeup();
+        } catch (IOException e) {
+            // Client went away or stalled mid-request
+            connection.close();
+        }
+    }
+
+    /**
+     * Read one request head; null on a clean end of stream
+     */
+    private Request readRequest(InputStream in) throws IOException {
+        String requestLine = readLine(in, new int[]{MAX_HEADER_BYTES});
+        if (requestLine == null) return null;
+        if (requestLine.isEmpty()) requestLine = readLine(in, new int[]{MAX_HEADER_BYTES}); // Stray CRLF
+        if (requestLine == null) return null;
+
+        String[] parts = requestLine.split(" ");
+        if (parts.length != 3) throw new IOException("Malformed request line");
+
+        Request request = new Request(parts[0], parts[1], parts[2]);
+        int[] budget = {MAX_HEADER_BYTES};
+        String line;
+        while ((line = readLine(in, budget)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                request.headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                                    line.substring(colon + 1).trim());
+            }
+        }
+        if (line == null) return null;
+        return request;
+    }
+
+    private static String readLine(InputStream in, int[] budget) throws IOException {
+        StringBuilder line = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (--budget[0] < 0) throw new IOException("Request header too large");
+            if (b == '\n') {
+                int length = line.length();
+                if (length > 0 && line.charAt(length - 1) == '\r') line.setLength(length - 1);
+                return line.toString();
+            }
+            line.append((char) b);
+        }
+        return null;
+    }
+
+    /**
+     * Send the response; returns false if the connection must be closed
+     */
+    private boolean respond(SocketChannel client, Request request, boolean keepAlive) throws IOException {
+        boolean head = request.method.equals("HEAD");
+        if (!head && !request.method.equals("GET")) {
+            sendStatus(client, 405, "Method Not Allowed", "Allow: GET, HEAD\r\n", false);
+            return false;
+        }
+
+        String relativePath = resolve(request.target);
+        if (relativePath == null) {
+            sendStatus(client, 400, "Bad Request", "", false);
+            return false;
+        }
+
+        // Build metadata such as .build-manifest.json is not part of the site
+        if (relativePath.startsWith(".") || relativePath.contains("/.")) {
+            sendStatus(client, 404, "Not Found", "", keepAlive);
+            return keepAlive;
+        }
+
+        Path file = root.resolve(relativePath).normalize();
+        if (Files.isDirectory(file)) {
+            relativePath = relativePath.isEmpty() ? "index.html" : relativePath + "/index.html";
+            file = root.resolve(relativePath);
+        }
+        if (!file.startsWith(root) || !Files.isRegularFile(file) || !isInsideRoot(file)) {
+            sendStatus(client, 404, "Not Found", "", keepAlive);
+            return keepAlive;
+        }
+
+        String extension = extension(relativePath);
+        String contentType = CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+        boolean compressible = contentType.startsWith("text/") || contentType.startsWith("application/javascript")
+            || contentType.startsWith("application/json") || contentType.startsWith("image/svg");
+
+        // Prefer the precompressed variant when the client accepts gzip
+        Path body = file;
+        boolean gzip = false;
+        if (compressible && acceptsGzip(request.headers.get("accept-encoding"))) {
+            Path gz = file.resolveSibling(file.getFileName() + ".gz");
+            if (Files.isRegularFile(gz)) {
+                body = gz;
+                gzip = true;
+            }
+        }
+
+        String etag = etagFor(relativePath, file, gzip);
+        StringBuilder headers = new StringBuilder(256);
+        headers.append("ETag: ").append(etag).append("\r\n");
+        headers.append("Cache-Control: no-cache\r\n");
+        if (compressible) headers.append("Vary: Accept-Encoding\r\n");
+
+        if (matches(request.headers.get("if-none-match"), etag)) {
+            sendStatus(client, 304, "Not Modified", headers.toString(), keepAlive);
+            return keepAlive;
+        }
+
+        try (FileChannel source = FileChannel.open(body, StandardOpenOption.READ)) {
+            long size = source.size();
+            headers.append("Content-Type: ").append(contentType).append("\r\n");
+            if (gzip) headers.append("Content-Encoding: gzip\r\n");
+            writeHead(client, 200, "OK", headers, size, keepAlive);
+
+            if (!head) {
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, client);
+                }
+            }
+        }
+        return keepAlive;
+    }
+
+    private void sendStatus(SocketChannel client, int status, String reason, String extraHeaders,
+                            boolean keepAlive) throws IOException {
+        StringBuilder headers = new StringBuilder(extraHeaders);
+        byte[] body = status == 304 ? new byte[0] : (status + " " + reason + "\n").getBytes(StandardCharsets.UTF_8);
+        if (body.length > 0) headers.append("Content-Type: text/plain; charset=utf-8\r\n");
+        writeHead(client, status, reason, headers, body.length, keepAlive);
+        if (body.length > 0) writeFully(client, ByteBuffer.wrap(body));
+    }
+
+    private void writeHead(SocketChannel client, int status, String reason, StringBuilder headers,
+                           long contentLength, boolean keepAlive) throws IOException {
+        StringBuilder head = new StringBuilder(headers.length() + 128);
+        head.append("HTTP/1.1 ").append(status).append(' ').append(reason).append("\r\n");
+        head.append(headers);
+        if (status != 304) head.append("Content-Length: ").append(contentLength).append("\r\n");
+        head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+        writeFully(client, ByteBuffer.wrap(head.toString().getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    private static void writeFully(SocketChannel client, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            client.write(buffer);
+        }
+    }
+
+    // ========== Paths, ETags and content negotiation ==========
+
+    /**
+     * Decode the request target into a root-relative path, or null if it is invalid
+     */
+    private static String resolve(String target) {
+        int query = target.indexOf('?');
+        if (query >= 0) target = target.substring(0, query);
+        int fragment = target.indexOf('#');
+        if (fragment >= 0) target = target.substring(0, fragment);
+        if (!target.startsWith("/")) return null;
+
+        String decoded;
+        try {
+            decoded = URLDecoder.decode(target.replace("+", "%2B"), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (decoded.indexOf('\0') >= 0 || decoded.indexOf('\\') >= 0) return null;
+
+        // Resolve . and .. segments without ever leaving the root
+        Deque<String> segments = new ArrayDeque<>();
+        for (String segment : decoded.split("/")) {
+            if (segment.isEmpty() || segment.equals(".")) continue;
+            if (segment.equals("..")) {
+                if (segments.isEmpty()) return null;
+                segments.removeLast();
+            } else {
+                segments.addLast(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    /**
+     * Reject symlinks that point outside the served directory
+     */
+    private boolean isInsideRoot(Path file) {
+        try {
+            return file.toRealPath().startsWith(root);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String extension(String path) {
+        int dot = path.lastIndexOf('.');
+        int slash = path.lastIndexOf('/');
+        return dot > slash ? path.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] params = coding.trim().split(";");
+            String name = params[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) continue;
+
+            double q = 1.0;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            return q > 0;
+        }
+        return false;
+    }
+
+    /**
+     * If-None-Match uses weak comparison: W/"x" matches "x"
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        if (ifNoneMatch.trim().equals("*")) return true;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * ETag from etags.json when the generator listed the file, else derived from size and mtime
+     */
+    private String etagFor(String relativePath, Path file, boolean gzip) throws IOException {
+        String etag = currentETags().get(relativePath);
+        if (etag == null) {
+            etag = "\"" + Long.toHexString(Files.size(file)) + "-"
+                + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+        }
+        return gzip ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag;
+    }
+
+    /**
+     * etags.json, reloaded whenever the site is regenerated
+     */
+    private Map<String, String> currentETags() {
+        File file = root.resolve(HTMLGenerator.ETAGS_FILE).toFile();
+        long modified = file.lastModified();
+        if (modified != etagsModified) {
+            synchronized (this) {
+                if (modified != etagsModified) {
+                    etags = loadETags(file);
+                    etagsModified = modified;
+                }
+            }
+        }
+        return etags;
+    }
+
+    private Map<String, String> loadETags(File file) {
+        if (!file.exists()) return Collections.emptyMap();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Map<String, String> loaded = gson.fromJson(reader, new TypeToken<Map<String, String>>() {}.getType());
+            return loaded != null ? loaded : Collections.emptyMap();
+        } catch (IOException | JsonParseException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * A client connection and the read buffer that outlives each request
+     */
+    private static class Connection {
+        final SocketChannel channel;
+        InputStream in;  // Created on the first request, while the channel is blocking
+        int served;
+        long idleSince;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Already gone
+            }
+        }
+    }
+
+    /**
+     * Parsed request head
+     */
+    private static class Request {
+        final String method;
+        final String target;
+        final String version;
+        final Map<String, String> headers = new HashMap<>();
+
+        Request(String method, String target, String version) {
+            this.method = method;
+            this.target = target;
+            this.version = version;
+        }
+
+        boolean keepAlive() {
+            String connection = headers.getOrDefault("connection", "").toLowerCase(Locale.ROOT);
+            if (version.equals("HTTP/1.0")) return connection.contains("keep-alive");
+            return !connection.contains("close");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package tools;
 
+import content.ContentPack;
 import content.FlashcardGenerator.Flashcard;
 import content.QuestionGenerator.Question;
 
@@ -8,10 +9,24 @@ import java.nio.file.*;
 import java.util.*;
 
 /**
- * Generate Java code snippets for integrating content into StudyApp
+ * Generate content for StudyApp integration
+ * Preferred output is a binary content pack that StudyApp loads at startup; the Java
+ * source emission is kept for reference and manual merges.
  */
 public class StudyAppCodeGenerator {
 
+    /**
+     * Generate a content pack (.sadc) that StudyApp loads from its content/ directory
+     */
+    public void generateContentPack(List<Flashcard> flashcards, List<Question> questions, String outputPath) throws IOException {
+        ContentPack.write(Paths.get(outputPath), flashcards, questions);
+
+        System.out.println("✓ StudyApp content pack generated: " + outputPath +
+            " (" + Files.size(Paths.get(outputPath)) / 1024 + " KB, format v" + ContentPack.VERSION + ")");
+        System.out.println("  Flashcards: " + flashcards.size());
+        System.out.println("  Questions: " + questions.size());
+    }
+
     /**
      * Generate complete Java code for StudyApp integration
      */
@@ -0,0 +1,711 @@
+package tools;
+
+import content.ContentPack;
+import content.FlashcardGenerator.Flashcard;
+import content.QuestionGenerator.Question;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import store.ContentFingerprints;
+import store.ReviewEvents;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Reproducible synthetic data for scale tests: decks, years of study history, lecture PDFs
+ * Sizes are multiples (--scale) of today's real content: per 1x about 3,000 cards in 60 topics
+ * over 3 subjects, one question per ten cards and 8 lecture PDFs. Every card and question is
+ * derived from the seed and its index alone, so the same arguments always give the same files
+ * (pin --until as well to fix the dates) and millions of cards never sit in memory at once.
+ *
+ * Output, all under one directory:
+ *   content/synthetic.sadc  content pack; run StudyApp with -Dstudyapp.content=DIR/content
+ *   study_progress.dat      one learner's progress over the years, and
+ *   review_events.dat       every answer behind it; run StudyApp with -Dstudyapp.dataDir=DIR
+ *   deck.csv                the cards as an import file (--csv)
+ *   pdfs/                   lecture slides for the PDF pipeline (ContentGeneratorTool)
+ */
+public class SyntheticDataGenerator {
+
+    private static final String USAGE =
+        "Usage: java tools.SyntheticDataGenerator <output dir> [--scale N] [--seed N]\n" +
+        "         [--cards N] [--topics N] [--subjects N] [--questions N]\n" +
+        "         [--years N] [--daily N] [--until YYYY-MM-DD] [--pdfs N] [--pages N] [--csv]";
+
+    private static final int BASE_CARDS = 3000;
+    private static final int BASE_TOPICS = 60;
+    private static final int BASE_SUBJECTS = 3;
+    private static final int BASE_QUESTIONS = 300;
+    private static final int BASE_PDFS = 8;
+    private static final int BASE_DAILY_ANSWERS = 40;
+    private static final int MAX_DAILY_ANSWERS = 20000;
+    private static final String[] REAL_SUBJECTS = {"BSYS", "DigiCom", "TEAM"};
+    private static final Set<String> OPTIONS = Set.of("scale", "seed", "cards", "questions", "subjects", "topics",
+        "years", "daily", "until", "pdfs", "pages");
+
+    // Study modes as StudyApp records them (MODE_FLASHCARDS ... MODE_EXAM)
+    private static final int MODE_FLASHCARDS = 0;
+    private static final int MODE_QUIZ = 1;
+    private static final int MODE_QUICK_REVIEW = 2;
+    private static final int MODE_EXAM = 3;
+
+    private static final long CARD_SALT = 1;
+    private static final long QUESTION_SALT = 2;
+    private static final long TOPIC_SALT = 3;
+    private static final long HISTORY_SALT = 4;
+    private static final long PDF_SALT = 5;
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+    private static final int SEMESTER_DAYS = 182;
+    private static final int EVENTS_PER_SEGMENT = 1 << 20;
+
+    // Relative chance of studying at each hour of the day
+    private static final int[] HOUR_WEIGHTS = {
+        1, 0, 0, 0, 0, 0, 1, 2, 4, 6, 8, 8, 5, 4, 7, 8, 8, 7, 6, 8, 10, 9, 6, 3
+    };
+
+    private static final String[] TERMS = {
+        "process", "thread", "scheduler", "context switch", "page table", "page fault", "frame",
+        "TLB", "semaphore", "mutex", "monitor", "condition variable", "deadlock", "starvation",
+        "critical section", "race condition", "inode", "file descriptor", "journal", "block",
+        "buffer cache", "system call", "interrupt", "trap", "kernel mode", "user mode",
+        "virtual memory", "segmentation", "paging", "swap space", "working set", "fork", "exec",
+        "pipe", "signal", "socket", "round robin", "priority", "time slice", "ready queue",
+        "modulation", "bandwidth", "signal-to-noise ratio", "channel", "carrier", "sampling",
+        "quantization", "bit error rate", "parity", "checksum", "Hamming code", "frequency",
+        "amplitude", "phase", "multiplexing", "Nyquist rate", "spectrum", "filter", "encoder",
+        "decoder", "team role", "stand-up", "retrospective", "backlog", "sprint", "stakeholder",
+        "feedback", "conflict", "consensus", "milestone", "risk", "requirement", "review"
+    };
+
+    private static final String[] FILLERS = {
+        "the", "a", "each", "every", "its", "this", "that", "one", "another", "the same"
+    };
+
+    private static final String[] VERBS = {
+        "controls", "protects", "schedules", "stores", "maps", "signals", "blocks", "releases",
+        "measures", "limits", "reduces", "increases", "shares", "tracks", "replaces", "detects",
+        "encodes", "transmits", "resolves", "assigns"
+    };
+
+    private static final String[] CONNECTORS = {
+        "when", "because", "before", "after", "while", "unless", "so that", "until"
+    };
+
+    // Picked so TextExtractor.identifyTopic files the PDFs under its known topics
+    private static final String[] LECTURE_NAMES = {
+        "introduction", "unix-basics", "history", "processes-threads", "memory",
+        "file-systems", "deadlocks", "exercise"
+    };
+
+    private final long seed;
+    private final int cards;
+    private final int questions;
+    private final int subjects;
+    private final int topicsPerSubject;
+    private final int years;
+    private final int dailyAnswers;
+    private final int untilDay;
+    private final int pdfs;
+    private final int pagesPerPdf;
+
+    private long[] cardPrints;     // Lazily computed fingerprints, 0 until needed
+    private long[] questionPrints;
+
+    public SyntheticDataGenerator(long seed, int cards, int questions, int subjects, int topics,
+                                  int years, int dailyAnswers, LocalDate until, int pdfs, int pagesPerPdf) {
+        if (subjects < 1 || cards < subjects || questions < subjects) {
+            throw new IllegalArgumentException("Need at least one card and one question per subject");
+        }
+        this.seed = seed;
+        this.cards = cards;
+        this.questions = questions;
+        this.subjects = subjects;
+        this.topicsPerSubject = Math.max(1, topics / subjects);
+        this.years = years;
+        this.dailyAnswers = dailyAnswers;
+        this.untilDay = (int) until.toEpochDay();
+        this.pdfs = pdfs;
+        this.pagesPerPdf = pagesPerPdf;
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args[0].startsWith("--")) {
+            System.err.println(USAGE);
+            System.exit(1);
+        }
+
+        Path output = Paths.get(args[0]);
+        Map<String, String> options = new HashMap<>();
+        boolean csv = false;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--csv")) {
+                    csv = true;
+                } else if (args[i].startsWith("--") && OPTIONS.contains(args[i].substring(2)) && i + 1 < args.length) {
+                    options.put(args[i].substring(2), args[++i]);
+                } else {
+                    throw new IllegalArgumentException("Unexpected argument " + args[i]);
+                }
+            }
+
+            int scale = Integer.parseInt(options.getOrDefault("scale", "1"));
+            SyntheticDataGenerator generator = new SyntheticDataGenerator(
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                intOption(options, "cards", BASE_CARDS * scale),
+                intOption(options, "questions", BASE_QUESTIONS * scale),
+                intOption(options, "subjects", BASE_SUBJECTS * scale),
+                intOption(options, "topics", BASE_TOPICS * scale),
+                intOption(options, "years", 3),
+                intOption(options, "daily", Math.min(MAX_DAILY_ANSWERS, BASE_DAILY_ANSWERS * scale)),
+                options.containsKey("until") ? LocalDate.parse(options.get("until")) : LocalDate.now(),
+                intOption(options, "pdfs", BASE_PDFS * scale),
+                intOption(options, "pages", 24));
+
+            generator.generate(output, csv);
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+        } catch (IOException e) {
+            System.err.println("✗ Generation failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        return options.containsKey(name) ? Integer.parseInt(options.get(name)) : defaultValue;
+    }
+
+    /**
+     * Write everything into the output directory
+     */
+    public void generate(Path output, boolean csv) throws IOException {
+        Files.createDirectories(output.resolve("content"));
+
+        long start = System.nanoTime();
+        Path pack = output.resolve("content").resolve("synthetic" + ContentPack.EXTENSION);
+        ContentPack.write(pack, cardList(), questionList());
+        System.out.println("✓ Content pack: " + pack + " (" + cards + " cards, " + questions + " questions, " +
+            subjects * topicsPerSubject + " topics in " + subjects + " subjects, " +
+            Files.size(pack) / (1024 * 1024) + " MB) in " + secondsSince(start));
+
+        if (csv) {
+            start = System.nanoTime();
+            Path file = output.resolve("deck.csv");
+            writeCsv(file);
+            System.out.println("✓ Import file: " + file + " in " + secondsSince(start));
+        }
+
+        start = System.nanoTime();
+        long answers = writeHistory(output);
+        System.out.println("✓ Study history: " + answers + " answers over " + years + " years up to " +
+            LocalDate.ofEpochDay(untilDay) + " in " + secondsSince(start));
+
+        if (pdfs > 0) {
+            start = System.nanoTime();
+            writePdfs(output.resolve("pdfs"));
+            System.out.println("✓ Lecture PDFs: " + pdfs + " in " + output.resolve("pdfs") + " in " + secondsSince(start));
+        }
+    }
+
+    // ========== Deck ==========
+
+    /**
+     * Random stream for one item; items are independent of each other and of the output order
+     */
+    private SplittableRandom random(long salt, int index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L + index);
+    }
+
+    private String subjectName(int subject) {
+        return subject < REAL_SUBJECTS.length ? REAL_SUBJECTS[subject] : "Course" + (subject + 1);
+    }
+
+    private String topicName(int topic) {
+        SplittableRandom r = random(TOPIC_SALT, topic);
+        return capitalize(pick(r, TERMS)) + " " + (topic % topicsPerSubject + 1);
+    }
+
+    /**
+     * Topic of a card: the card's subject is its index modulo the subject count; within it,
+     * earlier topics (introductions) get more cards than later ones
+     */
+    private int cardTopic(int index, SplittableRandom r) {
+        double u = r.nextDouble();
+        return (index % subjects) * topicsPerSubject + (int) (topicsPerSubject * u * u);
+    }
+
+    private int cardTopic(int index) {
+        return cardTopic(index, random(CARD_SALT, index));
+    }
+
+    public Flashcard card(int index) {
+        SplittableRandom r = random(CARD_SALT, index);
+        int topic = cardTopic(index, r);
+        String term = pick(r, TERMS);
+        String other = pick(r, TERMS);
+        String front;
+        switch (r.nextInt(5)) {
+            case 0: front = "What is " + article(term) + " " + term + "?"; break;
+            case 1: front = "Explain the role of the " + term + " in " + topicName(topic).toLowerCase() + "."; break;
+            case 2: front = "How does the " + term + " differ from the " + other + "?"; break;
+            case 3: front = "Why does the " + term + " need the " + other + "?"; break;
+            default: front = "Describe what happens to the " + term + " " + pick(r, CONNECTORS) + " the " + other + " fails.";
+        }
+        return new Flashcard(subjectName(index % subjects), topicName(topic), front, answer(r), 1 + r.nextInt(3));
+    }
+
+    public Question question(int index) {
+        SplittableRandom r = random(QUESTION_SALT, index);
+        String term = pick(r, TERMS);
+        String text = r.nextBoolean()
+            ? "Which statement about the " + term + " is correct?"
+            : "What happens to the " + term + " " + pick(r, CONNECTORS) + " the " + pick(r, TERMS) + " changes?";
+        String[] options = new String[4];
+        for (int i = 0; i < options.length; i++) options[i] = sentence(r, 5, 10);
+        return new Question(subjectName(index % subjects), text, options, r.nextInt(4), sentence(r, 8, 18));
+    }
+
+    private List<Flashcard> cardList() {
+        return new AbstractList<>() {
+            @Override
+            public Flashcard get(int index) {
+                return card(index);
+            }
+
+            @Override
+            public int size() {
+                return cards;
+            }
+        };
+    }
+
+    private List<Question> questionList() {
+        return new AbstractList<>() {
+            @Override
+            public Question get(int index) {
+                return question(index);
+            }
+
+            @Override
+            public int size() {
+                return questions;
+            }
+        };
+    }
+
+    /**
+     * One to eight sentences, skewed short like real answers; some end in a bullet list
+     */
+    private String answer(SplittableRandom r) {
+        int sentences = 1 + Math.min(7, (int) (-Math.log(1 - r.nextDouble()) * 1.6));
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            if (i > 0) text.append(' ');
+            text.append(sentence(r, 6, 18));
+        }
+        if (r.nextInt(100) < 15) {
+            int items = 2 + r.nextInt(3);
+            for (int i = 0; i < items; i++) {
+                text.append("\n- ").append(capitalize(pick(r, TERMS))).append(": ").append(sentence(r, 4, 9));
+            }
+        }
+        return text.toString();
+    }
+
+    private String sentence(SplittableRandom r, int minWords, int maxWords) {
+        int words = minWords + r.nextInt(maxWords - minWords + 1);
+        StringBuilder text = new StringBuilder();
+        text.append(capitalize(pick(r, FILLERS))).append(' ').append(pick(r, TERMS));
+        int count = 2;
+        while (count < words) {
+            switch (r.nextInt(4)) {
+                case 0: text.append(' ').append(pick(r, VERBS)).append(' ').append(pick(r, FILLERS)); count += 2; break;
+                case 1: text.append(' ').append(pick(r, CONNECTORS)).append(' ').append(pick(r, FILLERS)); count += 2; break;
+                default: text.append(' ').append(pick(r, TERMS)); count++;
+            }
+        }
+        return text.append(' ').append(pick(r, TERMS)).append('.').toString();
+    }
+
+    private static String pick(SplittableRandom r, String[] words) {
+        return words[r.nextInt(words.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String article(String word) {
+        return "aeiouAEIOU".indexOf(word.charAt(0)) >= 0 ? "an" : "a";
+    }
+
+    private void writeCsv(Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write("Subject,Topic,Question,Answer,Difficulty\n");
+            for (int i = 0; i < cards; i++) {
+                Flashcard card = card(i);
+                out.write(csvField(card.subject) + "," + csvField(card.topic) + "," + csvField(card.front) + "," +
+                    csvField(card.back) + "," + card.difficulty + "\n");
+            }
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // ========== Study history ==========
+
+    /** Running state of one progress key, in the shape StudyApp saves it */
+    private static final class KeyHistory {
+        final double baseSkill;
+        final double gain;
+        int correct;
+        int attempts;
+        int[] scores = new int[16];
+        int[] days = new int[8];
+        int[] dayCorrect = new int[8];
+        int[] dayAttempts = new int[8];
+        int dayCount;
+        long lastTime;
+        boolean mastered;
+
+        KeyHistory(SplittableRandom r) {
+            baseSkill = 0.25 + 0.35 * r.nextDouble(); // Some topics stay weak for good
+            gain = 0.3 + 0.35 * r.nextDouble();
+        }
+
+        double accuracy() {
+            return Math.min(0.97, baseSkill + gain * (1 - Math.exp(-attempts / 25.0)));
+        }
+
+        void answer(int day, boolean isCorrect, long time) {
+            if (isCorrect) correct++;
+            if (attempts == scores.length) scores = Arrays.copyOf(scores, attempts * 2);
+            scores[attempts++] = correct * 100 / attempts;
+            if (attempts >= 10 && correct * 100 / attempts >= 80) mastered = true;
+
+            if (dayCount == 0 || days[dayCount - 1] != day) {
+                if (dayCount == days.length) {
+                    days = Arrays.copyOf(days, dayCount * 2);
+                    dayCorrect = Arrays.copyOf(dayCorrect, dayCount * 2);
+                    dayAttempts = Arrays.copyOf(dayAttempts, dayCount * 2);
+                }
+                days[dayCount++] = day;
+            }
+            if (isCorrect) dayCorrect[dayCount - 1]++;
+            dayAttempts[dayCount - 1]++;
+            lastTime = time;
+        }
+    }
+
+    /**
+     * Simulate one learner day by day and write study_progress.dat and review_events.dat
+     * Each semester a share of the subjects is active, rotating so every subject is studied at
+     * some point; accuracy per key rises with practice, study days thin out on weekends and
+     * pick up before exams. Quiz and exam answers count for the subject's "-quiz" key, as in
+     * StudyApp.
+     */
+    private long writeHistory(Path output) throws IOException {
+        int topicCount = subjects * topicsPerSubject;
+        KeyHistory[] keys = new KeyHistory[topicCount + subjects];
+        cardPrints = new long[cards];
+        questionPrints = new long[questions];
+
+        Path eventsFile = output.resolve("review_events.dat");
+        Files.deleteIfExists(eventsFile);
+        ReviewEvents events = new ReviewEvents();
+
+        int days = years * 365;
+        int firstDay = untilDay - days + 1;
+        int semesters = (days + SEMESTER_DAYS - 1) / SEMESTER_DAYS;
+        int[] active = new int[Math.max(Math.min(subjects, 6), (subjects + semesters - 1) / semesters)];
+        int hourWeightSum = Arrays.stream(HOUR_WEIGHTS).sum();
+        SplittableRandom r = random(HISTORY_SALT, 0);
+        long answers = 0;
+        long firstTime = 0;
+        long lastTime = 0;
+
+        for (int d = 0; d < days; d++) {
+            int day = firstDay + d;
+            if (d % SEMESTER_DAYS == 0) {
+                for (int i = 0; i < active.length; i++) {
+                    active[i] = (d / SEMESTER_DAYS * active.length + i) % subjects;
+                }
+            }
+            boolean examWeeks = d % SEMESTER_DAYS >= SEMESTER_DAYS - 21;
+            boolean weekend = Math.floorMod(day + 3, 7) >= 5; // Epoch day 0 was a Thursday
+            double studyChance = examWeeks ? 0.9 : weekend ? 0.35 : 0.6;
+            if (r.nextDouble() >= studyChance) continue;
+
+            int sessions = 1 + r.nextInt(3);
+            int perSession = Math.max(1, (dailyAnswers / 2 + r.nextInt(dailyAnswers + 1)) / sessions);
+            for (int s = 0; s < sessions; s++) {
+                long time = day * DAY + weightedHour(r, hourWeightSum) * HOUR + r.nextInt(60) * MINUTE;
+                int mode = studyMode(r, examWeeks);
+                int subject = active[r.nextInt(active.length)];
+
+                for (int a = 0; a < perSession; a++) {
+                    int key;
+                    long fingerprint;
+                    if (mode == MODE_QUIZ || mode == MODE_EXAM) {
+                        int q = subject + subjects * r.nextInt((questions - subject + subjects - 1) / subjects);
+                        key = topicCount + subject;
+                        fingerprint = questionPrint(q);
+                    } else {
+                        int c = subject + subjects * r.nextInt((cards - subject + subjects - 1) / subjects);
+                        key = cardTopic(c);
+                        fingerprint = cardPrint(c);
+                    }
+                    if (keys[key] == null) keys[key] = new KeyHistory(r);
+
+                    boolean correct = r.nextDouble() < keys[key].accuracy();
+                    int millis = responseMillis(r, mode);
+                    time += millis + 1000 + r.nextInt(4000); // Reading the feedback
+                    keys[key].answer(day, correct, time);
+                    events.add(time, fingerprint, key, correct, millis, mode);
+                    if (events.size() == EVENTS_PER_SEGMENT) {
+                        events.appendSegment(eventsFile, this::keyName);
+                        events = new ReviewEvents();
+                    }
+                    if (firstTime == 0) firstTime = time;
+                    lastTime = time;
+                    answers++;
+                }
+            }
+        }
+        events.appendSegment(eventsFile, this::keyName);
+
+        writeProgress(output.resolve("study_progress.dat"), keys, firstTime, lastTime);
+        return answers;
+    }
+
+    private String keyName(int key) {
+        int topicCount = subjects * topicsPerSubject;
+        if (key >= topicCount) return subjectName(key - topicCount) + "-quiz";
+        return subjectName(key / topicsPerSubject) + "-" + topicName(key);
+    }
+
+    private long cardPrint(int index) {
+        if (cardPrints[index] == 0) {
+            Flashcard card = card(index);
+            cardPrints[index] = ContentFingerprints.card(card.subject, card.topic, card.front, card.back);
+        }
+        return cardPrints[index];
+    }
+
+    private long questionPrint(int index) {
+        if (questionPrints[index] == 0) {
+            Question q = question(index);
+            questionPrints[index] = ContentFingerprints.question(q.subject, q.question, q.options);
+        }
+        return questionPrints[index];
+    }
+
+    private static int weightedHour(SplittableRandom r, int weightSum) {
+        int ticket = r.nextInt(weightSum);
+        int hour = 0;
+        while (ticket >= HOUR_WEIGHTS[hour]) ticket -= HOUR_WEIGHTS[hour++];
+        return hour;
+    }
+
+    private static int studyMode(SplittableRandom r, boolean examWeeks) {
+        int roll = r.nextInt(100);
+        if (examWeeks) return roll < 30 ? MODE_FLASHCARDS : roll < 55 ? MODE_QUIZ : roll < 70 ? MODE_QUICK_REVIEW : MODE_EXAM;
+        return roll < 55 ? MODE_FLASHCARDS : roll < 85 ? MODE_QUIZ : roll < 95 ? MODE_QUICK_REVIEW : MODE_EXAM;
+    }
+
+    /**
+     * Log-normal response time around a per-mode median; exam answers stop at the 30 s limit
+     */
+    private static int responseMillis(SplittableRandom r, int mode) {
+        double median = mode == MODE_EXAM ? 11_000 : mode == MODE_QUIZ ? 8_000 : 3_500;
+        double gaussian = Math.sqrt(-2 * Math.log(1 - r.nextDouble())) * Math.cos(2 * Math.PI * r.nextDouble());
+        long millis = Math.round(median * Math.exp(0.6 * gaussian));
+        return (int) Math.min(mode == MODE_EXAM ? 30_000 : 600_000, Math.max(300, millis));
+    }
+
+    /**
+     * The same sections, in the same order and format, as StudyApp.saveProgress
+     */
+    private void writeProgress(Path file, KeyHistory[] keys, long firstTime, long lastTime) throws IOException {
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            writer.println("### BASIC_PROGRESS ###");
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k] != null) writer.println(keyName(k) + "," + keys[k].correct + "," + keys[k].attempts);
+            }
+
+            writer.println("### PERFORMANCE_HISTORY ###");
+            StringBuilder line = new StringBuilder();
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k] == null) continue;
+                line.setLength(0);
+                line.append(keyName(k)).append(',');
+                for (int i = 0; i < keys[k].attempts; i++) {
+                    if (i > 0) line.append(';');
+                    line.append(keys[k].scores[i]);
+                }
+                writer.println(line);
+            }
+
+            writer.println("### LAST_STUDY_TIME ###");
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k] != null) writer.println(keyName(k) + "," + keys[k].lastTime);
+            }
+
+            writer.println("### DAILY_PROGRESS ###");
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k] == null) continue;
+                String name = keyName(k);
+                for (int i = 0; i < keys[k].dayCount; i++) {
+                    writer.println(name + "," + keys[k].days[i] + "," + keys[k].dayCorrect[i] + "," + keys[k].dayAttempts[i]);
+                }
+            }
+
+            writer.println("### MASTERED_CARDS ###");
+            for (int k = 0; k < keys.length; k++) {
+                if (keys[k] != null && keys[k].mastered) writer.println(keyName(k));
+            }
+
+            writer.println("### GLOBAL_STATS ###");
+            writer.println("firstStudyDate," + firstTime);
+            writer.println("lastStudyDate," + lastTime);
+        }
+    }
+
+    // ========== Lecture PDFs ==========
+
+    /**
+     * Slide decks in the shape the PDF pipeline expects: headings, "Term: definition" lines,
+     * prose paragraphs, C code and shell commands in a monospace font, exercises, page footers
+     */
+    private void writePdfs(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        PDType1Font mono = new PDType1Font(Standard14Fonts.FontName.COURIER);
+
+        for (int p = 0; p < pdfs; p++) {
+            SplittableRandom r = random(PDF_SALT, p);
+            int subject = p % subjects;
+            int pages = Math.max(1, pagesPerPdf / 2 + r.nextInt(pagesPerPdf + 1));
+            String name = String.format("%04d_%s.pdf", p + 1, LECTURE_NAMES[p % LECTURE_NAMES.length]);
+
+            try (PDDocument document = new PDDocument()) {
+                for (int page = 1; page <= pages; page++) {
+                    PDPage pdfPage = new PDPage(PDRectangle.A4);
+                    document.addPage(pdfPage);
+                    try (PDPageContentStream out = new PDPageContentStream(document, pdfPage)) {
+                        writeSlide(out, r, subject, page, pages, regular, bold, mono);
+                    }
+                }
+                document.save(dir.resolve(name).toFile());
+            }
+        }
+    }
+
+    private void writeSlide(PDPageContentStream out, SplittableRandom r, int subject, int page, int pages,
+                            PDType1Font regular, PDType1Font bold, PDType1Font mono) throws IOException {
+        float left = 50;
+        float width = PDRectangle.A4.getWidth() - 2 * left;
+        float[] y = {PDRectangle.A4.getHeight() - 60};
+
+        int topic = subject * topicsPerSubject + r.nextInt(topicsPerSubject);
+        showLine(out, bold, 18, left, y, subjectName(subject) + " - " + topicName(topic));
+        y[0] -= 10;
+
+        while (y[0] > 140) {
+            switch (r.nextInt(6)) {
+                case 0:
+                case 1:
+                    String term = capitalize(pick(r, TERMS));
+                    showWrapped(out, regular, 11, left, width, y, term + ": " + sentence(r, 8, 20));
+                    break;
+                case 2:
+                    StringBuilder paragraph = new StringBuilder();
+                    for (int i = 3 + r.nextInt(3); i > 0; i--) paragraph.append(sentence(r, 8, 18)).append(' ');
+                    showWrapped(out, regular, 11, left, width, y, paragraph.toString().trim());
+                    break;
+                case 3:
+                    for (String code : codeLines(r)) showLine(out, mono, 9, left + 10, y, code);
+                    break;
+                case 4:
+                    for (int i = 1 + r.nextInt(3); i > 0; i--) showLine(out, mono, 9, left + 10, y, command(r));
+                    break;
+                default:
+                    showWrapped(out, regular, 11, left, width, y,
+                        "Exercise " + (1 + r.nextInt(40)) + ": " + sentence(r, 10, 20) + " " + sentence(r, 6, 14));
+            }
+            y[0] -= 8;
+        }
+        y[0] = 40;
+        showLine(out, regular, 8, left, y, "Page " + page + " of " + pages);
+    }
+
+    private static List<String> codeLines(SplittableRandom r) {
+        String name = pick(r, TERMS).replaceAll("[^A-Za-z]", "_").toLowerCase();
+        int n = 2 + r.nextInt(1000);
+        List<String> lines = new ArrayList<>();
+        lines.add("#include <stdio.h>");
+        lines.add("int " + name + "_count = " + n + ";");
+        lines.add("void update_" + name + "(int *items) {");
+        lines.add("    for (int i = 0; i < " + name + "_count; i++) {");
+        boolean locked = r.nextBoolean();
+        if (locked) lines.add("        pthread_mutex_lock(&" + name + "_lock);");
+        lines.add("        items[i] = items[i] * " + (2 + r.nextInt(9)) + " + " + r.nextInt(100) + ";");
+        if (locked) lines.add("        pthread_mutex_unlock(&" + name + "_lock);");
+        lines.add("    }");
+        lines.add("}");
+        return lines;
+    }
+
+    private static String command(SplittableRandom r) {
+        String[] commands = {"ls -la /proc/", "ps -ef | grep worker", "kill -9 ", "chmod -R 755 build", "cat /etc/fstab",
+            "top -b -n 1", "free -m", "df -h /dev/sda", "strace -f ./a.out", "gcc -Wall -o sim sim.c"};
+        String command = pick(r, commands);
+        return (r.nextBoolean() ? "$ " : "# ") + command + (command.endsWith(" ") || command.endsWith("/") ? r.nextInt(5000) : "");
+    }
+
+    private static void showWrapped(PDPageContentStream out, PDType1Font font, float size, float left, float width,
+                                    float[] y, String text) throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (String word : text.split(" ")) {
+            String candidate = line.length() == 0 ? word : line + " " + word;
+            if (line.length() > 0 && font.getStringWidth(candidate) / 1000 * size > width) {
+                showLine(out, font, size, left, y, line.toString());
+                line.setLength(0);
+                line.append(word);
+            } else {
+                line.setLength(0);
+                line.append(candidate);
+            }
+        }
+        if (line.length() > 0) showLine(out, font, size, left, y, line.toString());
+    }
+
+    private static void showLine(PDPageContentStream out, PDType1Font font, float size, float left, float[] y,
+                                 String text) throws IOException {
+        out.beginText();
+        out.setFont(font, size);
+        out.newLineAtOffset(left, y[0]);
+        out.showText(text);
+        out.endText();
+        y[0] -= size * 1.35f;
+    }
+
+    private static String secondsSince(long startNanos) {
+        return String.format("%.1fs", (System.nanoTime() - startNanos) / 1e9);
+    }
+}
@@ -0,0 +1,202 @@
+package ui;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Frame-buffered terminal output
+ * Installed as the target of System.out, it collects everything printed until the next flush
+ * (the app flushes before waiting for input) and writes it with a single write call. If a
+ * screen was cleared in between, only the new screen is sent, and it is drawn over the old one
+ * from the home position with each line erased to its end, instead of blanking the terminal
+ * first, so nothing flickers even when the bytes trickle in over a slow link.
+ *
+ * With diff redraw on, lines identical to the previous frame are skipped as well. That needs
+ * absolute cursor rows, so it is only used while the frame fits the known terminal size.
+ */
+public class FrameRenderer extends OutputStream {
+
+    private static final byte[] HOME = "\033[H".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERASE_LINE = "\033[K".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERASE_BELOW = "\033[J".getBytes(StandardCharsets.US_ASCII);
+    private static final int WIDTH_SLACK = 4;
+
+    private final OutputStream out;
+    private final boolean diff;
+    private final int rows;
+    private final int columns;
+
+    private byte[] pending = new byte[1 << 16]; // Printed since the last flush
+    private int length;
+    private int frameStart = -1;                // Where the latest cleared screen begins in pending
+    private byte[] output = new byte[1 << 16];  // Reused for the composed write
+    private int outputLength;
+    private byte[][] previous = new byte[0][];  // Lines of the last full frame, for diffing
+
+    /**
+     * @param rows    terminal height for diff redraw, 0 if unknown (diffing stays off)
+     * @param columns terminal width for diff redraw, 0 if unknown
+     */
+    public FrameRenderer(OutputStream out, boolean diff, int rows, int columns) {
+        this.out = out;
+        this.diff = diff && rows > 0 && columns > 0;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * A PrintStream over this renderer, without auto-flush, in the given encoding
+     */
+    public PrintStream printStream(Charset charset) {
+        return new PrintStream(this, false, charset);
+    }
+
+    /**
+     * Start a new screen; whatever was printed since the last flush will never be seen
+     */
+    public synchronized void clearScreen() {
+        frameStart = length;
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        ensurePending(1);
+        pending[length++] = (byte) b;
+    }
+
+    @Override
+    public synchronized void write(byte[] bytes, int offset, int count) {
+        ensurePending(count);
+        System.arraycopy(bytes, offset, pending, length, count);
+        length += count;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (length == 0 && frameStart < 0) return;
+        outputLength = 0;
+        if (frameStart < 0) {
+            append(pending, 0, length);
+            previous = new byte[0][]; // Printed below the frame; rows may have moved
+        } else {
+            composeFrame(frameStart, length);
+        }
+        out.write(output, 0, outputLength);
+        out.flush();
+        length = 0;
+        frameStart = -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    // ========== Composition ==========
+
+    private void composeFrame(int from, int to) {
+        byte[][] lines = splitLines(from, to);
+        boolean canDiff = diff && fits(lines);
+        append(HOME);
+        for (int i = 0; i < lines.length; i++) {
+            boolean last = i == lines.length - 1;
+            // The last line is always written, so the cursor ends where the prompt expects it
+            if (canDiff && !last && i < previous.length && Arrays.equals(lines[i], previous[i])) {
+                continue;
+            }
+            if (canDiff) appendCursorRow(i + 1);
+            append(lines[i]);
+            append(ERASE_LINE);
+            if (!last && !canDiff) append((byte) '\n');
+        }
+        append(ERASE_BELOW);
+        previous = canDiff ? lines : new byte[0][];
+    }
+
+    private byte[][] splitLines(int from, int to) {
+        int count = 1;
+        for (int i = from; i < to; i++) {
+            if (pending[i] == '\n') count++;
+        }
+        byte[][] lines = new byte[count][];
+        int line = 0;
+        int start = from;
+        for (int i = from; i < to; i++) {
+            if (pending[i] == '\n') {
+                int end = i > start && pending[i - 1] == '\r' ? i - 1 : i;
+                lines[line++] = Arrays.copyOfRange(pending, start, end);
+                start = i + 1;
+            }
+        }
+        lines[line] = Arrays.copyOfRange(pending, start, to);
+        return lines;
+    }
+
+    /**
+     * True if no line can wrap or scroll, so row numbers stay exact
+     */
+    private boolean fits(byte[][] lines) {
+        if (lines.length >= rows) return false;
+        for (byte[] line : lines) {
+            if (displayWidth(line) + WIDTH_SLACK >= columns) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Columns a line takes: escape sequences count zero, characters outside the BMP (emoji)
+     * two, everything else one; fits() leaves slack for the odd wide BMP symbol
+     */
+    static int displayWidth(byte[] line) {
+        int width = 0;
+        for (int i = 0; i < line.length; i++) {
+            int b = line[i] & 0xFF;
+            if (b == 0x1B && i + 1 < line.length && line[i + 1] == '[') {
+                i += 2;
+                while (i < line.length && (line[i] < 0x40 || line[i] > 0x7E)) i++;
+            } else if (b < 0x80) {
+                width++;
+            } else if (b >= 0xF0) {
+                width += 2; // Lead byte of a 4-byte character
+            } else if (b >= 0xC0) {
+                width++;
+            }
+        }
+        return width;
+    }
+
+    private void appendCursorRow(int row) {
+        append((byte) 0x1B);
+        append((byte) '[');
+        append(Integer.toString(row).getBytes(StandardCharsets.US_ASCII));
+        append((byte) ';');
+        append((byte) '1');
+        append((byte) 'H');
+    }
+
+    private void append(byte[] bytes) {
+        append(bytes, 0, bytes.length);
+    }
+
+    private void append(byte[] bytes, int offset, int count) {
+        if (outputLength + count > output.length) {
+            output = Arrays.copyOf(output, Math.max(output.length * 2, outputLength + count));
+        }
+        System.arraycopy(bytes, offset, output, outputLength, count);
+        outputLength += count;
+    }
+
+    private void append(byte b) {
+        if (outputLength == output.length) output = Arrays.copyOf(output, output.length * 2);
+        output[outputLength++] = b;
+    }
+
+    private void ensurePending(int extra) {
+        if (length + extra > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(pending.length * 2, length + extra));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ui;
+
+import java.io.*;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line input fed by a dedicated reader thread
+ * The thread is the only reader of the stream and hands every line to a queue, so callers
+ * can wait with a deadline (pollLine) instead of blocking forever, and no typed line is lost
+ * while nobody is waiting. Waiting parks on the queue; it never spins.
+ * Reads behave like Scanner.nextLine(): once the stream ends they throw NoSuchElementException.
+ * An optional hook runs before every wait, e.g. to flush buffered screen output.
+ * A scripted reactor replays a fixed list of lines instead, without a thread.
+ */
+public class InputReactor {
+
+    private static final String END = new String("\u0000end"); // Compared by identity
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private final Runnable beforeWait;
+
+    public InputReactor(InputStream in) {
+        this(in, () -> { });
+    }
+
+    public InputReactor(InputStream in, Runnable beforeWait) {
+        this(beforeWait);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in));
+        Thread thread = new Thread(() -> readLines(reader), "input-reactor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private InputReactor(Runnable beforeWait) {
+        this.beforeWait = beforeWait;
+    }
+
+    /**
+     * A reactor that yields the given lines and then ends, as if they had been piped in
+     */
+    public static InputReactor scripted(List<String> script) {
+        InputReactor reactor = new InputReactor(() -> { });
+        reactor.lines.addAll(script);
+        reactor.lines.offer(END);
+        return reactor;
+    }
+
+    /**
+     * Lines queued and not read yet
+     */
+    public int pendingLines() {
+        int pending = lines.size();
+        return lines.contains(END) ? pending - 1 : pending;
+    }
+
+    /**
+     * Drop lines queued now and any arriving within the timeout, e.g. an answer finished after
+     * its deadline; returns how many. Text typed but not yet entered is out of reach.
+     */
+    public int discardFor(long timeout, TimeUnit unit) {
+        beforeWait.run();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        int discarded = 0;
+        try {
+            while (true) {
+                long remaining = deadline - System.nanoTime();
+                String line = remaining > 0 ? lines.poll(remaining, TimeUnit.NANOSECONDS) : lines.poll();
+                if (line == null) return discarded;
+                if (line == END) {
+                    lines.offer(END);
+                    return discarded;
+                }
+                discarded++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return discarded;
+        }
+    }
+
+    /**
+     * Next line, waiting as long as it takes
+     */
+    public String nextLine() {
+        beforeWait.run();
+        try {
+            return unwrap(lines.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoSuchElementException("Interrupted while waiting for input");
+        }
+    }
+
+    /**
+     * Next line, or null if none arrives within the timeout
+     */
+    public String pollLine(long timeout, TimeUnit unit) {
+        beforeWait.run();
+        try {
+            String line = lines.poll(timeout, unit);
+            return line == null ? null : unwrap(line);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private String unwrap(String line) {
+        if (line == END) {
+            lines.offer(END); // Keep the end visible to later reads
+            throw new NoSuchElementException("No line found");
+        }
+        return line;
+    }
+
+    private void readLines(BufferedReader reader) {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.put(line);
+            }
+        } catch (IOException | InterruptedException e) {
+            // Treat like end of input
+        } finally {
+            lines.offer(END);
+        }
+    }
+}